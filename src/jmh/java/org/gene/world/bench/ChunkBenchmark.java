@@ -0,0 +1,60 @@
+package org.gene.world.bench;
+
+import org.gene.world.chunks.atlas.ChunkAtlas;
+import org.gene.world.chunks.enums.Biome;
+import org.gene.world.chunks.enums.TileType;
+import org.gene.world.chunks.model.Chunk;
+import org.gene.world.chunks.model.ChunkModel;
+import org.gene.world.chunks.model.TileImageChunkModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construtor do Chunk: fill do modelo no buffer com borda, extrusão de 1px e envio para o atlas
+ * (o upload em si cai no GL stub do {@link HeadlessGdx}).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ChunkBenchmark {
+    private static final int CHUNK_SIZE = 100;
+    private static final long SEED = "A".hashCode();
+
+    private ChunkModel model;
+    private ChunkAtlas atlas;
+
+    @Setup
+    public void setup() {
+        HeadlessGdx.init();
+        model = new TileImageChunkModel(TileType.CORNER_NE, Biome.GROUND, Biome.WATER);
+        atlas = new ChunkAtlas(CHUNK_SIZE);
+    }
+
+    @TearDown
+    public void tearDown() {
+        atlas.dispose();
+        TileImageChunkModel.disposeCache();
+    }
+
+    @Benchmark
+    public Chunk constructAndDispose() {
+        // Offset desalinhado: passa pelo fill + extrusão em vez do slot compartilhado do tile
+        Chunk chunk = new Chunk(CHUNK_SIZE, 0, 0, 4 * CHUNK_SIZE + 37, 2 * CHUNK_SIZE, SEED, model, atlas);
+        chunk.dispose();
+        return chunk;
+    }
+}
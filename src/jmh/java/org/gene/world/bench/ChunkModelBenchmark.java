@@ -0,0 +1,87 @@
+package org.gene.world.bench;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Pixmap;
+import org.gene.world.chunks.enums.Biome;
+import org.gene.world.chunks.enums.TileType;
+import org.gene.world.chunks.model.GroundChunkModel;
+import org.gene.world.chunks.model.TileImageChunkModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ChunkModel.fill de um chunk 100x100, para cada implementação.
+ * worldX0 desalinhado (offset > 0) força o caminho com wraparound do TileImageChunkModel.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ChunkModelBenchmark {
+    private static final int CHUNK_SIZE = 100;
+    private static final long SEED = "A".hashCode();
+
+    @Param({"0", "37"})
+    public int offset;
+
+    private Pixmap pixmap;
+    private TileImageChunkModel tileModel;
+    private GroundChunkModel groundModel;
+    private int worldX0, worldY0;
+
+    @Setup
+    public void setup() {
+        HeadlessGdx.init();
+        pixmap = new Pixmap(CHUNK_SIZE, CHUNK_SIZE, Pixmap.Format.RGBA8888);
+        tileModel = new TileImageChunkModel(TileType.EDGE_N, Biome.GROUND, Biome.WATER);
+        groundModel = new GroundChunkModel(new Color(0.45f, 0.32f, 0.2f, 1f));
+        worldX0 = 3 * CHUNK_SIZE + offset;
+        worldY0 = 5 * CHUNK_SIZE + offset;
+    }
+
+    @TearDown
+    public void tearDown() {
+        pixmap.dispose();
+        TileImageChunkModel.disposeCache();
+    }
+
+    @Benchmark
+    public Pixmap tileImageFill() {
+        tileModel.fill(pixmap, worldX0, worldY0, SEED);
+        return pixmap;
+    }
+
+    /** Referência: o loop original com getPixel/drawPixel por pixel. */
+    @Benchmark
+    public Pixmap tileImageFillPerPixel() {
+        tileModel.fillPerPixel(pixmap, worldX0, worldY0);
+        return pixmap;
+    }
+
+    @Benchmark
+    public Pixmap groundFill() {
+        groundModel.fill(pixmap, worldX0, worldY0, SEED);
+        return pixmap;
+    }
+
+    /** Referência: fBm completo por pixel com setColor/drawPixel. */
+    @Benchmark
+    public Pixmap groundFillPerPixel() {
+        groundModel.fillPerPixel(pixmap, worldX0, worldY0, SEED);
+        return pixmap;
+    }
+}
@@ -0,0 +1,41 @@
+package org.gene.world.bench;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.graphics.GL20;
+
+import java.lang.reflect.Proxy;
+
+/**
+ * Sobe o libGDX sem janela para os benchmarks: Pixmap (gdx2d nativo) e Gdx.files
+ * funcionam de verdade, e o GL é um stub que não faz nada, então new Texture(...)
+ * mede só o caminho da CPU até o glTexImage2D.
+ */
+public final class HeadlessGdx {
+    private static HeadlessApplication app;
+
+    private HeadlessGdx() {}
+
+    public static synchronized void init() {
+        if (app != null) return;
+        HeadlessApplicationConfiguration cfg = new HeadlessApplicationConfiguration();
+        cfg.updatesPerSecond = -1; // sem loop de render
+        app = new HeadlessApplication(new ApplicationAdapter() {}, cfg);
+        Gdx.gl = Gdx.gl20 = stubGl();
+    }
+
+    // Toda chamada devolve o valor padrão do tipo de retorno (0, false ou null)
+    private static GL20 stubGl() {
+        return (GL20) Proxy.newProxyInstance(GL20.class.getClassLoader(), new Class<?>[]{GL20.class},
+                (proxy, method, args) -> {
+                    Class<?> type = method.getReturnType();
+                    if (type == boolean.class) return false;
+                    if (type == int.class) return 0;
+                    if (type == float.class) return 0f;
+                    if (type == long.class) return 0L;
+                    return null;
+                });
+    }
+}
@@ -0,0 +1,74 @@
+package org.gene.world.bench;
+
+import org.gene.world.world.MapGenerator;
+import org.gene.world.world.ParallelMapGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MapGenerator.generateMap por tamanho de grid, seed e solver (curva de escala de 10x10 a 2048x2048).
+ * O LEGACY é O(N²) e fica num estado separado, só com grids pequenos. O ParallelMapGenerator
+ * não tem solver a escolher e também tem o seu estado, para não repetir a mesma medida por solver.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapGeneratorBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Grid {
+        @Param({"10", "64", "256", "1024", "2048"})
+        public int size;
+
+        @Param({"65", "1", "42"})
+        public long seed;
+
+        @Param({"BITMASK", "CONSTRAINED"})
+        public MapGenerator.Solver solver;
+    }
+
+    @State(Scope.Benchmark)
+    public static class LegacyGrid {
+        @Param({"10", "32", "64"})
+        public int size;
+
+        @Param({"65", "1", "42"})
+        public long seed;
+    }
+
+    @State(Scope.Benchmark)
+    public static class ParallelGrid {
+        @Param({"10", "64", "256", "1024", "2048"})
+        public int size;
+
+        @Param({"65", "1", "42"})
+        public long seed;
+    }
+
+    @Benchmark
+    public MapGenerator.GeneratedTile[][] generateMap(Grid grid) {
+        return new MapGenerator(grid.seed, grid.solver).generateMap(grid.size, grid.size);
+    }
+
+    @Benchmark
+    public MapGenerator.GeneratedTile[][] generateMapLegacy(LegacyGrid grid) {
+        return new MapGenerator(grid.seed, MapGenerator.Solver.LEGACY).generateMap(grid.size, grid.size);
+    }
+
+    @Benchmark
+    public byte[] generateParallel(ParallelGrid grid) {
+        return new ParallelMapGenerator(grid.seed).generateTiles(grid.size, grid.size);
+    }
+}
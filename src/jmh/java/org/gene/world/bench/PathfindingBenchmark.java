@@ -0,0 +1,153 @@
+package org.gene.world.bench;
+
+import com.badlogic.gdx.utils.IntArray;
+import org.gene.world.world.ParallelMapGenerator;
+import org.gene.world.world.TileMap;
+import org.gene.world.world.path.HierarchicalPathfinder;
+import org.gene.world.world.path.WalkGrid;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consultas de caminho por segundo em mapas grandes, entre pares ao acaso da maior área de
+ * terra contínua (todos com caminho):
+ * <ul>
+ *   <li>{@code hierarchical}: HPA* sem cache, cada consulta planeja nos portais e refina.</li>
+ *   <li>{@code cached}: os mesmos pares já no cache.</li>
+ *   <li>{@code flat}: A* do gdx-ai direto sobre todos os quadrantes (um cluster do tamanho do
+ *       mapa), como referência; só em 256 x 256, maior que isso a memória do grafo não compensa.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class PathfindingBenchmark {
+    private static final int PAIRS = 512;
+
+    @State(Scope.Benchmark)
+    public static class Hierarchical {
+        @Param({"256", "1024"})
+        public int mapTiles;
+
+        HierarchicalPathfinder cold;
+        HierarchicalPathfinder cached;
+        int[] pairs;
+        int next;
+        final IntArray path = new IntArray();
+
+        @Setup(Level.Trial)
+        public void setup() {
+            TileMap map = new ParallelMapGenerator(65).generateTileMap(mapTiles, mapTiles);
+            cold = new HierarchicalPathfinder(map, HierarchicalPathfinder.LAND,
+                    HierarchicalPathfinder.DEFAULT_CLUSTER_TILES, 0);
+            cached = new HierarchicalPathfinder(map, HierarchicalPathfinder.LAND,
+                    HierarchicalPathfinder.DEFAULT_CLUSTER_TILES, PAIRS);
+            pairs = connectedPairs(cold.getGrid(), 17);
+            for (int i = 0; i < PAIRS; i++) query(cached, pairs, i, path);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Flat {
+        @Param({"256"})
+        public int flatTiles;
+
+        HierarchicalPathfinder finder;
+        int[] pairs;
+        int next;
+        final IntArray path = new IntArray();
+
+        @Setup(Level.Trial)
+        public void setup() {
+            TileMap map = new ParallelMapGenerator(65).generateTileMap(flatTiles, flatTiles);
+            finder = new HierarchicalPathfinder(map, HierarchicalPathfinder.LAND, flatTiles, 0);
+            pairs = connectedPairs(finder.getGrid(), 17);
+        }
+    }
+
+    @Benchmark
+    public int hierarchical(Hierarchical s) {
+        return query(s.cold, s.pairs, s.next++, s.path);
+    }
+
+    @Benchmark
+    public int cached(Hierarchical s) {
+        return query(s.cached, s.pairs, s.next++, s.path);
+    }
+
+    @Benchmark
+    public int flat(Flat s) {
+        return query(s.finder, s.pairs, s.next++, s.path);
+    }
+
+    private static int query(HierarchicalPathfinder finder, int[] pairs, int i, IntArray path) {
+        int k = (i & (PAIRS - 1)) * 4;
+        if (!finder.findPath(pairs[k], pairs[k + 1], pairs[k + 2], pairs[k + 3], path)) {
+            throw new IllegalStateException("Par sem caminho");
+        }
+        return path.size;
+    }
+
+    /**
+     * {@link #PAIRS} pares (sx, sy, gx, gy) dentro da maior componente 4-conexa de quadrantes
+     * andáveis, então todo par tem caminho.
+     */
+    static int[] connectedPairs(WalkGrid grid, long seed) {
+        int w = grid.getWidth(), h = grid.getHeight();
+        int[] component = new int[w * h];
+        int[] queue = new int[w * h];
+        int best = 0, bestSize = 0, label = 0;
+        for (int start = 0; start < w * h; start++) {
+            if (component[start] != 0 || !grid.isWalkable(start % w, start / w)) continue;
+            label++;
+            int head = 0, tail = 0;
+            queue[tail++] = start;
+            component[start] = label;
+            while (head < tail) {
+                int q = queue[head++], x = q % w, y = q / w;
+                tail = visit(grid, component, queue, tail, label, x + 1, y);
+                tail = visit(grid, component, queue, tail, label, x - 1, y);
+                tail = visit(grid, component, queue, tail, label, x, y + 1);
+                tail = visit(grid, component, queue, tail, label, x, y - 1);
+            }
+            if (tail > bestSize) {
+                bestSize = tail;
+                best = label;
+            }
+        }
+
+        Random random = new Random(seed);
+        int[] pairs = new int[PAIRS * 4];
+        for (int i = 0; i < pairs.length; i += 2) {
+            int q;
+            do q = random.nextInt(w * h); while (component[q] != best);
+            pairs[i] = q % w;
+            pairs[i + 1] = q / w;
+        }
+        return pairs;
+    }
+
+    private static int visit(WalkGrid grid, int[] component, int[] queue, int tail, int label, int x, int y) {
+        if (!grid.isWalkable(x, y)) return tail;
+        int q = y * grid.getWidth() + x;
+        if (component[q] != 0) return tail;
+        component[q] = label;
+        queue[tail] = q;
+        return tail + 1;
+    }
+}
@@ -0,0 +1,61 @@
+package org.gene.world.bench;
+
+import org.gene.world.sim.Habitat;
+import org.gene.world.sim.Simulation;
+import org.gene.world.world.ParallelMapGenerator;
+import org.gene.world.world.TileMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ticks por segundo da simulação de criaturas por número de agentes (ops/s = ticks/s; 60 Hz
+ * pede pelo menos 60). O mapa tem cerca de uma célula por agente (o lado arredondado para
+ * cima em múltiplos de 64), comida suficiente para a população não cair. A capacidade é a
+ * população inicial, então nascimentos só repõem mortes e o número de agentes fica estável.
+ * Com {@code -prof gc} dá para conferir que o tick não aloca.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SimulationBenchmark {
+    @Param({"10000", "50000", "100000", "200000"})
+    public int agents;
+
+    private Simulation simulation;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        int side = 64 * (int) Math.ceil(Math.sqrt(agents) / 64);
+        TileMap map = new ParallelMapGenerator(65).generateTileMap(side, side);
+        simulation = new Simulation(new Habitat(map, 100, 0, 0), agents, 7);
+        simulation.spawn(agents);
+        simulation.tick(); // as criaturas criadas entram no World
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        simulation.dispose();
+    }
+
+    @Benchmark
+    public int tick() {
+        simulation.tick();
+        return simulation.getPopulation();
+    }
+}
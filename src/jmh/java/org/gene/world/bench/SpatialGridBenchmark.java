@@ -0,0 +1,97 @@
+package org.gene.world.bench;
+
+import org.gene.world.world.query.SpatialGrid;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Grid espacial com densidade fixa (uma entidade por célula de 64 px em média), variando o
+ * total: {@code rebuild} cresce com N, as consultas não (O(k), uns 7 vizinhos no raio).
+ * {@code scan} é a mesma consulta de raio percorrendo todas as entidades, para comparar. Com
+ * {@code -prof gc} dá para conferir que nada aloca.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SpatialGridBenchmark {
+    private static final float CELL = 64;
+    private static final float RADIUS = 96;
+
+    @Param({"10000", "100000"})
+    public int entities;
+
+    private float side;
+    private int[] ids;
+    private float[] x;
+    private float[] y;
+    private SpatialGrid grid;
+    private final int[] out = new int[256];
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        side = (float) Math.sqrt(entities) * CELL;
+        ids = new int[entities];
+        x = new float[entities];
+        y = new float[entities];
+        Random random = new Random(3);
+        for (int i = 0; i < entities; i++) {
+            ids[i] = i;
+            x[i] = random.nextFloat() * side;
+            y[i] = random.nextFloat() * side;
+        }
+        grid = new SpatialGrid(side, side, CELL, true);
+        grid.rebuild(ids, entities, x, y);
+    }
+
+    @Benchmark
+    public int rebuild() {
+        grid.rebuild(ids, entities, x, y);
+        return grid.size();
+    }
+
+    @Benchmark
+    public int radius() {
+        int e = next++ % entities;
+        return grid.queryRadius(x[e], y[e], RADIUS, out);
+    }
+
+    @Benchmark
+    public int nearest() {
+        int e = next++ % entities;
+        return grid.nearest(x[e], y[e], RADIUS, e);
+    }
+
+    @Benchmark
+    public int scan() {
+        int e = next++ % entities;
+        float qx = x[e], qy = y[e], r2 = RADIUS * RADIUS, half = side / 2;
+        int found = 0;
+        for (int i = 0; i < entities; i++) {
+            float dx = x[i] - qx, dy = y[i] - qy;
+            if (dx > half) dx -= side; else if (dx < -half) dx += side;
+            if (dy > half) dy -= side; else if (dy < -half) dy += side;
+            if (dx * dx + dy * dy <= r2) {
+                if (found < out.length) out[found] = i;
+                found++;
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,65 @@
+package org.gene.world.bench;
+
+import org.gene.world.world.ParallelMapGenerator;
+import org.gene.world.world.TileMap;
+import org.gene.world.world.TileMapFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carga e gravação de um TileMap de size x size células (2048 = ~4,2 milhões) pelo TileMapFormat.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TileMapBenchmark {
+    @Param({"2048"})
+    public int size;
+
+    @Param({"false", "true"})
+    public boolean compress;
+
+    private TileMap map;
+    private Path file;
+
+    @Setup
+    public void setup() throws IOException {
+        map = new ParallelMapGenerator(65).generateTileMap(size, size);
+        file = Files.createTempFile("tilemap", ".gwtm");
+        TileMapFormat.write(map, file, compress);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public TileMap read() throws IOException {
+        return TileMapFormat.read(file);
+    }
+
+    @Benchmark
+    public Path write() throws IOException {
+        TileMapFormat.write(map, file, compress);
+        return file;
+    }
+}
@@ -0,0 +1,153 @@
+package org.gene.world;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessFiles;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.PixmapIO;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import org.gene.world.chunks.enums.TileType;
+import org.gene.world.chunks.model.TileAssets;
+import org.gene.world.chunks.model.TileImageChunkModel;
+import org.gene.world.world.GeneWorldGame;
+import org.gene.world.world.MapGenerator;
+import org.gene.world.world.SeedSweep;
+import org.gene.world.world.TileMap;
+import org.gene.world.world.TileMapFormat;
+import org.gene.world.world.wfc.TileRules;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Varredura de seeds sem janela nem OpenGL: gera muitas seeds em paralelo e grava, por seed,
+ * tempo de geração, contadores do WFC e o histograma de TileType em {@code <out>/stats.csv}.
+ * Opcionalmente grava o mapa ({@code maps/seed-N.gwtm}) e uma imagem ({@code images/seed-N.png}).
+ * <pre>
+ * mvn -q compile exec:java -Dexec.mainClass=org.gene.world.HeadlessWorldGen \
+ *     -Dexec.args="--seeds 5000 --size 64x64 --out sweep"
+ * </pre>
+ * Opções:
+ * <ul>
+ *   <li>{@code --seeds N} (1000), {@code --first S} (0): seeds S .. S+N-1</li>
+ *   <li>{@code --size WxH} (64x64), em células</li>
+ *   <li>{@code --threads T} (núcleos)</li>
+ *   <li>{@code --solver bitmask|constrained} (constrained)</li>
+ *   <li>{@code --out DIR} (sweep)</li>
+ *   <li>{@code --maps}: grava o TileMap; {@code --images}: grava o PNG, com {@code --cell P} (4) pixels por célula</li>
+ * </ul>
+ */
+public class HeadlessWorldGen {
+
+    public static void main(String[] args) throws IOException {
+        int seeds = 1000;
+        long first = 0;
+        int width = 64, height = 64;
+        int threads = Runtime.getRuntime().availableProcessors();
+        MapGenerator.Solver solver = MapGenerator.Solver.CONSTRAINED;
+        Path out = Path.of("sweep");
+        boolean maps = false, images = false;
+        int cell = 4;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--seeds" -> seeds = Integer.parseInt(args[++i]);
+                case "--first" -> first = Long.parseLong(args[++i]);
+                case "--size" -> {
+                    String[] wh = args[++i].toLowerCase(Locale.ROOT).split("x");
+                    width = Integer.parseInt(wh[0]);
+                    height = Integer.parseInt(wh[wh.length - 1]);
+                }
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--solver" -> solver = MapGenerator.Solver.valueOf(args[++i].toUpperCase(Locale.ROOT));
+                case "--out" -> out = Path.of(args[++i]);
+                case "--maps" -> maps = true;
+                case "--images" -> images = true;
+                case "--cell" -> cell = Integer.parseInt(args[++i]);
+                default -> {
+                    System.err.println("Opção desconhecida: " + args[i]);
+                    System.exit(2);
+                }
+            }
+        }
+
+        Files.createDirectories(out);
+        Path mapDir = out.resolve("maps");
+        Path imageDir = out.resolve("images");
+        if (maps) Files.createDirectories(mapDir);
+        if (images) {
+            Files.createDirectories(imageDir);
+            // Pixmap (gdx2d) e Gdx.files para as imagens dos tiles; nada de LWJGL nem GL
+            GdxNativesLoader.load();
+            Gdx.files = new HeadlessFiles();
+            TileAssets.configure(GeneWorldGame.CHUNK_SIZE, Path.of("cache", "assets"));
+            TileAssets.preload(threads).join();
+        }
+
+        MapGenerator.GeneratedTile full = new MapGenerator(0, solver).toGeneratedTile(TileType.FULL);
+        boolean writeMaps = maps, writeImages = images;
+        int cellPixels = cell;
+        SeedSweep sweep = new SeedSweep(width, height, solver);
+
+        long start = System.nanoTime();
+        long[] totals = new long[2]; // nanos de geração, contradições
+        try (Writer csv = Files.newBufferedWriter(out.resolve("stats.csv"))) {
+            csv.write("seed,width,height,millis,collapses,propagations,contradictions,restarts");
+            for (TileType type : TileRules.TILES) csv.write("," + type.name());
+            csv.write('\n');
+
+            sweep.run(first, seeds, threads, result -> {
+                // Na thread que gerou a seed: o que é pesado fica paralelo
+                try {
+                    if (writeMaps) {
+                        TileMap map = TileMap.fromOrdinals(result.width(), result.height(), result.tiles(),
+                                full.primary(), full.secondary());
+                        TileMapFormat.write(map, mapDir.resolve("seed-" + result.seed() + ".gwtm"), true);
+                    }
+                    if (writeImages) {
+                        Pixmap image = SeedSweep.render(result, GeneWorldGame.CHUNK_SIZE, cellPixels);
+                        try {
+                            PixmapIO.writePNG(new FileHandle(imageDir.resolve("seed-" + result.seed() + ".png").toFile()), image);
+                        } finally {
+                            image.dispose();
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, result -> {
+                try {
+                    csv.write(row(result));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                totals[0] += result.nanos();
+                totals[1] += result.stats().getContradictions();
+            });
+        } finally {
+            if (images) TileImageChunkModel.disposeCache();
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf(Locale.ROOT, "%d seeds %dx%d em %.1f s (%.0f seeds/min, %d threads): "
+                        + "geração média %.2f ms, %d contradições -> %s%n",
+                seeds, width, height, seconds, seeds / seconds * 60, threads,
+                totals[0] / 1e6 / Math.max(1, seeds), totals[1], out.resolve("stats.csv"));
+    }
+
+    private static String row(SeedSweep.Result result) {
+        StringBuilder sb = new StringBuilder(128);
+        sb.append(result.seed()).append(',').append(result.width()).append(',').append(result.height())
+                .append(',').append(String.format(Locale.ROOT, "%.3f", result.nanos() / 1e6))
+                .append(',').append(result.stats().getCollapses())
+                .append(',').append(result.stats().getPropagationSteps())
+                .append(',').append(result.stats().getContradictions())
+                .append(',').append(result.stats().getRestarts());
+        for (int count : result.histogram()) sb.append(',').append(count);
+        return sb.append('\n').toString();
+    }
+}
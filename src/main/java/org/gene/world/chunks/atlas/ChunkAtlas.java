@@ -0,0 +1,240 @@
+package org.gene.world.chunks.atlas;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.Texture.TextureFilter;
+import com.badlogic.gdx.graphics.Texture.TextureWrap;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.IntArray;
+import org.gene.world.diagnostics.Metrics;
+import org.gene.world.diagnostics.TextureUploadEvent;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Atlas compartilhado pelas texturas dos chunks.
+ * Cada página é uma Texture grande dividida em slots de (size+2)x(size+2): o chunk vai
+ * para o slot com 1px de borda replicada (extrusão) e é desenhado pelo recorte interno.
+ * Como todos os chunks de uma página usam a mesma Texture, o SpriteBatch desenha a tela
+ * inteira sem trocar de textura (um único flush por página).
+ *
+ * Os slots são endereçados pelo conteúdo: chunks com a mesma chave (ver
+ * {@link org.gene.world.chunks.model.ChunkModel#contentKey} e {@link ContentHash}) compartilham
+ * um único slot com contagem de referências, que só volta para a lista livre quando o
+ * último chunk que o usa é descartado.
+ */
+public class ChunkAtlas {
+    public static final int DEFAULT_PAGE_SIZE = 2048;
+
+    private final int chunkSize;
+    private final int slotSize;
+    private final int pageSize;
+    private final int slotsPerRow;
+    private final int slotsPerPage;
+
+    private final List<Texture> pages = new ArrayList<>();
+    private final IntArray freeSlots = new IntArray();
+    private int nextSlot;
+
+    private final Map<Object, Slot> shared = new HashMap<>();
+    private Pixmap scratch;
+    private TextureRegion placeholder;
+    private long hits;
+    private long misses;
+
+    /** Posição de um chunk no atlas. */
+    public static final class Slot {
+        final int id;
+        final TextureRegion region;
+        final Object key;
+        int refs = 1;
+
+        Slot(int id, TextureRegion region, Object key) {
+            this.id = id;
+            this.region = region;
+            this.key = key;
+        }
+
+        /** Recorte size x size, sem a borda extrudada. */
+        public TextureRegion getRegion() {
+            return region;
+        }
+
+        /** Usado por mais de um chunk: soltar um deles não libera o slot. */
+        public boolean isShared() {
+            return refs > 1;
+        }
+    }
+
+    public ChunkAtlas(int chunkSize) {
+        this(chunkSize, DEFAULT_PAGE_SIZE);
+    }
+
+    public ChunkAtlas(int chunkSize, int pageSize) {
+        this.chunkSize = chunkSize;
+        this.slotSize = chunkSize + 2;
+        this.pageSize = pageSize;
+        this.slotsPerRow = pageSize / slotSize;
+        this.slotsPerPage = slotsPerRow * slotsPerRow;
+    }
+
+    /**
+     * Slot já enviado com o conteúdo {@code key}, com a contagem de referências incrementada,
+     * ou null se ninguém enviou esse conteúdo ainda (aí use {@link #share}).
+     */
+    public Slot acquire(Object key) {
+        Slot slot = shared.get(key);
+        if (slot == null) return null;
+        slot.refs++;
+        hits++;
+        return slot;
+    }
+
+    /**
+     * Reserva um slot para o conteúdo {@code key} e envia a imagem extrudada
+     * ((size+2)x(size+2)) para ele. O Pixmap pode ser descartado ou reaproveitado logo em seguida.
+     */
+    public Slot share(Object key, Pixmap extruded) {
+        Slot slot = allocate(key, extruded);
+        shared.put(key, slot);
+        misses++;
+        return slot;
+    }
+
+    /**
+     * Recorte cinza desenhado no lugar dos chunks cujo conteúdo ainda está sendo gerado.
+     * Fica num slot próprio do atlas, para não quebrar o lote do SpriteBatch.
+     */
+    public TextureRegion getPlaceholder() {
+        if (placeholder == null) {
+            Pixmap pixmap = scratch();
+            pixmap.setColor(0.18f, 0.18f, 0.2f, 1f);
+            pixmap.fill();
+            placeholder = allocate(null, pixmap).region;
+        }
+        return placeholder;
+    }
+
+    /** Bytes enviados para a GPU por slot. */
+    public int getSlotBytes() {
+        return slotSize * slotSize * 4;
+    }
+
+    /** Solta uma referência; o slot volta a ser reaproveitável quando ninguém mais o usa. */
+    public void release(Slot slot) {
+        if (--slot.refs > 0) return;
+        shared.remove(slot.key);
+        freeSlots.add(slot.id);
+    }
+
+    /** Chunks que reaproveitaram um slot já enviado. */
+    public long getHits() { return hits; }
+
+    /** Chunks que precisaram enviar um slot novo. */
+    public long getMisses() { return misses; }
+
+    /** Slots distintos em uso. */
+    public int getSlotCount() { return shared.size(); }
+
+    public int getPageCount() {
+        return pages.size();
+    }
+
+    public void dispose() {
+        for (Texture page : pages) page.dispose();
+        pages.clear();
+        freeSlots.clear();
+        shared.clear();
+        nextSlot = 0;
+        placeholder = null;
+        if (scratch != null) {
+            scratch.dispose();
+            scratch = null;
+        }
+    }
+
+    /**
+     * Buffer (size+2)x(size+2) reaproveitado entre chunks: o modelo preenche o miolo (1,1),
+     * {@link #extrudeBorder} completa a borda e {@link #share} envia para a página. Assim a
+     * construção de um chunk não aloca nenhum Pixmap. Só deve ser usado na thread do GL,
+     * e o conteúdo não sobrevive à construção do próximo chunk.
+     */
+    public Pixmap scratch() {
+        if (scratch == null) {
+            scratch = new Pixmap(slotSize, slotSize, Pixmap.Format.RGBA8888);
+            // cada pixel é sobrescrito, então não há o que misturar com o conteúdo anterior
+            scratch.setBlending(Pixmap.Blending.None);
+        }
+        return scratch;
+    }
+
+    /**
+     * Replica a borda de 1px de um Pixmap RGBA8888 cujo miolo (1..w-2, 1..h-2) já está
+     * preenchido, para o filtro não puxar pixels do vizinho no atlas. Uma passada só sobre o
+     * ByteBuffer: as colunas das pontas em cada linha e depois as linhas de cima e de baixo
+     * inteiras (que já levam os cantos).
+     */
+    public static void extrudeBorder(Pixmap padded) {
+        int w = padded.getWidth();
+        int h = padded.getHeight();
+        int stride = w * 4;
+        ByteBuffer pixels = padded.getPixels();
+
+        for (int y = 1; y < h - 1; y++) {
+            int row = y * stride;
+            pixels.putInt(row, pixels.getInt(row + 4));
+            pixels.putInt(row + stride - 4, pixels.getInt(row + stride - 8));
+        }
+        pixels.put(0, pixels, stride, stride);
+        pixels.put((h - 1) * stride, pixels, (h - 2) * stride, stride);
+    }
+
+    // ------------------- interno -------------------
+
+    private Slot allocate(Object key, Pixmap extruded) {
+        int id = freeSlots.isEmpty() ? nextSlot++ : freeSlots.pop();
+        Slot slot = slotFor(id, key);
+        upload(id, extruded);
+        return slot;
+    }
+
+    private Slot slotFor(int id, Object key) {
+        Texture page = page(id / slotsPerPage);
+        int local = id % slotsPerPage;
+        int x = (local % slotsPerRow) * slotSize;
+        int y = (local / slotsPerRow) * slotSize;
+        // recorta o miolo sem a borda (1..size)
+        return new Slot(id, new TextureRegion(page, x + 1, y + 1, chunkSize, chunkSize), key);
+    }
+
+    private void upload(int id, Pixmap extruded) {
+        TextureUploadEvent event = new TextureUploadEvent();
+        event.begin();
+        Texture page = page(id / slotsPerPage);
+        int local = id % slotsPerPage;
+        page.draw(extruded, (local % slotsPerRow) * slotSize, (local / slotsPerRow) * slotSize);
+
+        Metrics.TEXTURE_UPLOADS.increment();
+        Metrics.TEXTURE_UPLOAD_BYTES.add(getSlotBytes());
+        if (event.shouldCommit()) {
+            event.bytes = getSlotBytes();
+            event.page = id / slotsPerPage;
+            event.slot = id;
+            event.commit();
+        }
+    }
+
+    private Texture page(int index) {
+        while (pages.size() <= index) {
+            Texture page = new Texture(pageSize, pageSize, Pixmap.Format.RGBA8888);
+            page.setFilter(TextureFilter.Nearest, TextureFilter.Nearest);
+            page.setWrap(TextureWrap.ClampToEdge, TextureWrap.ClampToEdge);
+            pages.add(page);
+        }
+        return pages.get(index);
+    }
+}
@@ -0,0 +1,39 @@
+package org.gene.world.chunks.atlas;
+
+import com.badlogic.gdx.graphics.Pixmap;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Chave de conteúdo de um Pixmap: dois hashes independentes de 64 bits sobre os pixels,
+ * mais as dimensões. Usada para deduplicar chunks procedurais que não têm uma chave
+ * barata ({@link org.gene.world.chunks.model.ChunkModel#contentKey}).
+ */
+public record ContentHash(int width, int height, long h1, long h2) {
+
+    public static ContentHash of(Pixmap pixmap) {
+        ByteBuffer pixels = pixmap.getPixels();
+        int limit = pixmap.getWidth() * pixmap.getHeight() * 4;
+        long h1 = 0x9E3779B97F4A7C15L;
+        long h2 = 0xC2B2AE3D27D4EB4FL;
+        int i = 0;
+        for (; i + 8 <= limit; i += 8) {
+            long v = pixels.getLong(i);
+            h1 = mix(h1 ^ v);
+            h2 = Long.rotateLeft(h2 + v * 0xFF51AFD7ED558CCDL, 29) * 0xC4CEB9FE1A85EC53L;
+        }
+        for (; i < limit; i++) {
+            long v = pixels.get(i) & 0xFF;
+            h1 = mix(h1 ^ v);
+            h2 = Long.rotateLeft(h2 + v * 0xFF51AFD7ED558CCDL, 29) * 0xC4CEB9FE1A85EC53L;
+        }
+        return new ContentHash(pixmap.getWidth(), pixmap.getHeight(), mix(h1), mix(h2));
+    }
+
+    // Finalizador do SplitMix64
+    private static long mix(long h) {
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+}
@@ -0,0 +1,187 @@
+package org.gene.world.chunks.cache;
+
+import com.badlogic.gdx.graphics.Pixmap;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache em disco do mundo gerado, em arquivos de região com layout fixo, acessados por
+ * {@link FileChannel#map}. Cada arquivo guarda uma região de N x N chunks:
+ * <pre>
+ *  cabeçalho  MAGIC, FORMAT, seed, versão do mundo, N, tamanho do chunk
+ *  tiles      1 byte de presença + N*N ordinais de TileType
+ *  slots      N*N x (versão do modelo: long, pixels RGBA8888 (size+2)^2 já extrudados)
+ * </pre>
+ * O diretório e o cabeçalho carregam a seed e a versão do mundo (gerador + formato), e cada
+ * slot a {@link org.gene.world.chunks.model.ChunkModel#contentVersion} do modelo que o gerou:
+ * se qualquer uma não bater, a entrada é tratada como ausente e regerada, nunca servida velha.
+ * Slots nunca escritos ficam como buracos do arquivo esparso.
+ * <p>
+ * As leituras/escritas de chunk podem vir de várias threads (cada slot é uma faixa própria
+ * do mapeamento); abrir/mapear arquivos é sincronizado.
+ */
+public class RegionFileCache {
+    private static final int MAGIC = 0x47575243; // "GWRC"
+    private static final int FORMAT = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int MAX_OPEN_REGIONS = 32;
+
+    private final Path dir;
+    private final long seed;
+    private final long worldVersion;
+    private final int regionSize;
+    private final int chunkSize;
+    private final int pixelBytes;
+    private final int slotStride;
+    private final int slotsOffset;
+    private final long fileBytes;
+
+    private final Map<Long, MappedByteBuffer> open = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, MappedByteBuffer> eldest) {
+            // o mapeamento é liberado pelo GC quando ninguém mais o referencia
+            return size() > MAX_OPEN_REGIONS;
+        }
+    };
+
+    private volatile long chunkHits;
+    private volatile long chunkMisses;
+
+    public RegionFileCache(Path root, long seed, long worldVersion, int regionSize, int chunkSize) {
+        this.dir = root.resolve(Long.toHexString(seed) + "-" + Long.toHexString(worldVersion));
+        this.seed = seed;
+        this.worldVersion = worldVersion;
+        this.regionSize = regionSize;
+        this.chunkSize = chunkSize;
+        this.pixelBytes = (chunkSize + 2) * (chunkSize + 2) * 4;
+        this.slotStride = 8 + pixelBytes;
+        int tilesEnd = HEADER_BYTES + 1 + regionSize * regionSize;
+        this.slotsOffset = (tilesEnd + 7) & ~7;
+        this.fileBytes = slotsOffset + (long) slotStride * regionSize * regionSize;
+    }
+
+    /** Tiles da região (ordinais, {@code y * N + x}), ou null se ainda não foram gravados. */
+    public byte[] readTiles(int rx, int ry) {
+        MappedByteBuffer map = region(rx, ry);
+        if (map.get(HEADER_BYTES) == 0) return null;
+        byte[] tiles = new byte[regionSize * regionSize];
+        map.get(HEADER_BYTES + 1, tiles);
+        return tiles;
+    }
+
+    public void writeTiles(int rx, int ry, byte[] tiles) {
+        MappedByteBuffer map = region(rx, ry);
+        map.put(HEADER_BYTES + 1, tiles);
+        map.put(HEADER_BYTES, (byte) 1); // presença por último
+    }
+
+    /**
+     * Copia os pixels extrudados do chunk global (cx, cy) para {@code padded}, se a entrada
+     * existir e tiver sido gerada pela mesma versão do modelo.
+     */
+    public boolean readChunk(int cx, int cy, long modelVersion, Pixmap padded) {
+        MappedByteBuffer map = region(Math.floorDiv(cx, regionSize), Math.floorDiv(cy, regionSize));
+        int offset = slotOffset(cx, cy);
+        if (modelVersion == 0 || map.getLong(offset) != modelVersion) {
+            chunkMisses++;
+            return false;
+        }
+        padded.getPixels().put(0, map, offset + 8, pixelBytes);
+        chunkHits++;
+        return true;
+    }
+
+    public void writeChunk(int cx, int cy, long modelVersion, Pixmap padded) {
+        if (modelVersion == 0) return;
+        MappedByteBuffer map = region(Math.floorDiv(cx, regionSize), Math.floorDiv(cy, regionSize));
+        int offset = slotOffset(cx, cy);
+        map.putLong(offset, 0L);
+        map.put(offset + 8, padded.getPixels(), 0, pixelBytes);
+        map.putLong(offset, modelVersion); // versão por último: só vale depois dos pixels
+    }
+
+    /** Chunks lidos do disco. */
+    public long getChunkHits() { return chunkHits; }
+
+    /** Chunks procurados e não encontrados (ou de outra versão). */
+    public long getChunkMisses() { return chunkMisses; }
+
+    /** Grava os mapeamentos abertos no disco e os solta. */
+    public synchronized void close() {
+        for (MappedByteBuffer map : open.values()) map.force();
+        open.clear();
+    }
+
+    // ------------------- interno -------------------
+
+    private int slotOffset(int cx, int cy) {
+        int lx = Math.floorMod(cx, regionSize);
+        int ly = Math.floorMod(cy, regionSize);
+        return slotsOffset + (ly * regionSize + lx) * slotStride;
+    }
+
+    private synchronized MappedByteBuffer region(int rx, int ry) {
+        long key = ((long) rx << 32) | (ry & 0xFFFFFFFFL);
+        MappedByteBuffer map = open.get(key);
+        if (map == null) {
+            map = map(dir.resolve("r." + rx + "." + ry + ".gwr"));
+            open.put(key, map);
+        }
+        return map;
+    }
+
+    private MappedByteBuffer map(Path file) {
+        try {
+            Files.createDirectories(dir);
+            try (FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                boolean fresh = channel.size() != fileBytes;
+                if (fresh) {
+                    // tamanho errado = arquivo de outro layout ou corrompido: recomeça vazio (esparso)
+                    channel.truncate(0);
+                    channel.write(ByteBuffer.allocate(1), fileBytes - 1);
+                }
+                MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileBytes);
+                if (fresh || !headerMatches(map)) {
+                    if (!fresh) clear(map);
+                    writeHeader(map);
+                }
+                return map;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao abrir o cache de região " + file, e);
+        }
+    }
+
+    private boolean headerMatches(ByteBuffer map) {
+        return map.getInt(0) == MAGIC && map.getInt(4) == FORMAT
+                && map.getLong(8) == seed && map.getLong(16) == worldVersion
+                && map.getInt(24) == regionSize && map.getInt(28) == chunkSize;
+    }
+
+    private void writeHeader(ByteBuffer map) {
+        map.putInt(0, MAGIC);
+        map.putInt(4, FORMAT);
+        map.putLong(8, seed);
+        map.putLong(16, worldVersion);
+        map.putInt(24, regionSize);
+        map.putInt(28, chunkSize);
+    }
+
+    // Invalida tiles e todos os slots (só as marcas; os pixels são sobrescritos quando regerados)
+    private void clear(ByteBuffer map) {
+        map.put(HEADER_BYTES, (byte) 0);
+        for (int i = 0; i < regionSize * regionSize; i++) {
+            map.putLong(slotsOffset + i * slotStride, 0L);
+        }
+    }
+}
@@ -1,9 +1,15 @@
 package org.gene.world.chunks.enums;
 
 // Representa o "material" do chunk: Terra, Água, Areia, etc.
+// A textura base de cada um é assets/<nome>.png; transições sem PNG próprio são sintetizadas.
+// Novos biomas entram no fim: o ordinal é gravado nos mapas e no cache em disco.
 public enum Biome {
     GROUND,
-    WATER;
+    WATER,
+    GRASS,
+    SAND,
+    LAVA,
+    STONEFLOOR;
 
     @Override
     public String toString() {
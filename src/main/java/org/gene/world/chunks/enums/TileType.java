@@ -94,6 +94,20 @@ public enum TileType {
         };
     }
 
+    /** Bits dos quadrantes com o bioma primário. */
+    public static final int QUADRANT_NW = 1, QUADRANT_NE = 2, QUADRANT_SW = 4, QUADRANT_SE = 8;
+
+    /**
+     * Quadrantes do bioma primário como máscara de bits ({@link #QUADRANT_NW} | ...):
+     * 15 = FULL, 0 = FULL_SECONDARY. Tiles com a mesma máscara têm o mesmo desenho.
+     */
+    public int quadrantMask() {
+        return (nwQuadrant == QuadrantType.PRIMARY ? QUADRANT_NW : 0)
+                | (neQuadrant == QuadrantType.PRIMARY ? QUADRANT_NE : 0)
+                | (swQuadrant == QuadrantType.PRIMARY ? QUADRANT_SW : 0)
+                | (seQuadrant == QuadrantType.PRIMARY ? QUADRANT_SE : 0);
+    }
+
     public Set<TileType> getValidNeighbors(Direction direction) {
         return adjacencyRules.get(direction);
     }
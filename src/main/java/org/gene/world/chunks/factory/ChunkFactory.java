@@ -1,12 +1,28 @@
 package org.gene.world.chunks.factory;
 
+import com.badlogic.gdx.Gdx;
 import org.gene.world.chunks.enums.Biome;
 import org.gene.world.chunks.enums.TileType;
 import org.gene.world.chunks.model.ChunkModel;
 import org.gene.world.chunks.model.TileImageChunkModel;
+import org.gene.world.chunks.model.TransitionTileModel;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ChunkFactory {
+    // Se existe o PNG desenhado à mão para o tile; consultado uma vez por nome de arquivo
+    private static final Map<String, Boolean> HANDMADE = new ConcurrentHashMap<>();
+
+    /**
+     * Usa o PNG do tile quando ele existe (as texturas base e as transições desenhadas à mão);
+     * as demais transições são compostas em tempo de execução a partir das texturas base.
+     */
     public static ChunkModel modelFor(TileType type, Biome primary, Biome secondary) {
-        return new TileImageChunkModel(type, primary, secondary);
+        String filename = type.getFilename(primary, secondary);
+        boolean handmade = HANDMADE.computeIfAbsent(filename, f -> Gdx.files.internal(f).exists());
+        return handmade
+                ? new TileImageChunkModel(type, primary, secondary)
+                : new TransitionTileModel(type, primary, secondary);
     }
-}
\ No newline at end of file
+}
@@ -1,77 +1,164 @@
 package org.gene.world.chunks.model;
 
 import com.badlogic.gdx.graphics.Pixmap;
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.Texture.TextureFilter;
-import com.badlogic.gdx.graphics.Texture.TextureWrap;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import org.gene.world.chunks.atlas.ChunkAtlas;
+import org.gene.world.chunks.atlas.ContentHash;
+import org.gene.world.diagnostics.ChunkFillEvent;
+import org.gene.world.diagnostics.Metrics;
 
 public class Chunk {
-    private final int size;           // 100
+    final int size;                   // 100
+    private final int drawSize;       // tamanho na tela (= size, ou maior nos super-chunks de LOD)
     private final int screenX, screenY;
 
-    private final Pixmap inner;       // 100x100 (gerado pelo modelo)
-    private final Pixmap extruded;    // 102x102 (borda 1px replicada)
-    private final Texture texture;    // da imagem 102x102
-    private final TextureRegion region; // recorte 100x100 (remove a borda)
+    private final ChunkAtlas atlas;
+    private ChunkAtlas.Slot slot; // recorte 100x100 dentro de uma página do atlas (compartilhado)
+    private boolean disposed;
+
+    // Só para chunks do ChunkPipeline: o necessário para regerar o conteúdo depois de descartado
+    final ChunkPipeline pipeline;
+    final ChunkModel model;
+    final int worldX0, worldY0;
+    final long seed;
+    boolean pending;       // conteúdo sendo gerado
+    long lastRendered;     // frame do pipeline em que foi desenhado pela última vez
+    Chunk lruPrev, lruNext; // lista de descarte do pipeline, do menos para o mais recente
+    boolean lruLinked;
 
     public Chunk(int size, int screenX, int screenY,
                  int worldX0, int worldY0, long seed,
-                 ChunkModel model) {
+                 ChunkModel model, ChunkAtlas atlas) {
+        this.size = size;
+        this.drawSize = size;
+        this.screenX = screenX;
+        this.screenY = screenY;
+        this.atlas = atlas;
+        this.pipeline = null;
+        this.model = model;
+        this.worldX0 = worldX0;
+        this.worldY0 = worldY0;
+        this.seed = seed;
+
+        // 1) se outro chunk já enviou exatamente este conteúdo, só compartilha o slot
+        Object key = model.contentKey(worldX0, worldY0, size, seed);
+        ChunkAtlas.Slot existing = key != null ? atlas.acquire(key) : null;
+        if (existing != null) {
+            slot = existing;
+            return;
+        }
+
+        // 2) gera o conteúdo real 100x100 direto no miolo do buffer com borda e replica a borda
+        Pixmap padded = atlas.scratch();
+        fillPadded(model, padded, size, worldX0, worldY0, seed);
+
+        // modelos sem chave barata são deduplicados pelo hash dos pixels
+        // (a borda é função do miolo, então hashear o buffer inteiro dá no mesmo)
+        if (key == null) {
+            key = ContentHash.of(padded);
+            existing = atlas.acquire(key);
+            if (existing != null) {
+                slot = existing;
+                return;
+            }
+        }
+
+        // 3) envio para um slot do atlas; o buffer volta a ser usado pelo próximo chunk
+        slot = atlas.share(key, padded);
+    }
+
+    /**
+     * Fill do modelo no miolo (1..size) de um buffer com borda, seguido da extrusão da borda.
+     * Medido no histograma de fill e no evento {@link ChunkFillEvent} do JFR.
+     */
+    static void fillPadded(ChunkModel model, Pixmap padded, int size, int worldX0, int worldY0, long seed) {
+        ChunkFillEvent event = new ChunkFillEvent();
+        event.begin();
+        long start = Metrics.start();
+        model.fill(padded, 1, 1, size, size, worldX0, worldY0, seed);
+        ChunkAtlas.extrudeBorder(padded);
+        Metrics.CHUNK_FILL_TIME.recordSince(start);
+        if (event.shouldCommit()) {
+            event.modelType = model.getClass();
+            event.worldX0 = worldX0;
+            event.worldY0 = worldY0;
+            event.size = size;
+            event.commit();
+        }
+    }
+
+    /** Chunk ainda sem textura, preenchido (e regerado, se descartado) pelo {@link ChunkPipeline}. */
+    Chunk(int size, int drawSize, int screenX, int screenY, int worldX0, int worldY0, long seed,
+          ChunkModel model, ChunkAtlas atlas, ChunkPipeline pipeline) {
         this.size = size;
+        this.drawSize = drawSize;
         this.screenX = screenX;
         this.screenY = screenY;
+        this.atlas = atlas;
+        this.pipeline = pipeline;
+        this.model = model;
+        this.worldX0 = worldX0;
+        this.worldY0 = worldY0;
+        this.seed = seed;
+    }
 
-        // 1) gera o conteúdo real 100x100
-        inner = new Pixmap(size, size, Pixmap.Format.RGBA8888);
-        model.fill(inner, worldX0, worldY0, seed);
-
-        // 2) cria um pixmap 102x102 e cola o 100x100 no centro (1,1)
-        extruded = new Pixmap(size + 2, size + 2, Pixmap.Format.RGBA8888);
-        extruded.drawPixmap(inner,
-                0, 0, size, size,   // src
-                1, 1, size, size);  // dst
-
-        // 2.a) extrusão das LINHAS (top/bottom)
-        extruded.drawPixmap(inner,
-                0, 0, size, 1,      // primeira linha do inner
-                1, 0, size, 1);     // topo do extruded
-        extruded.drawPixmap(inner,
-                0, size - 1, size, 1, // última linha do inner
-                1, size + 1, size, 1);// base do extruded
-
-        // 2.b) extrusão das COLUNAS (left/right)
-        extruded.drawPixmap(inner,
-                0, 0, 1, size,      // primeira coluna
-                0, 1, 1, size);     // esquerda do extruded
-        extruded.drawPixmap(inner,
-                size - 1, 0, 1, size, // última coluna
-                size + 1, 1, 1, size);// direita do extruded
-
-        // 2.c) cantos
-        extruded.drawPixmap(inner, 0, 0, 1, 1, 0, 0, 1, 1);                         // TL
-        extruded.drawPixmap(inner, size - 1, 0, 1, 1, size + 1, 0, 1, 1);           // TR
-        extruded.drawPixmap(inner, 0, size - 1, 1, 1, 0, size + 1, 1, 1);           // BL
-        extruded.drawPixmap(inner, size - 1, size - 1, 1, 1, size + 1, size + 1, 1, 1); // BR
-
-        // 3) textura da imagem extrudada + recorte 100x100
-        texture = new Texture(extruded);
-        texture.setFilter(TextureFilter.Nearest, TextureFilter.Nearest);
-        texture.setWrap(TextureWrap.ClampToEdge, TextureWrap.ClampToEdge);
-
-        // recorta o miolo sem a borda (1..size)
-        region = new TextureRegion(texture, 1, 1, size, size);
+    /** Recebe o slot (já com a referência contada) quando o conteúdo fica pronto. */
+    void attach(ChunkAtlas.Slot slot) {
+        this.slot = slot;
+        this.pending = false;
+    }
+
+    /** Solta o slot; o chunk volta a mostrar o placeholder até ser regerado. */
+    void detach() {
+        atlas.release(slot);
+        slot = null;
+    }
+
+    /** O slot também é usado por outro chunk (soltá-lo não libera textura). */
+    boolean isShared() {
+        return slot != null && slot.isShared();
+    }
+
+    public boolean isReady() {
+        return slot != null;
+    }
+
+    boolean isDisposed() {
+        return disposed;
     }
 
     public void render(SpriteBatch batch) {
-        // desenha o recorte (100x100) exatamente na célula do chunk
-        batch.draw(region, screenX, screenY, size, size);
+        if (pipeline != null) pipeline.touch(this);
+        // desenha o recorte (100x100) exatamente na célula do chunk; enquanto não fica pronto, o placeholder
+        TextureRegion region = slot != null ? slot.getRegion() : atlas.getPlaceholder();
+        batch.draw(region, screenX, screenY, drawSize, drawSize);
+    }
+
+    /** Acrescenta o chunk ao cache que está sendo gravado (entre beginCache e endCache). */
+    public void addTo(SpriteCache cache) {
+        TextureRegion region = slot != null ? slot.getRegion() : atlas.getPlaceholder();
+        cache.add(region, screenX, screenY, drawSize, drawSize);
+    }
+
+    /**
+     * Marca o chunk como em uso enquanto for desenhado sem passar pelo {@link #render}: o
+     * orçamento de textura não o descarta até o {@link #unpin}. Se já tinha sido descartado,
+     * agenda a regeneração.
+     */
+    public void pin() {
+        if (pipeline != null) pipeline.pin(this);
+    }
+
+    public void unpin() {
+        if (pipeline != null) pipeline.unpin(this);
     }
 
     public void dispose() {
-        texture.dispose();
-        inner.dispose();
-        extruded.dispose();
+        if (disposed) return;
+        disposed = true;
+        if (pipeline != null) pipeline.forget(this);
+        if (slot != null) atlas.release(slot);
     }
 }
@@ -8,4 +8,38 @@ import com.badlogic.gdx.graphics.Pixmap;
  */
 public interface ChunkModel {
     void fill(Pixmap pixmap, int worldX0, int worldY0, long seed);
+
+    /**
+     * Preenche só o retângulo w x h em (dstX, dstY) do Pixmap com o conteúdo do mundo a partir
+     * de (worldX0, worldY0). O Chunk usa isso para gerar direto no miolo do buffer com borda.
+     * A implementação padrão passa por um Pixmap temporário; sobrescreva para evitar a cópia.
+     */
+    default void fill(Pixmap pixmap, int dstX, int dstY, int w, int h, int worldX0, int worldY0, long seed) {
+        Pixmap tmp = new Pixmap(w, h, Pixmap.Format.RGBA8888);
+        fill(tmp, worldX0, worldY0, seed);
+        Pixmap.Blending blending = pixmap.getBlending();
+        pixmap.setBlending(Pixmap.Blending.None);
+        pixmap.drawPixmap(tmp, dstX, dstY);
+        pixmap.setBlending(blending);
+        tmp.dispose();
+    }
+
+    /**
+     * Identidade do conteúdo que o fill produziria em um chunk {@code size}x{@code size} em
+     * (worldX0, worldY0): chunks com chaves iguais ({@code equals}) têm exatamente os mesmos
+     * pixels e compartilham a textura. Retorne null quando não houver uma chave barata; nesse
+     * caso o chunk é deduplicado pelo hash dos pixels depois do fill.
+     */
+    default Object contentKey(int worldX0, int worldY0, int size, long seed) {
+        return null;
+    }
+
+    /**
+     * Versão do que o fill produz (algoritmo, parâmetros e assets), gravada junto dos pixels
+     * em caches persistentes: se mudar, o que está no disco deixa de valer. Qualquer mudança
+     * no fill precisa mudar este valor. 0 significa "não persistir".
+     */
+    default long contentVersion() {
+        return 0L;
+    }
 }
\ No newline at end of file
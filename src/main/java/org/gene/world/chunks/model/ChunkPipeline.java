@@ -0,0 +1,407 @@
+package org.gene.world.chunks.model;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import org.gene.world.chunks.atlas.ChunkAtlas;
+import org.gene.world.chunks.atlas.ContentHash;
+import org.gene.world.chunks.cache.RegionFileCache;
+import org.gene.world.diagnostics.Metrics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gera o conteúdo dos chunks fora da thread de render.
+ * <ol>
+ *   <li>{@link #submit} devolve na hora um Chunk pendente (desenhado com o placeholder do atlas).
+ *       Se o conteúdo já está no atlas, ou já está sendo gerado para outro chunk, não gera de novo.</li>
+ *   <li>Um pool de threads faz o fill do modelo e a extrusão da borda num buffer próprio.</li>
+ *   <li>{@link #upload}, chamado uma vez por frame na thread do GL, envia os buffers prontos
+ *       para o atlas até estourar o orçamento de bytes ou de tempo do frame (pelo menos um por
+ *       frame, para sempre avançar).</li>
+ * </ol>
+ * O ChunkAtlas só é tocado na thread do GL; os workers só leem o modelo e escrevem no próprio buffer.
+ * <p>
+ * A memória de textura tem um orçamento ({@link #setTextureBudget}). Acima dele, os chunks
+ * desenhados há mais tempo soltam seus slots, numa lista LRU intrusiva (cada desenho move o
+ * chunk para o fim, sem alocar). Como o fill é determinístico em (worldX0, worldY0, seed), o
+ * chunk é regerado quando volta a ser desenhado.
+ */
+public class ChunkPipeline {
+    public static final int DEFAULT_UPLOAD_BYTES = 1 << 20;
+    public static final long DEFAULT_UPLOAD_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+    private static final int MAX_POOLED_BUFFERS = 64;
+    public static final long DEFAULT_TEXTURE_BUDGET_BYTES = 128L << 20;
+
+    private final ChunkAtlas atlas;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+
+    private final Map<Object, Job> inFlight = new HashMap<>();       // só na thread do GL
+    private final Queue<Job> ready = new ConcurrentLinkedQueue<>();
+    private final Queue<Pixmap> buffers = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooledBuffers = new AtomicInteger();
+    private volatile boolean closed;
+    private volatile RegionFileCache diskCache;
+    private int pending;
+
+    private int uploadBytes = DEFAULT_UPLOAD_BYTES;
+    private long uploadNanos = DEFAULT_UPLOAD_NANOS;
+
+    // Residência (só na thread do GL): chunks com slot, do desenhado há mais tempo ao mais recente.
+    // Chunks fixados ficam fora da lista enquanto estão fixados.
+    private Chunk lruHead, lruTail;
+    private int budgetSlots;
+    private long frame;
+    private long evictions;
+    private long regenerations;
+    private long failures;
+    private Throwable lastFailure;
+    private long changes;
+
+    private static final class Job {
+        final ChunkModel model;
+        final int size, worldX0, worldY0;
+        final long seed;
+        final Object key;                          // chave do modelo, ou null
+        final List<Chunk> waiters = new ArrayList<>(1);
+
+        // preenchidos pelo worker; visíveis na thread do GL pela fila ready
+        Pixmap pixmap;
+        Object hash;
+        Throwable error;
+
+        Job(ChunkModel model, int size, int worldX0, int worldY0, long seed, Object key) {
+            this.model = model;
+            this.size = size;
+            this.worldX0 = worldX0;
+            this.worldY0 = worldY0;
+            this.seed = seed;
+            this.key = key;
+        }
+    }
+
+    /** Pool fixo com um worker por núcleo, menos o da thread de render. */
+    public ChunkPipeline(ChunkAtlas atlas) {
+        this(atlas, Executors.newFixedThreadPool(
+                Math.max(1, Runtime.getRuntime().availableProcessors() - 1), r -> {
+                    Thread t = new Thread(r, "chunk-worker");
+                    t.setDaemon(true);
+                    t.setPriority(Thread.NORM_PRIORITY - 1);
+                    return t;
+                }), true);
+    }
+
+    /** Usa o executor dado, que continua sendo de quem o criou. */
+    public ChunkPipeline(ChunkAtlas atlas, ExecutorService executor) {
+        this(atlas, executor, false);
+    }
+
+    private ChunkPipeline(ChunkAtlas atlas, ExecutorService executor, boolean ownsExecutor) {
+        this.atlas = atlas;
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+        this.budgetSlots = slotsFor(atlas, DEFAULT_TEXTURE_BUDGET_BYTES);
+    }
+
+    /** Máximo de slots distintos no atlas antes de começar a descartar os menos usados. */
+    public void setTextureBudget(int slots) {
+        this.budgetSlots = slots;
+    }
+
+    /** Mesmo que {@link #setTextureBudget}, em bytes de textura. */
+    public void setTextureBudgetBytes(long bytes) {
+        this.budgetSlots = slotsFor(atlas, bytes);
+    }
+
+    private static int slotsFor(ChunkAtlas atlas, long bytes) {
+        return (int) Math.min(Integer.MAX_VALUE, bytes / atlas.getSlotBytes());
+    }
+
+    /** Bytes de textura ocupados pelos slots em uso. */
+    public long getResidentBytes() {
+        return (long) atlas.getSlotCount() * atlas.getSlotBytes();
+    }
+
+    /** Chunks que soltaram o slot por causa do orçamento. */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /** Chunks descartados que voltaram a ser desenhados e foram regerados. */
+    public long getRegenerations() {
+        return regenerations;
+    }
+
+    /** Jobs cujo fill falhou; os chunks deles ficam com o placeholder até serem desenhados de novo. */
+    public long getFailures() {
+        return failures;
+    }
+
+    /** Erro da última falha de fill, ou null. */
+    public Throwable getLastFailure() {
+        return lastFailure;
+    }
+
+    /**
+     * Incrementado quando um chunk fixado ({@link Chunk#pin}) recebe o slot, isto é, quando a
+     * textura de um chunk desenhado por geometria em cache muda. Quem guarda essa geometria
+     * (ex.: um SpriteCache) compara com o valor da última vez para saber se precisa refazê-la.
+     * Chunks não fixados (pré-carga, render direto) não contam, e os fixados nunca são descartados.
+     */
+    public long getChangeCount() {
+        return changes;
+    }
+
+    /** Orçamento de envio por frame: para depois de {@code bytes} enviados ou {@code nanos} gastos. */
+    public void setUploadBudget(int bytes, long nanos) {
+        this.uploadBytes = bytes;
+        this.uploadNanos = nanos;
+    }
+
+    /**
+     * Cache em disco consultado pelos workers antes do fill; o que for gerado é gravado nele.
+     * null desliga.
+     */
+    public void setDiskCache(RegionFileCache diskCache) {
+        this.diskCache = diskCache;
+    }
+
+    /** Chunks com o conteúdo sendo gerado ou esperando envio. */
+    public int getPendingCount() {
+        return pending;
+    }
+
+    /** Cria o chunk e agenda a geração do conteúdo. Só na thread do GL. */
+    public Chunk submit(int size, int screenX, int screenY,
+                        int worldX0, int worldY0, long seed, ChunkModel model) {
+        return submit(size, size, screenX, screenY, worldX0, worldY0, seed, model);
+    }
+
+    /**
+     * Como {@link #submit(int, int, int, int, int, long, ChunkModel)}, mas desenhado com
+     * {@code drawSize} x {@code drawSize} na tela (super-chunks de LOD cobrem vários chunks).
+     */
+    public Chunk submit(int size, int drawSize, int screenX, int screenY,
+                        int worldX0, int worldY0, long seed, ChunkModel model) {
+        Chunk chunk = new Chunk(size, drawSize, screenX, screenY, worldX0, worldY0, seed, model, atlas, this);
+        chunk.lastRendered = frame;
+        schedule(chunk);
+        return chunk;
+    }
+
+    /**
+     * Envia para o atlas os conteúdos prontos, dentro do orçamento do frame, e entrega os slots
+     * aos chunks. Chunks descartados enquanto esperavam são ignorados. Um fill que falhou não
+     * interrompe o frame: é contado ({@link #getFailures}) e o chunk volta a ser agendado quando
+     * for desenhado de novo. Só na thread do GL.
+     */
+    public void upload() {
+        frame++;
+        long start = System.nanoTime();
+        int bytes = 0;
+        int uploaded = 0;
+        Job job;
+        while ((uploaded == 0 || (bytes < uploadBytes && System.nanoTime() - start < uploadNanos))
+                && (job = ready.poll()) != null) {
+            if (job.key != null) inFlight.remove(job.key);
+            pending -= job.waiters.size();
+            if (job.error != null) {
+                // conta e descarta o job: o próximo render agenda de novo quem ainda for desenhado
+                if (job.pixmap != null) recycle(job.pixmap);
+                for (Chunk chunk : job.waiters) chunk.pending = false;
+                failures++;
+                lastFailure = job.error;
+                Metrics.CHUNK_FAILURES.increment();
+                continue;
+            }
+
+            Object key = job.key != null ? job.key : job.hash;
+            for (Chunk chunk : job.waiters) {
+                if (chunk.isDisposed()) continue;
+                ChunkAtlas.Slot slot = atlas.acquire(key);
+                if (slot == null) {
+                    slot = atlas.share(key, job.pixmap);
+                    bytes += atlas.getSlotBytes();
+                }
+                chunk.attach(slot);
+                link(chunk);
+                if (isPinned(chunk)) changes++;
+            }
+            recycle(job.pixmap);
+            uploaded++;
+        }
+
+        if (atlas.getSlotCount() > budgetSlots) evict();
+    }
+
+    /** Para os workers e libera os buffers. Chunks ainda pendentes ficam com o placeholder. */
+    public void dispose() {
+        closed = true;
+        if (ownsExecutor) {
+            executor.shutdownNow();
+            try {
+                executor.awaitTermination(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        Job job;
+        while ((job = ready.poll()) != null) {
+            if (job.pixmap != null) job.pixmap.dispose();
+        }
+        Pixmap buffer;
+        while ((buffer = buffers.poll()) != null) buffer.dispose();
+        inFlight.clear();
+        while (lruHead != null) unlink(lruHead);
+        pending = 0;
+    }
+
+    // ------------------- chamados pelo Chunk -------------------
+
+    // No render: marca o uso e, se o chunk tinha sido descartado, agenda a regeneração
+    void touch(Chunk chunk) {
+        if (!isPinned(chunk)) chunk.lastRendered = frame; // fixado continua fixado
+        if (chunk.lruLinked && chunk != lruTail) {
+            unlink(chunk);
+            link(chunk);
+        }
+        if (!chunk.isReady() && !chunk.pending && !closed) {
+            regenerations++;
+            schedule(chunk);
+        }
+    }
+
+    // Desenhado por fora do render (geometria em cache): em uso até o unpin, nunca descartado
+    void pin(Chunk chunk) {
+        touch(chunk);
+        chunk.lastRendered = Long.MAX_VALUE;
+        if (chunk.lruLinked) unlink(chunk);
+    }
+
+    void unpin(Chunk chunk) {
+        if (!isPinned(chunk)) return;
+        chunk.lastRendered = frame;
+        if (chunk.isReady() && !chunk.isDisposed()) link(chunk);
+    }
+
+    void forget(Chunk chunk) {
+        if (chunk.lruLinked) unlink(chunk);
+    }
+
+    // ------------------- interno -------------------
+
+    private void schedule(Chunk chunk) {
+        chunk.pending = true;
+        Object key = chunk.model.contentKey(chunk.worldX0, chunk.worldY0, chunk.size, chunk.seed);
+        if (key != null) {
+            ChunkAtlas.Slot slot = atlas.acquire(key);
+            if (slot != null) {
+                chunk.attach(slot);
+                link(chunk);
+                if (isPinned(chunk)) changes++;
+                return;
+            }
+            Job running = inFlight.get(key);
+            if (running != null) {
+                running.waiters.add(chunk);
+                pending++;
+                return;
+            }
+        }
+
+        Job job = new Job(chunk.model, chunk.size, chunk.worldX0, chunk.worldY0, chunk.seed, key);
+        job.waiters.add(chunk);
+        if (key != null) inFlight.put(key, job);
+        pending++;
+        executor.execute(() -> build(job));
+    }
+
+    /**
+     * Solta os slots dos chunks desenhados há mais tempo até caber no orçamento, andando a lista
+     * LRU a partir do início. Para no primeiro chunk desenhado no último frame: os seguintes são
+     * mais recentes, e a tela fica mesmo que sozinha passe do orçamento. Slots compartilhados
+     * são pulados, já que soltar um dos chunks não libera textura nenhuma.
+     */
+    private void evict() {
+        Chunk chunk = lruHead;
+        while (chunk != null && atlas.getSlotCount() > budgetSlots && chunk.lastRendered < frame - 1) {
+            Chunk next = chunk.lruNext;
+            if (!chunk.isShared()) {
+                chunk.detach();
+                unlink(chunk);
+                evictions++;
+            }
+            chunk = next;
+        }
+    }
+
+    private static boolean isPinned(Chunk chunk) {
+        return chunk.lastRendered == Long.MAX_VALUE;
+    }
+
+    // Põe no fim da lista (mais recente), a não ser que esteja fixado
+    private void link(Chunk chunk) {
+        if (chunk.lruLinked || isPinned(chunk)) return;
+        chunk.lruPrev = lruTail;
+        chunk.lruNext = null;
+        if (lruTail != null) lruTail.lruNext = chunk; else lruHead = chunk;
+        lruTail = chunk;
+        chunk.lruLinked = true;
+    }
+
+    private void unlink(Chunk chunk) {
+        if (chunk.lruPrev != null) chunk.lruPrev.lruNext = chunk.lruNext; else lruHead = chunk.lruNext;
+        if (chunk.lruNext != null) chunk.lruNext.lruPrev = chunk.lruPrev; else lruTail = chunk.lruPrev;
+        chunk.lruPrev = chunk.lruNext = null;
+        chunk.lruLinked = false;
+    }
+
+    // Roda num worker: fill direto no miolo do buffer com borda e extrusão
+    private void build(Job job) {
+        if (closed) return;
+        try {
+            int slotSize = job.size + 2;
+            Pixmap pixmap = buffers.poll();
+            if (pixmap != null) {
+                pooledBuffers.decrementAndGet();
+            } else {
+                pixmap = new Pixmap(slotSize, slotSize, Pixmap.Format.RGBA8888);
+                pixmap.setBlending(Pixmap.Blending.None);
+            }
+            job.pixmap = pixmap;
+
+            long version = job.model.contentVersion();
+            RegionFileCache cache = version != 0 ? diskCache : null; // versão 0: não persistir
+            int cx = Math.floorDiv(job.worldX0, job.size);
+            int cy = Math.floorDiv(job.worldY0, job.size);
+            if (cache == null || !cache.readChunk(cx, cy, version, pixmap)) {
+                Chunk.fillPadded(job.model, pixmap, job.size, job.worldX0, job.worldY0, job.seed);
+                if (cache != null) cache.writeChunk(cx, cy, version, pixmap);
+            }
+            // modelos sem chave barata são deduplicados pelo hash dos pixels
+            if (job.key == null) job.hash = ContentHash.of(pixmap);
+        } catch (Throwable t) {
+            job.error = t;
+        }
+        ready.add(job);
+        // corrida com o dispose: quem chegar depois dele descarta o próprio buffer
+        if (closed && ready.remove(job) && job.pixmap != null) job.pixmap.dispose();
+    }
+
+    private void recycle(Pixmap pixmap) {
+        if (pooledBuffers.incrementAndGet() <= MAX_POOLED_BUFFERS) {
+            buffers.add(pixmap);
+        } else {
+            pooledBuffers.decrementAndGet();
+            pixmap.dispose();
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package org.gene.world.chunks.model;
+
+import com.badlogic.gdx.graphics.Pixmap;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Super-chunk de LOD como um nível de mip chain: 2 x 2 quadrantes vizinhos reduzidos para um
+ * único chunk de {@code size} x {@code size} (média de cada bloco de 2 x 2 pixels).
+ * <ul>
+ *   <li>No nível 1 os quadrantes são os modelos dos próprios chunks; no nível L, super-chunks do
+ *       nível L - 1. Um nível L cobre 2^L x 2^L chunks.</li>
+ *   <li>Cada fill guarda os próprios pixels, e o nível de cima os consome (e solta) em vez de
+ *       refazer os 4^L fills dos chunks. Quadrante sem pixels guardados é gerado na hora, do
+ *       mesmo jeito, com buffers de um pool compartilhado.</li>
+ * </ul>
+ * {@code quadrants[qy * 2 + qx]} é o quadrante (qx, qy), com (0, 0) no canto de (worldX0, worldY0)
+ * passados ao fill e y crescendo para o norte, como os chunks: na imagem o quadrante (0, 1) fica
+ * em cima à esquerda.
+ */
+public class DownsampledChunkModel implements ChunkModel {
+    private static final int MAX_POOLED = 64;
+    private static final Queue<byte[]> ARRAYS = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger pooledArrays = new AtomicInteger();
+    private static final Queue<Pixmap> SCRATCH = new ConcurrentLinkedQueue<>();
+
+    private final int size;
+    private final int level;
+    private final ChunkModel[] quadrants;
+
+    // Pixels do último fill, até o nível de cima consumir. Dois workers podem querer os mesmos
+    // pixels (níveis de cima diferentes): só quem ganhar o compareAndSet fica com o array e o
+    // devolve ao pool
+    private final AtomicReference<Mip> mip = new AtomicReference<>();
+
+    private record Mip(int worldX0, int worldY0, long seed, byte[] pixels) {}
+
+    public DownsampledChunkModel(int size, ChunkModel[] quadrants) {
+        if (quadrants.length != 4) {
+            throw new IllegalArgumentException("Esperados 4 quadrantes, recebidos " + quadrants.length);
+        }
+        int childLevel = quadrants[0] instanceof DownsampledChunkModel d ? d.level : 0;
+        for (ChunkModel q : quadrants) {
+            int l = q instanceof DownsampledChunkModel d ? d.level : 0;
+            if (l != childLevel) throw new IllegalArgumentException("Quadrantes de níveis diferentes");
+        }
+        this.size = size;
+        this.level = childLevel + 1;
+        this.quadrants = quadrants;
+    }
+
+    /** Nível na mip chain: cobre 2^level x 2^level chunks. */
+    public int getLevel() {
+        return level;
+    }
+
+    @Override
+    public void fill(Pixmap pixmap, int worldX0, int worldY0, long seed) {
+        fill(pixmap, 0, 0, pixmap.getWidth(), pixmap.getHeight(), worldX0, worldY0, seed);
+    }
+
+    @Override
+    public void fill(Pixmap pixmap, int dstX, int dstY, int w, int h, int worldX0, int worldY0, long seed) {
+        if (w != size || h != size || pixmap.getFormat() != Pixmap.Format.RGBA8888) {
+            ChunkModel.super.fill(pixmap, dstX, dstY, w, h, worldX0, worldY0, seed);
+            return;
+        }
+
+        byte[] out = pixels(worldX0, worldY0, seed);
+        ByteBuffer dst = pixmap.getPixels();
+        int stride = pixmap.getWidth() * 4;
+        for (int y = 0; y < size; y++) {
+            dst.put((dstY + y) * stride + dstX * 4, out, y * size * 4, size * 4);
+        }
+        mip.set(new Mip(worldX0, worldY0, seed, out));
+    }
+
+    /** Super-chunks com os mesmos quadrantes (e alinhamentos) têm o mesmo conteúdo. */
+    @Override
+    public Object contentKey(int worldX0, int worldY0, int size, long seed) {
+        int span = size << (level - 1); // pixels de mundo de um quadrante
+        Object[] keys = new Object[4];
+        for (int q = 0; q < 4; q++) {
+            keys[q] = quadrants[q].contentKey(worldX0 + (q & 1) * span, worldY0 + (q >> 1) * span, size, seed);
+            if (keys[q] == null) return null;
+        }
+        return new DownsampledKey(level, keys[0], keys[1], keys[2], keys[3]);
+    }
+
+    /** Libera os buffers do pool (ao fechar o jogo). */
+    public static void disposeScratch() {
+        Pixmap pixmap;
+        while ((pixmap = SCRATCH.poll()) != null) pixmap.dispose();
+        ARRAYS.clear();
+        pooledArrays.set(0);
+    }
+
+    private record DownsampledKey(int level, Object q0, Object q1, Object q2, Object q3) {}
+
+    // ------------------- interno -------------------
+
+    // Pixels deste nível num array do pool (RGBA, size x size), a partir dos quadrantes
+    private byte[] pixels(int worldX0, int worldY0, long seed) {
+        int span = size << (level - 1);
+        byte[][] src = new byte[4][];
+        byte[] out;
+        try {
+            for (int q = 0; q < 4; q++) {
+                src[q] = quadrantPixels(quadrants[q], worldX0 + (q & 1) * span, worldY0 + (q >> 1) * span, seed);
+            }
+            out = borrowArray(size);
+            downsample(src, out);
+        } finally {
+            for (byte[] s : src) {
+                if (s != null) returnArray(s);
+            }
+        }
+        return out;
+    }
+
+    private byte[] quadrantPixels(ChunkModel model, int worldX0, int worldY0, long seed) {
+        if (model instanceof DownsampledChunkModel d) {
+            Mip cached = d.mip.get();
+            // o nível de cima fica com o resumo; se o quadrante for regerado, guarda de novo
+            if (cached != null && cached.worldX0 == worldX0 && cached.worldY0 == worldY0 && cached.seed == seed
+                    && d.mip.compareAndSet(cached, null)) {
+                return cached.pixels;
+            }
+            return d.pixels(worldX0, worldY0, seed);
+        }
+
+        Pixmap scratch = borrowScratch(size);
+        try {
+            model.fill(scratch, 0, 0, size, size, worldX0, worldY0, seed);
+            byte[] out = borrowArray(size);
+            scratch.getPixels().get(0, out, 0, out.length);
+            return out;
+        } finally {
+            SCRATCH.add(scratch);
+        }
+    }
+
+    // Pixel (ox, oy) = média do bloco 2 x 2 em (2ox, 2oy) da imagem 2size x 2size formada pelos
+    // quadrantes como aparecem na tela: a linha 0 do Pixmap é a de cima, então os quadrantes do
+    // norte (qy = 1, y de mundo maior) ficam nas linhas de cima
+    private void downsample(byte[][] src, byte[] out) {
+        for (int oy = 0; oy < size; oy++) {
+            int y0 = 2 * oy, y1 = y0 + 1;
+            for (int ox = 0; ox < size; ox++) {
+                int x0 = 2 * ox, x1 = x0 + 1;
+                byte[] a = quadrant(src, x0, y0), b = quadrant(src, x1, y0);
+                byte[] c = quadrant(src, x0, y1), d = quadrant(src, x1, y1);
+                int ia = index(x0, y0), ib = index(x1, y0), ic = index(x0, y1), id = index(x1, y1);
+                int o = (oy * size + ox) * 4;
+                for (int ch = 0; ch < 4; ch++) {
+                    int sum = (a[ia + ch] & 0xFF) + (b[ib + ch] & 0xFF) + (c[ic + ch] & 0xFF) + (d[id + ch] & 0xFF);
+                    out[o + ch] = (byte) ((sum + 2) >> 2);
+                }
+            }
+        }
+    }
+
+    private byte[] quadrant(byte[][] src, int x, int y) {
+        return src[(y >= size ? 0 : 2) + (x >= size ? 1 : 0)];
+    }
+
+    private int index(int x, int y) {
+        if (x >= size) x -= size;
+        if (y >= size) y -= size;
+        return (y * size + x) * 4;
+    }
+
+    private static byte[] borrowArray(int size) {
+        byte[] array;
+        while ((array = ARRAYS.poll()) != null) {
+            pooledArrays.decrementAndGet();
+            if (array.length == size * size * 4) return array;
+        }
+        return new byte[size * size * 4];
+    }
+
+    private static void returnArray(byte[] array) {
+        if (pooledArrays.incrementAndGet() <= MAX_POOLED) {
+            ARRAYS.add(array);
+        } else {
+            pooledArrays.decrementAndGet();
+        }
+    }
+
+    private static Pixmap borrowScratch(int size) {
+        Pixmap pixmap;
+        while ((pixmap = SCRATCH.poll()) != null) {
+            if (pixmap.getWidth() == size) return pixmap;
+            pixmap.dispose();
+        }
+        pixmap = new Pixmap(size, size, Pixmap.Format.RGBA8888);
+        pixmap.setBlending(Pixmap.Blending.None);
+        return pixmap;
+    }
+}
@@ -0,0 +1,234 @@
+package org.gene.world.chunks.model;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import org.gene.world.chunks.enums.Biome;
+import org.gene.world.chunks.enums.TileType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32;
+
+/**
+ * Carregamento das imagens dos tiles para o cache do {@link TileImageChunkModel}.
+ * <ul>
+ *   <li>{@link #preload} decodifica de uma vez, num pool com uma thread por núcleo, todos os
+ *       arquivos que o {@code ChunkFactory} pode pedir. Terminado o preload, criar um modelo
+ *       não decodifica nada na thread de render.</li>
+ *   <li>Com um tamanho de tile configurado ({@link #configure}), as texturas base vêm de
+ *       {@code big/<nome>.png} (1024px) reduzidas no próprio processo por média de área, em vez
+ *       do redimensionamento offline do {@code size-assets.py}. Imagens de outro tamanho também
+ *       são ajustadas.</li>
+ *   <li>O resultado reduzido fica num diretório de cache, em RGBA cru. O nome do arquivo leva
+ *       o tamanho, o CRC da imagem de origem e a versão da redução: mudar a fonte, o tamanho
+ *       ou o algoritmo gera outro arquivo.</li>
+ * </ul>
+ * Sem {@link #configure}, os PNGs de {@code assets/} são usados como estão.
+ */
+public final class TileAssets {
+    private static final String SOURCE_DIR = "assets/";
+    private static final String BIG_DIR = "big/";
+    private static final String CACHE_SUFFIX = ".rgba";
+    // Mude quando a redução (algoritmo ou layout do arquivo) mudar: invalida o cache em disco
+    private static final int RESIZE_VERSION = 1;
+
+    private static volatile int tileSize;     // 0: sem redimensionar
+    private static volatile Path cacheDir;    // null: não persiste as reduções
+
+    private TileAssets() {}
+
+    /**
+     * Tamanho final dos tiles (o tamanho do chunk) e onde guardar as imagens reduzidas
+     * ({@code null} para não guardar). Vale para os arquivos decodificados depois da chamada.
+     */
+    public static void configure(int tileSize, Path cacheDir) {
+        TileAssets.tileSize = Math.max(0, tileSize);
+        TileAssets.cacheDir = cacheDir;
+    }
+
+    /**
+     * Arquivos que o {@code ChunkFactory} pode pedir: a textura base de cada bioma e as
+     * transições desenhadas à mão que existem. As demais transições são compostas a partir
+     * das texturas base.
+     */
+    public static List<String> requiredFiles() {
+        Set<String> files = new LinkedHashSet<>();
+        for (Biome primary : Biome.values()) {
+            files.add(TileType.FULL.getFilename(primary, primary));
+        }
+        for (Biome primary : Biome.values()) {
+            for (Biome secondary : Biome.values()) {
+                if (primary == secondary) continue;
+                for (TileType type : TileType.values()) {
+                    String filename = type.getFilename(primary, secondary);
+                    if (!files.contains(filename) && Gdx.files.internal(filename).exists()) {
+                        files.add(filename);
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(files);
+    }
+
+    /**
+     * Decodifica {@link #requiredFiles()} em paralelo, em {@code threads} threads, sem bloquear
+     * quem chamou. O future termina com o número de arquivos quando todos estão no cache, ou
+     * com a primeira falha.
+     */
+    public static CompletableFuture<Integer> preload(int threads) {
+        List<String> files = requiredFiles();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+            Thread t = new Thread(r, "tile-assets");
+            t.setDaemon(true);
+            return t;
+        });
+        // Texturas base primeiro (requiredFiles): as de big/ dominam o tempo total
+        CompletableFuture<?>[] tasks = new CompletableFuture<?>[files.size()];
+        for (int i = 0; i < files.size(); i++) {
+            String filename = files.get(i);
+            tasks[i] = CompletableFuture.runAsync(() -> TileImageChunkModel.preload(filename), pool);
+        }
+        return CompletableFuture.allOf(tasks)
+                .whenComplete((ignored, error) -> pool.shutdown())
+                .thenApply(ignored -> files.size());
+    }
+
+    /**
+     * Imagem do arquivo em RGBA8888, já no tamanho configurado. Chamado pelo cache do
+     * {@link TileImageChunkModel}, em qualquer thread.
+     */
+    static Pixmap decode(String filename) {
+        int size = tileSize;
+        if (size == 0) {
+            return TileImageChunkModel.toRgba8888(new Pixmap(Gdx.files.internal(filename)));
+        }
+
+        FileHandle source = source(filename);
+        byte[] encoded = source.readBytes();
+        Path cached = cachedFile(source, encoded, size);
+        if (cached != null) {
+            Pixmap pixmap = readCached(cached, size);
+            if (pixmap != null) return pixmap;
+        }
+
+        Pixmap decoded = TileImageChunkModel.toRgba8888(new Pixmap(encoded, 0, encoded.length));
+        if (decoded.getWidth() == size && decoded.getHeight() == size) return decoded;
+        Pixmap resized;
+        try {
+            resized = resize(decoded, size);
+        } finally {
+            decoded.dispose();
+        }
+        if (cached != null) writeCached(cached, resized);
+        return resized;
+    }
+
+    /**
+     * Reduz (ou amplia) para {@code size} x {@code size} por média de área: cada pixel de
+     * destino é a média dos pixels de origem que ele cobre, com peso pela fração coberta.
+     * Separável (linhas, depois colunas). {@code src} deve estar em RGBA8888.
+     */
+    static Pixmap resize(Pixmap src, int size) {
+        int sw = src.getWidth(), sh = src.getHeight();
+        ByteBuffer in = src.getPixels();
+
+        float[] rows = new float[sh * size * 4]; // só a largura reduzida
+        float scaleX = (float) sw / size;
+        for (int y = 0; y < sh; y++) {
+            for (int x = 0; x < size; x++) {
+                float x0 = x * scaleX, x1 = x0 + scaleX;
+                float r = 0, g = 0, b = 0, a = 0;
+                for (int px = (int) x0; px < Math.min(sw, (int) Math.ceil(x1)); px++) {
+                    float w = Math.min(px + 1, x1) - Math.max(px, x0);
+                    int i = (y * sw + px) * 4;
+                    r += w * (in.get(i) & 0xFF);
+                    g += w * (in.get(i + 1) & 0xFF);
+                    b += w * (in.get(i + 2) & 0xFF);
+                    a += w * (in.get(i + 3) & 0xFF);
+                }
+                int o = (y * size + x) * 4;
+                rows[o] = r / scaleX;
+                rows[o + 1] = g / scaleX;
+                rows[o + 2] = b / scaleX;
+                rows[o + 3] = a / scaleX;
+            }
+        }
+
+        Pixmap dst = new Pixmap(size, size, Pixmap.Format.RGBA8888);
+        ByteBuffer out = dst.getPixels();
+        float scaleY = (float) sh / size;
+        float[] acc = new float[size * 4];
+        for (int y = 0; y < size; y++) {
+            float y0 = y * scaleY, y1 = y0 + scaleY;
+            Arrays.fill(acc, 0);
+            for (int py = (int) y0; py < Math.min(sh, (int) Math.ceil(y1)); py++) {
+                float w = Math.min(py + 1, y1) - Math.max(py, y0);
+                int row = py * size * 4;
+                for (int i = 0; i < acc.length; i++) acc[i] += w * rows[row + i];
+            }
+            for (int i = 0; i < acc.length; i++) {
+                out.put(y * size * 4 + i, (byte) Math.min(255, Math.round(acc[i] / scaleY)));
+            }
+        }
+        return dst;
+    }
+
+    // ------------------- interno -------------------
+
+    // assets/<nome>.png com um big/<nome>.png correspondente usa a versão grande
+    private static FileHandle source(String filename) {
+        if (filename.startsWith(SOURCE_DIR)) {
+            FileHandle big = Gdx.files.internal(BIG_DIR + filename.substring(SOURCE_DIR.length()));
+            if (big.exists()) return big;
+        }
+        return Gdx.files.internal(filename);
+    }
+
+    private static Path cachedFile(FileHandle source, byte[] encoded, int size) {
+        Path dir = cacheDir;
+        if (dir == null) return null;
+        CRC32 crc = new CRC32();
+        crc.update(encoded);
+        return dir.resolve(source.nameWithoutExtension() + "-" + size + "-"
+                + Long.toHexString(crc.getValue()) + "-v" + RESIZE_VERSION + CACHE_SUFFIX);
+    }
+
+    private static Pixmap readCached(Path file, int size) {
+        try {
+            if (!Files.isRegularFile(file)) return null;
+            byte[] bytes = Files.readAllBytes(file);
+            if (bytes.length != size * size * 4) return null; // arquivo truncado: refaz
+            Pixmap pixmap = new Pixmap(size, size, Pixmap.Format.RGBA8888);
+            pixmap.getPixels().put(0, bytes);
+            return pixmap;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // Grava num temporário e renomeia: outra thread ou processo nunca lê um arquivo pela metade
+    private static void writeCached(Path file, Pixmap pixmap) {
+        try {
+            Files.createDirectories(file.getParent());
+            byte[] bytes = new byte[pixmap.getWidth() * pixmap.getHeight() * 4];
+            pixmap.getPixels().get(0, bytes);
+            Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            Files.write(tmp, bytes);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // O cache é só um atalho: sem ele a imagem é reduzida de novo na próxima execução
+        }
+    }
+}
@@ -1,39 +1,165 @@
 package org.gene.world.chunks.model;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Pixmap;
+import org.gene.world.chunks.atlas.ContentHash;
 import org.gene.world.chunks.enums.Biome;
 import org.gene.world.chunks.enums.TileType;
 
+import java.nio.ByteBuffer;
 import java.util.EnumMap;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class TileImageChunkModel implements ChunkModel {
 
-    // Cache estático para evitar carregar as mesmas imagens repetidamente
-    private static final Map<String, Pixmap> TILE_CACHE = new HashMap<>(); // Chave agora é String
+    // Cache estático para evitar carregar as mesmas imagens repetidamente. Um future por arquivo:
+    // a decodificação roda fora de qualquer trava global, e quem pede o mesmo arquivo espera por ele
+    private static final Map<String, CompletableFuture<Tile>> TILE_CACHE = new ConcurrentHashMap<>();
 
-    private final Pixmap tilePixmap;
+    // Imagem já convertida e o que se calcula dela uma vez só (e não a cada chunk criado)
+    private record Tile(Pixmap pixmap, boolean opaque, long version) {}
+
+    private final String filename;
+    private final Pixmap tilePixmap; // sempre RGBA8888, para poder copiar bytes direto
+    private final boolean opaque;    // sem alpha < 255: copiar é igual a desenhar com blending
+    private final long version;
     private final int tileWidth;
     private final int tileHeight;
 
     public TileImageChunkModel(TileType type, Biome primary, Biome secondary) {
-        String filename = type.getFilename(primary, secondary); // Gera o nome do arquivo
-        synchronized (TILE_CACHE) {
-            if (!TILE_CACHE.containsKey(filename)) {
-                FileHandle fh = Gdx.files.internal(filename);
-                TILE_CACHE.put(filename, new Pixmap(fh));
-            }
-        }
-        this.tilePixmap = TILE_CACHE.get(filename);
+        this(type.getFilename(primary, secondary)); // Gera o nome do arquivo
+    }
+
+    private TileImageChunkModel(String filename) {
+        this(filename, cachedTile(filename));
+    }
+
+    /** {@code tilePixmap} deve estar em RGBA8888 (como os do cache). */
+    TileImageChunkModel(String filename, Pixmap tilePixmap) {
+        this(filename, describe(tilePixmap));
+    }
+
+    private TileImageChunkModel(String filename, Tile tile) {
+        this.filename = filename;
+        this.tilePixmap = tile.pixmap();
+        this.opaque = tile.opaque();
+        this.version = tile.version();
         this.tileWidth = tilePixmap.getWidth();
         this.tileHeight = tilePixmap.getHeight();
     }
 
+    private static Tile cachedTile(String filename) {
+        CompletableFuture<Tile> entry = TILE_CACHE.get(filename);
+        if (entry == null) {
+            CompletableFuture<Tile> mine = new CompletableFuture<>();
+            entry = TILE_CACHE.putIfAbsent(filename, mine);
+            if (entry == null) {
+                // Esta thread decodifica; as outras que pedirem o arquivo esperam o future
+                try {
+                    mine.complete(describe(TileAssets.decode(filename)));
+                } catch (RuntimeException e) {
+                    TILE_CACHE.remove(filename, mine); // a próxima tentativa decodifica de novo
+                    mine.completeExceptionally(e);
+                    throw e;
+                }
+                return mine.join();
+            }
+        }
+        try {
+            return entry.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /** Decodifica o arquivo para o cache, se ainda não estiver lá (ver {@link TileAssets#preload}). */
+    static void preload(String filename) {
+        cachedTile(filename);
+    }
+
+    /** Se o arquivo já está decodificado no cache. */
+    static boolean isCached(String filename) {
+        CompletableFuture<Tile> entry = TILE_CACHE.get(filename);
+        return entry != null && entry.isDone() && !entry.isCompletedExceptionally();
+    }
+
+    /** Imagem do arquivo, em RGBA8888, lida do cache; não deve ser alterada nem liberada. */
+    static Pixmap cachedPixmap(String filename) {
+        return cachedTile(filename).pixmap();
+    }
+
+    private static Tile describe(Pixmap pixmap) {
+        return new Tile(pixmap, isOpaque(pixmap), tileVersion(pixmap));
+    }
+
     @Override
     public void fill(Pixmap pixmap, int worldX0, int worldY0, long seed) {
+        if (!canCopy(pixmap)) {
+            fillPerPixel(pixmap, worldX0, worldY0);
+            return;
+        }
+        copyRows(pixmap, 0, 0, pixmap.getWidth(), pixmap.getHeight(), worldX0, worldY0);
+    }
+
+    @Override
+    public void fill(Pixmap pixmap, int dstX, int dstY, int w, int h, int worldX0, int worldY0, long seed) {
+        if (!canCopy(pixmap)) {
+            ChunkModel.super.fill(pixmap, dstX, dstY, w, h, worldX0, worldY0, seed);
+            return;
+        }
+        copyRows(pixmap, dstX, dstY, w, h, worldX0, worldY0);
+    }
+
+    // O tile já está em RGBA8888; sendo opaco (ou sem blending no destino), desenhar o pixel é só copiá-lo
+    private boolean canCopy(Pixmap pixmap) {
+        return pixmap.getFormat() == Pixmap.Format.RGBA8888
+                && (opaque || pixmap.getBlending() == Pixmap.Blending.None);
+    }
+
+    /**
+     * Copia linhas inteiras entre os ByteBuffers dos Pixmaps, sem chamadas nativas por pixel.
+     * Cada linha do chunk é no máximo alguns trechos contíguos da linha do tile (um por volta
+     * do wraparound). O resultado é idêntico ao {@link #fillPerPixel}.
+     */
+    private void copyRows(Pixmap pixmap, int dstX, int dstY, int w, int h, int worldX0, int worldY0) {
+        copyWrapped(tilePixmap.getPixels(), tileWidth, tileHeight, pixmap, dstX, dstY, w, h, worldX0, worldY0);
+    }
+
+    /**
+     * Cópia com wraparound de um tile RGBA8888 ({@code src}, {@code tileWidth} x {@code tileHeight})
+     * para a região (dstX, dstY, w, h) de um Pixmap RGBA8888, com o tile repetido a partir da
+     * origem do mundo. Também usada pelo {@link TransitionTileModel}.
+     */
+    static void copyWrapped(ByteBuffer src, int tileWidth, int tileHeight,
+                            Pixmap pixmap, int dstX, int dstY, int w, int h, int worldX0, int worldY0) {
+        final int stride = pixmap.getWidth() * 4;
+        final ByteBuffer dst = pixmap.getPixels();
+        final int sx0 = positiveMod(worldX0, tileWidth);
+
+        // só métodos absolutos: o tile é compartilhado e a posição dos buffers não muda
+        for (int y = 0; y < h; y++) {
+            int sy = positiveMod(worldY0 + y, tileHeight);
+            int srcRow = sy * tileWidth * 4;
+            int dstPos = (dstY + y) * stride + dstX * 4;
+            int sx = sx0;
+            int x = 0;
+            while (x < w) {
+                int run = Math.min(w - x, tileWidth - sx);
+                dst.put(dstPos, src, srcRow + sx * 4, run * 4);
+                dstPos += run * 4;
+                x += run;
+                sx = 0;
+            }
+        }
+    }
+
+    /**
+     * Caminho original, pixel a pixel; usado quando a cópia direta mudaria o resultado.
+     * Público para servir de referência nos benchmarks.
+     */
+    public void fillPerPixel(Pixmap pixmap, int worldX0, int worldY0) {
         final int w = pixmap.getWidth();
         final int h = pixmap.getHeight();
 
@@ -54,17 +180,58 @@ public class TileImageChunkModel implements ChunkModel {
         }
     }
 
+    /**
+     * O fill só depende da imagem e de onde o chunk cai dentro dela (offset módulo o tamanho
+     * do tile). Para tiles do tamanho do chunk isso dá uma chave por imagem e alinhamento.
+     */
+    @Override
+    public Object contentKey(int worldX0, int worldY0, int size, long seed) {
+        return new TileContentKey(filename, positiveMod(worldX0, tileWidth), positiveMod(worldY0, tileHeight), size);
+    }
+
+    /** Muda quando a imagem do tile muda (hash dos pixels). */
+    @Override
+    public long contentVersion() {
+        return version;
+    }
+
+    private static long tileVersion(Pixmap tilePixmap) {
+        ContentHash hash = ContentHash.of(tilePixmap);
+        long v = hash.h1() ^ (31L * hash.h2() + hash.width() * 65599L + hash.height());
+        return v != 0 ? v : 1L;
+    }
+
+    private record TileContentKey(String filename, int offsetX, int offsetY, int size) {}
+
     // Método para limpar o cache quando o jogo fechar
     public static void disposeCache() {
-        synchronized (TILE_CACHE) {
-            for (Pixmap pixmap : TILE_CACHE.values()) {
-                pixmap.dispose();
-            }
-            TILE_CACHE.clear();
+        for (CompletableFuture<Tile> entry : TILE_CACHE.values()) {
+            if (entry.isDone() && !entry.isCompletedExceptionally()) entry.join().pixmap().dispose();
+        }
+        TILE_CACHE.clear();
+    }
+
+    // getPixel já devolve RGBA8888 para qualquer formato; converter uma vez não muda nenhum pixel
+    static Pixmap toRgba8888(Pixmap loaded) {
+        if (loaded.getFormat() == Pixmap.Format.RGBA8888) return loaded;
+        Pixmap rgba = new Pixmap(loaded.getWidth(), loaded.getHeight(), Pixmap.Format.RGBA8888);
+        rgba.setBlending(Pixmap.Blending.None);
+        rgba.drawPixmap(loaded, 0, 0);
+        rgba.setBlending(Pixmap.Blending.SourceOver);
+        loaded.dispose();
+        return rgba;
+    }
+
+    private static boolean isOpaque(Pixmap tile) {
+        ByteBuffer pixels = tile.getPixels();
+        int limit = tile.getWidth() * tile.getHeight() * 4;
+        for (int i = 3; i < limit; i += 4) {
+            if (pixels.get(i) != (byte) 0xFF) return false;
         }
+        return true;
     }
 
-    private static int positiveMod(int a, int m) {
+    static int positiveMod(int a, int m) {
         int r = a % m;
         return (r < 0) ? (r + m) : r;
     }
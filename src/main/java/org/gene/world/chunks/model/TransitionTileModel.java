@@ -0,0 +1,57 @@
+package org.gene.world.chunks.model;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import org.gene.world.chunks.enums.Biome;
+import org.gene.world.chunks.enums.TileType;
+
+/**
+ * Tile de transição entre dois biomas composto em tempo de execução ({@link TransitionTiles}),
+ * repetido pelo mundo como o {@link TileImageChunkModel}. Usado para os pares de biomas que
+ * não têm os PNGs de transição desenhados à mão.
+ */
+public class TransitionTileModel implements ChunkModel {
+    private final TileType type;
+    private final Biome primary;
+    private final Biome secondary;
+    private final TransitionTiles.Composite tile;
+
+    public TransitionTileModel(TileType type, Biome primary, Biome secondary) {
+        this.type = type;
+        this.primary = primary;
+        this.secondary = secondary;
+        this.tile = TransitionTiles.get(type, primary, secondary);
+    }
+
+    @Override
+    public void fill(Pixmap pixmap, int worldX0, int worldY0, long seed) {
+        fill(pixmap, 0, 0, pixmap.getWidth(), pixmap.getHeight(), worldX0, worldY0, seed);
+    }
+
+    // O tile composto é opaco: copiar é igual a desenhar, com ou sem blending no destino
+    @Override
+    public void fill(Pixmap pixmap, int dstX, int dstY, int w, int h, int worldX0, int worldY0, long seed) {
+        if (pixmap.getFormat() != Pixmap.Format.RGBA8888) {
+            ChunkModel.super.fill(pixmap, dstX, dstY, w, h, worldX0, worldY0, seed);
+            return;
+        }
+        TileImageChunkModel.copyWrapped(tile.pixels(), tile.size(), tile.size(),
+                pixmap, dstX, dstY, w, h, worldX0, worldY0);
+    }
+
+    /** Mesmo critério do TileImageChunkModel: desenho (quadrantes e biomas) e alinhamento no tile. */
+    @Override
+    public Object contentKey(int worldX0, int worldY0, int size, long seed) {
+        return new TransitionContentKey(type.quadrantMask(), primary, secondary,
+                TileImageChunkModel.positiveMod(worldX0, tile.size()),
+                TileImageChunkModel.positiveMod(worldY0, tile.size()), size);
+    }
+
+    /** Muda com as texturas base ou com o algoritmo de composição. */
+    @Override
+    public long contentVersion() {
+        return tile.version();
+    }
+
+    private record TransitionContentKey(int quadrants, Biome primary, Biome secondary,
+                                        int offsetX, int offsetY, int size) {}
+}
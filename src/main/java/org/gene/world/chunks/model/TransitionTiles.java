@@ -0,0 +1,232 @@
+package org.gene.world.chunks.model;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import org.gene.world.chunks.enums.Biome;
+import org.gene.world.chunks.enums.TileType;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Tiles de transição montados em tempo de execução a partir das texturas base de dois biomas
+ * ({@code assets/<bioma>.png}, lidas pelo {@link TileAssets}), em vez de um PNG desenhado por par de biomas e variante.
+ * <ol>
+ *   <li>Uma máscara por combinação de quadrantes do {@link TileType} (no máximo 16): a
+ *       interpolação bilinear dos quatro quadrantes, com um ruído periódico para a borda não
+ *       ficar reta. A fronteira fica onde o valor cruza 0.5.</li>
+ *   <li>O tile é a mistura das duas texturas por essa máscara, com um contorno escuro na
+ *       fronteira, como nos tiles desenhados à mão.</li>
+ * </ol>
+ * A máscara só depende da posição dentro do tile, e o ruído tem o período do tile. Assim,
+ * dois tiles vizinhos que respeitam as regras de adjacência se encontram sem emenda.
+ * <p>
+ * Os tiles compostos ficam num cache LRU limitado ({@link #setCapacity}). São buffers no heap:
+ * tirar um do cache não invalida os modelos que ainda o usam, o GC libera quando ninguém usa.
+ */
+public final class TransitionTiles {
+    public static final int DEFAULT_CAPACITY = 64;
+
+    // Versão do algoritmo de composição: entra no contentVersion, invalidando o cache em disco
+    static final int ALGORITHM_VERSION = 1;
+
+    private static final float NOISE_AMPLITUDE = 0.12f; // em unidades da máscara (0..1)
+    private static final int NOISE_CELLS = 8;            // células do ruído por tile, na oitava base
+    private static final float EDGE_PIXELS = 1.2f;        // meia largura da transição suave
+    private static final float OUTLINE_PIXELS = 1.5f;     // meia largura do contorno
+    private static final float OUTLINE_DARKEN = 0.75f;
+
+    /** Tile composto, RGBA8888, {@code size} x {@code size}; o buffer não deve ser alterado. */
+    record Composite(ByteBuffer pixels, int size, long version) {}
+
+    private record Key(int quadrants, Biome primary, Biome secondary) {}
+
+    // Máscara de uma combinação de quadrantes: cobertura do primário e força do contorno, 0..255
+    private record Mask(byte[] coverage, byte[] outline) {}
+
+    // Textura base decodificada uma vez, em RGBA8888 empacotado
+    private record Base(int[] rgba, int size, long version) {}
+
+    private static final Map<Biome, Base> BASES = new EnumMap<>(Biome.class);
+    private static final Mask[] MASKS = new Mask[16];
+    private static int masksSize;
+    private static int capacity = DEFAULT_CAPACITY;
+    private static long composed;
+
+    private static final LinkedHashMap<Key, Composite> CACHE = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Composite> eldest) {
+            return size() > capacity;
+        }
+    };
+
+    private TransitionTiles() {}
+
+    /** Máximo de tiles compostos guardados (LRU). */
+    public static synchronized void setCapacity(int tiles) {
+        capacity = Math.max(1, tiles);
+        while (CACHE.size() > capacity) {
+            CACHE.remove(CACHE.keySet().iterator().next());
+        }
+    }
+
+    /** Tiles compostos no cache agora. */
+    public static synchronized int getCachedCount() {
+        return CACHE.size();
+    }
+
+    /** Tiles compostos desde o início (cada falta no cache compõe um). */
+    public static synchronized long getComposedCount() {
+        return composed;
+    }
+
+    /** Tile do tipo dado entre os dois biomas, composto na primeira vez e depois lido do cache. */
+    static synchronized Composite get(TileType type, Biome primary, Biome secondary) {
+        Key key = new Key(type.quadrantMask(), primary, secondary);
+        Composite tile = CACHE.get(key);
+        if (tile == null) {
+            tile = compose(key.quadrants(), base(primary), base(secondary));
+            CACHE.put(key, tile);
+            composed++;
+        }
+        return tile;
+    }
+
+    /** Esvazia o cache e esquece as texturas base e as máscaras. */
+    public static synchronized void clear() {
+        CACHE.clear();
+        BASES.clear();
+        Arrays.fill(MASKS, null);
+    }
+
+    // ------------------- interno -------------------
+
+    private static Base base(Biome biome) {
+        Base base = BASES.get(biome);
+        if (base == null) {
+            // Mesma imagem do TileImageChunkModel: decodificada (e reduzida) uma vez só
+            base = fromPixmap(TileImageChunkModel.cachedPixmap(TileType.FULL.getFilename(biome, biome)));
+            BASES.put(biome, base);
+        }
+        return base;
+    }
+
+    // getPixel já devolve RGBA8888 para qualquer formato
+    private static Base fromPixmap(Pixmap pixmap) {
+        int size = Math.min(pixmap.getWidth(), pixmap.getHeight());
+        int[] rgba = new int[size * size];
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                rgba[y * size + x] = pixmap.getPixel(x, y);
+            }
+        }
+        long version = Arrays.hashCode(rgba) * 0x9E3779B97F4A7C15L + size;
+        return new Base(rgba, size, version);
+    }
+
+    private static Composite compose(int quadrants, Base primary, Base secondary) {
+        int size = primary.size();
+        Mask mask = mask(quadrants, size);
+        ByteBuffer pixels = ByteBuffer.allocate(size * size * 4);
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                int i = y * size + x;
+                int a = mask.coverage()[i] & 0xFF;
+                int dark = 255 - ((mask.outline()[i] & 0xFF) * Math.round(OUTLINE_DARKEN * 256) >> 8);
+                int p = primary.rgba()[i];
+                int s = secondary.rgba()[(y % secondary.size()) * secondary.size() + (x % secondary.size())];
+                for (int shift = 24; shift >= 8; shift -= 8) {
+                    int c = ((p >>> shift & 0xFF) * a + (s >>> shift & 0xFF) * (255 - a) + 127) / 255;
+                    pixels.put((byte) ((c * dark + 127) / 255));
+                }
+                pixels.put((byte) 0xFF);
+            }
+        }
+        pixels.flip();
+        long version = (primary.version() * 31 + secondary.version()) * 31 + quadrants * 65599L + ALGORITHM_VERSION;
+        return new Composite(pixels.asReadOnlyBuffer(), size, version != 0 ? version : 1L);
+    }
+
+    private static Mask mask(int quadrants, int size) {
+        if (masksSize != size) {
+            Arrays.fill(MASKS, null);
+            masksSize = size;
+        }
+        Mask mask = MASKS[quadrants];
+        if (mask == null) {
+            mask = buildMask(quadrants, size);
+            MASKS[quadrants] = mask;
+        }
+        return mask;
+    }
+
+    /**
+     * Linha 0 do tile é o norte (como nos PNGs e no atlas). Os valores dos quadrantes ficam no
+     * centro de cada quadrante; fora deles a interpolação é presa à borda, então o valor na
+     * borda do tile só depende dos dois quadrantes daquele lado.
+     */
+    private static Mask buildMask(int quadrants, int size) {
+        float nw = (quadrants & TileType.QUADRANT_NW) != 0 ? 1f : 0f;
+        float ne = (quadrants & TileType.QUADRANT_NE) != 0 ? 1f : 0f;
+        float sw = (quadrants & TileType.QUADRANT_SW) != 0 ? 1f : 0f;
+        float se = (quadrants & TileType.QUADRANT_SE) != 0 ? 1f : 0f;
+        // derivada máxima da interpolação: 1 unidade de máscara a cada meio tile
+        float perPixel = 2f / size;
+
+        byte[] coverage = new byte[size * size];
+        byte[] outline = new byte[size * size];
+        for (int y = 0; y < size; y++) {
+            float ty = clamp(((y + 0.5f) / size - 0.25f) * 2f);
+            for (int x = 0; x < size; x++) {
+                float tx = clamp(((x + 0.5f) / size - 0.25f) * 2f);
+                float north = nw + (ne - nw) * tx;
+                float south = sw + (se - sw) * tx;
+                float v = north + (south - north) * ty + NOISE_AMPLITUDE * periodicNoise(x, y, size);
+
+                float distance = (v - 0.5f) / perPixel; // distância aproximada da fronteira, em pixels
+                float a = clamp(0.5f + distance / (2 * EDGE_PIXELS));
+                float line = clamp(1f - (Math.abs(distance) - OUTLINE_PIXELS) / EDGE_PIXELS);
+                coverage[y * size + x] = (byte) Math.round(a * 255);
+                outline[y * size + x] = (byte) Math.round(line * 255);
+            }
+        }
+        return new Mask(coverage, outline);
+    }
+
+    // Ruído de valor em duas oitavas, -1..1, com período exato de um tile nos dois eixos
+    private static float periodicNoise(int x, int y, int size) {
+        return 0.65f * valueNoise(x, y, size, NOISE_CELLS) + 0.35f * valueNoise(x, y, size, NOISE_CELLS * 2);
+    }
+
+    private static float valueNoise(int x, int y, int size, int cells) {
+        float fx = (x + 0.5f) * cells / size;
+        float fy = (y + 0.5f) * cells / size;
+        int ix = (int) fx, iy = (int) fy;
+        float u = smooth(fx - ix), v = smooth(fy - iy);
+        float a = lattice(ix % cells, iy % cells, cells);
+        float b = lattice((ix + 1) % cells, iy % cells, cells);
+        float c = lattice(ix % cells, (iy + 1) % cells, cells);
+        float d = lattice((ix + 1) % cells, (iy + 1) % cells, cells);
+        float top = a + (b - a) * u;
+        float bottom = c + (d - c) * u;
+        return top + (bottom - top) * v;
+    }
+
+    private static float lattice(int x, int y, int cells) {
+        int h = x * 0x27D4EB2D ^ y * 0x165667B1 ^ cells * 0x9E3779B9;
+        h ^= h >>> 15;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        return (h & 0xFFFF) / 32767.5f - 1f;
+    }
+
+    private static float smooth(float t) {
+        return t * t * (3 - 2 * t);
+    }
+
+    private static float clamp(float v) {
+        return v < 0 ? 0 : Math.min(v, 1);
+    }
+}
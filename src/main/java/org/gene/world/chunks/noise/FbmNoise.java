@@ -0,0 +1,184 @@
+package org.gene.world.chunks.noise;
+
+import java.util.Arrays;
+
+/**
+ * fBm de value noise em coordenadas de mundo (impede costuras entre chunks).
+ * <p>
+ * {@link #sample} avalia um ponto como o GroundChunkModel sempre fez. {@link #fill} produz
+ * exatamente os mesmos valores para um bloco w x h, mas:
+ * <ul>
+ *   <li>cada valor do reticulado é "hasheado" uma vez por oitava, não 4 vezes por pixel;</li>
+ *   <li>a interpolação horizontal depende só da coluna e da linha do reticulado, então é
+ *       feita uma vez por linha do reticulado (poucas por chunk) e não por linha de pixels;</li>
+ *   <li>sobra por pixel só a interpolação vertical e a soma da oitava, feitas linha a linha
+ *       pelo {@link RowKernel} (Vector API quando disponível, escalar senão).</li>
+ * </ul>
+ * As expressões float são as mesmas, na mesma ordem, então o resultado é bit a bit igual.
+ * A instância não guarda estado entre chamadas e pode ser usada por várias threads.
+ */
+public final class FbmNoise {
+    private static final RowKernel DEFAULT_KERNEL = createKernel();
+
+    private final float baseFreq;
+    private final float lacunarity;
+    private final float gain;
+    private final int octaves;
+    private final RowKernel kernel;
+
+    public FbmNoise(float baseFreq, float lacunarity, float gain, int octaves) {
+        this(baseFreq, lacunarity, gain, octaves, DEFAULT_KERNEL);
+    }
+
+    FbmNoise(float baseFreq, float lacunarity, float gain, int octaves, RowKernel kernel) {
+        this.baseFreq = baseFreq;
+        this.lacunarity = lacunarity;
+        this.gain = gain;
+        this.octaves = octaves;
+        this.kernel = kernel;
+    }
+
+    /** Indica se as linhas estão sendo avaliadas com a Vector API. */
+    public static boolean isVectorized() {
+        return DEFAULT_KERNEL != RowKernel.SCALAR;
+    }
+
+    /** fBm normalizado [0..1] no pixel de mundo (x, y). */
+    public float sample(int x, int y, long seed) {
+        float amp = 1f, freq = baseFreq, fbm = 0f, norm = 0f;
+        for (int o = 0; o < octaves; o++) {
+            fbm += amp * valueNoise(x * freq, y * freq, seed + o * 101);
+            norm += amp;
+            amp *= gain;
+            freq *= lacunarity;
+        }
+        return fbm / norm;
+    }
+
+    /**
+     * Preenche {@code out[y * w + x]} com {@link #sample}(worldX0 + x, worldY0 + y, seed),
+     * para 0 <= x < w e 0 <= y < h.
+     */
+    public void fill(float[] out, int worldX0, int worldY0, int w, int h, long seed) {
+        Arrays.fill(out, 0, w * h, 0f);
+
+        int[] colCell = new int[w];
+        float[] colT = new float[w];
+        float[] top = new float[w];
+        float[] bottom = new float[w];
+
+        float amp = 1f, freq = baseFreq, norm = 0f;
+        for (int o = 0; o < octaves; o++) {
+            long octaveSeed = seed + o * 101;
+
+            // colunas: célula do reticulado e peso horizontal (iguais em todas as linhas)
+            int cellX0 = fastFloor(worldX0 * freq);
+            int cellX1 = fastFloor((worldX0 + w - 1) * freq) + 1;
+            for (int x = 0; x < w; x++) {
+                float xf = (worldX0 + x) * freq;
+                int x0 = fastFloor(xf);
+                colCell[x] = x0 - cellX0;
+                colT[x] = smoothstep(xf - x0);
+            }
+
+            // hash de cada ponto do reticulado coberto pelo bloco, uma vez só
+            int cellY0 = fastFloor(worldY0 * freq);
+            int cellY1 = fastFloor((worldY0 + h - 1) * freq) + 1;
+            int latticeW = cellX1 - cellX0 + 1;
+            float[] lattice = new float[latticeW * (cellY1 - cellY0 + 1)];
+            for (int ly = cellY0; ly <= cellY1; ly++) {
+                int row = (ly - cellY0) * latticeW;
+                for (int lx = cellX0; lx <= cellX1; lx++) {
+                    lattice[row + lx - cellX0] = hash01(lx, ly, octaveSeed);
+                }
+            }
+
+            // linhas de pixels: só recalcula as interpolações horizontais quando a célula muda
+            int topCell = Integer.MIN_VALUE;
+            for (int y = 0; y < h; y++) {
+                float yf = (worldY0 + y) * freq;
+                int y0 = fastFloor(yf);
+                if (y0 != topCell) {
+                    if (y0 == topCell + 1) {
+                        float[] swap = top;
+                        top = bottom;
+                        bottom = swap;
+                    } else {
+                        lerpRow(top, lattice, (y0 - cellY0) * latticeW, colCell, colT, w);
+                    }
+                    lerpRow(bottom, lattice, (y0 + 1 - cellY0) * latticeW, colCell, colT, w);
+                    topCell = y0;
+                }
+                kernel.accumulate(out, y * w, top, bottom, smoothstep(yf - y0), amp, w);
+            }
+
+            norm += amp;
+            amp *= gain;
+            freq *= lacunarity;
+        }
+
+        for (int i = 0; i < w * h; i++) {
+            out[i] /= norm;
+        }
+    }
+
+    // ------------------- util -------------------
+
+    // Interpolação horizontal de uma linha do reticulado, por coluna de pixels
+    private static void lerpRow(float[] dst, float[] lattice, int rowOffset, int[] colCell, float[] colT, int w) {
+        for (int x = 0; x < w; x++) {
+            int i = rowOffset + colCell[x];
+            dst[x] = lerp(lattice[i], lattice[i + 1], colT[x]);
+        }
+    }
+
+    // Value noise interpolado (tile-free) em float coords
+    static float valueNoise(float xf, float yf, long seed) {
+        int x0 = fastFloor(xf);
+        int y0 = fastFloor(yf);
+        int x1 = x0 + 1;
+        int y1 = y0 + 1;
+
+        float tx = xf - x0;
+        float ty = yf - y0;
+
+        float sx = smoothstep(tx);
+        float sy = smoothstep(ty);
+
+        float v00 = hash01(x0, y0, seed);
+        float v10 = hash01(x1, y0, seed);
+        float v01 = hash01(x0, y1, seed);
+        float v11 = hash01(x1, y1, seed);
+
+        float ix0 = lerp(v00, v10, sx);
+        float ix1 = lerp(v01, v11, sx);
+        return lerp(ix0, ix1, sy); // [0..1]
+    }
+
+    static int fastFloor(float v) { int i = (int)v; return v < i ? i - 1 : i; }
+    static float smoothstep(float t){ return t*t*(3f - 2f*t); }
+    static float lerp(float a, float b, float t){ return a + (b - a) * t; }
+
+    // Hash determinístico → [0..1]
+    static float hash01(int x, int y, long seed) {
+        long h = seed;
+        h ^= (x * 0x9E3779B97F4A7C15L);
+        h ^= (y * 0xC2B2AE3D27D4EB4FL);
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        h ^= (h >>> 31);
+        // converte para float [0..1]
+        return ((h >>> 40) & 0xFFFFFF) / (float)0xFFFFFF;
+    }
+
+    private static RowKernel createKernel() {
+        if (Boolean.getBoolean("gene.noise.scalar")
+                || ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return RowKernel.SCALAR;
+        }
+        try {
+            return new VectorRowKernel();
+        } catch (LinkageError e) {
+            return RowKernel.SCALAR;
+        }
+    }
+}
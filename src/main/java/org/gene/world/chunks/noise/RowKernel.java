@@ -0,0 +1,17 @@
+package org.gene.world.chunks.noise;
+
+/**
+ * Laço interno do {@link FbmNoise}: soma uma oitava em uma linha de pixels.
+ * Para cada i em [0, n): {@code acc[i] += amp * (top[i] + (bottom[i] - top[i]) * sy)}.
+ * As implementações fazem exatamente as mesmas operações float, na mesma ordem
+ * (sem FMA), para que o resultado não dependa de qual foi escolhida.
+ */
+interface RowKernel {
+    void accumulate(float[] acc, int accOffset, float[] top, float[] bottom, float sy, float amp, int n);
+
+    RowKernel SCALAR = (acc, accOffset, top, bottom, sy, amp, n) -> {
+        for (int i = 0; i < n; i++) {
+            acc[accOffset + i] += amp * (top[i] + (bottom[i] - top[i]) * sy);
+        }
+    };
+}
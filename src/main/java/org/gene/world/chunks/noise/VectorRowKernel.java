@@ -0,0 +1,29 @@
+package org.gene.world.chunks.noise;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link RowKernel} com a Vector API (jdk.incubator.vector). Só é carregada quando o módulo
+ * está presente em tempo de execução ({@code --add-modules jdk.incubator.vector}).
+ */
+final class VectorRowKernel implements RowKernel {
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    @Override
+    public void accumulate(float[] acc, int accOffset, float[] top, float[] bottom, float sy, float amp, int n) {
+        int i = 0;
+        int bound = SPECIES.loopBound(n);
+        for (; i < bound; i += SPECIES.length()) {
+            FloatVector t = FloatVector.fromArray(SPECIES, top, i);
+            FloatVector b = FloatVector.fromArray(SPECIES, bottom, i);
+            FloatVector a = FloatVector.fromArray(SPECIES, acc, accOffset + i);
+            // mul e add separados: lanewise FMA arredondaria diferente do escalar
+            FloatVector noise = t.add(b.sub(t).mul(sy));
+            a.add(noise.mul(amp)).intoArray(acc, accOffset + i);
+        }
+        for (; i < n; i++) {
+            acc[accOffset + i] += amp * (top[i] + (bottom[i] - top[i]) * sy);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package org.gene.world.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Fill de um chunk por um ChunkModel, com a extrusão da borda (a duração é a do evento). */
+@Name("gene.world.ChunkFill")
+@Label("Chunk Fill")
+@Category({"Gene World", "Chunks"})
+@Description("Geração dos pixels de um chunk")
+public class ChunkFillEvent extends jdk.jfr.Event {
+    @Label("Model Type")
+    public Class<?> modelType;
+
+    @Label("World X")
+    public int worldX0;
+
+    @Label("World Y")
+    public int worldY0;
+
+    @Label("Size")
+    public int size;
+}
@@ -0,0 +1,36 @@
+package org.gene.world.diagnostics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contador monotônico, seguro entre threads (LongAdder: sem disputa entre workers).
+ * Só conta com as métricas ligadas ({@link Metrics#isEnabled}).
+ */
+public final class Counter {
+    private final String name;
+    private final LongAdder value = new LongAdder();
+
+    Counter(String name) {
+        this.name = name;
+    }
+
+    public void increment() {
+        if (Metrics.isEnabled()) value.increment();
+    }
+
+    public void add(long amount) {
+        if (Metrics.isEnabled()) value.add(amount);
+    }
+
+    public long get() {
+        return value.sum();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    void reset() {
+        value.reset();
+    }
+}
@@ -0,0 +1,30 @@
+package org.gene.world.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Um frame do jogo, do início do render ao fim dos desenhos. */
+@Name("gene.world.Frame")
+@Label("Frame")
+@Category({"Gene World", "Rendering"})
+@Description("Um frame renderizado")
+public class FrameEvent extends jdk.jfr.Event {
+    private static final EventType TYPE = EventType.getEventType(FrameEvent.class);
+
+    @Label("Draw Calls")
+    public int drawCalls;
+
+    @Label("Texture Binds")
+    public int textureBinds;
+
+    @Label("Pending Chunks")
+    public int pendingChunks;
+
+    /** Se alguma gravação do JFR está pegando este evento (para só então contar chamadas de GL). */
+    public static boolean isRecording() {
+        return TYPE.isEnabled();
+    }
+}
@@ -0,0 +1,72 @@
+package org.gene.world.diagnostics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de durações em nanossegundos com baldes em potências de 2 (balde i: [2^i, 2^(i+1))).
+ * Registrar custa um numberOfLeadingZeros e um incremento atômico; os percentis saem com a
+ * precisão do balde (fator 2), suficiente para ver para onde o tempo vai.
+ * Só registra com as métricas ligadas ({@link Metrics#isEnabled}).
+ */
+public final class Histogram {
+    private static final int BUCKETS = 64;
+
+    private final String name;
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+
+    Histogram(String name) {
+        this.name = name;
+    }
+
+    public void record(long nanos) {
+        if (!Metrics.isEnabled()) return;
+        long v = Math.max(1, nanos);
+        buckets.incrementAndGet(63 - Long.numberOfLeadingZeros(v));
+        count.increment();
+        sum.add(v);
+    }
+
+    /** Registra o tempo desde {@code start}, vindo de {@link Metrics#start}; 0 = desligado. */
+    public void recordSince(long start) {
+        if (start != 0) record(System.nanoTime() - start);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    /** Média em nanossegundos, ou 0 sem amostras. */
+    public double getMean() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) sum.sum() / n;
+    }
+
+    /**
+     * Limite superior do balde que contém o percentil {@code p} (0..1), em nanossegundos;
+     * 0 sem amostras.
+     */
+    public long getPercentile(double p) {
+        long n = count.sum();
+        if (n == 0) return 0;
+        long target = (long) Math.ceil(p * n);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+            if (seen >= Math.max(1, target)) return (1L << (i + 1)) - 1; // i = 62 dá Long.MAX_VALUE
+        }
+        return Long.MAX_VALUE;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    void reset() {
+        for (int i = 0; i < BUCKETS; i++) buckets.set(i, 0);
+        count.reset();
+        sum.reset();
+    }
+}
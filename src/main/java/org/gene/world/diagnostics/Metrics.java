@@ -0,0 +1,59 @@
+package org.gene.world.diagnostics;
+
+/**
+ * Contadores e histogramas dos caminhos quentes, lidos pelo overlay de estatísticas.
+ * <p>
+ * Desligado, cada ponto de medição custa a leitura de um boolean: pode ficar em produção.
+ * Liga com {@code -Dgene.metrics=true} ou {@link #setEnabled} (o overlay liga ao aparecer).
+ * Os eventos do JFR ({@link WfcRunEvent}, {@link ChunkFillEvent}, {@link TextureUploadEvent},
+ * {@link FrameEvent}) são independentes disto: seguem a configuração da gravação.
+ */
+public final class Metrics {
+    private static volatile boolean enabled = Boolean.getBoolean("gene.metrics");
+
+    // WFC
+    public static final Counter WFC_RUNS = new Counter("wfc.runs");
+    public static final Counter WFC_CELLS = new Counter("wfc.cells");
+    public static final Counter WFC_PROPAGATIONS = new Counter("wfc.propagations");
+    public static final Counter WFC_CONTRADICTIONS = new Counter("wfc.contradictions");
+    public static final Histogram WFC_RUN_TIME = new Histogram("wfc.run");
+
+    // Chunks
+    public static final Histogram CHUNK_FILL_TIME = new Histogram("chunk.fill");
+    public static final Counter TEXTURE_UPLOADS = new Counter("texture.uploads");
+    public static final Counter TEXTURE_UPLOAD_BYTES = new Counter("texture.uploadBytes");
+    public static final Counter CHUNK_FAILURES = new Counter("chunk.failures");
+
+    // Frames
+    public static final Histogram FRAME_TIME = new Histogram("frame");
+    public static final Counter FRAMES = new Counter("frames");
+
+    // Simulação de criaturas
+    public static final Histogram SIM_TICK_TIME = new Histogram("sim.tick");
+    public static final Counter SIM_TICKS = new Counter("sim.ticks");
+
+    private static final Counter[] COUNTERS = {WFC_RUNS, WFC_CELLS, WFC_PROPAGATIONS, WFC_CONTRADICTIONS,
+            TEXTURE_UPLOADS, TEXTURE_UPLOAD_BYTES, CHUNK_FAILURES, FRAMES, SIM_TICKS};
+    private static final Histogram[] HISTOGRAMS = {WFC_RUN_TIME, CHUNK_FILL_TIME, FRAME_TIME, SIM_TICK_TIME};
+
+    private Metrics() {}
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    /** Início de uma medição para {@link Histogram#recordSince}; 0 se desligado (sem chamar o relógio). */
+    public static long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /** Zera todos os contadores e histogramas. */
+    public static void reset() {
+        for (Counter c : COUNTERS) c.reset();
+        for (Histogram h : HISTOGRAMS) h.reset();
+    }
+}
@@ -0,0 +1,24 @@
+package org.gene.world.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Envio de um slot para uma página do ChunkAtlas (glTexSubImage2D). */
+@Name("gene.world.TextureUpload")
+@Label("Texture Upload")
+@Category({"Gene World", "Chunks"})
+@Description("Pixels de um chunk enviados para a GPU")
+public class TextureUploadEvent extends jdk.jfr.Event {
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+
+    @Label("Page")
+    public int page;
+
+    @Label("Slot")
+    public int slot;
+}
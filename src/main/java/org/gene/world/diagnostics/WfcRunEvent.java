@@ -0,0 +1,25 @@
+package org.gene.world.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Uma execução do BitmaskWfcSolver.run (um mapa, uma região ou um bloco do gerador paralelo). */
+@Name("gene.world.WfcRun")
+@Label("WFC Run")
+@Category({"Gene World", "Generation"})
+@Description("Colapso de um grid pelo WFC")
+public class WfcRunEvent extends jdk.jfr.Event {
+    @Label("Cells")
+    public int cells;
+
+    @Label("Propagation Steps")
+    public long propagations;
+
+    @Label("Contradictions")
+    public long contradictions;
+
+    @Label("Restarts")
+    public long restarts;
+}
@@ -0,0 +1,128 @@
+package org.gene.world.sim;
+
+import com.artemis.Archetype;
+import com.artemis.ArchetypeBuilder;
+import com.artemis.BaseSystem;
+import com.artemis.annotations.Wire;
+import com.badlogic.gdx.graphics.Color;
+import org.gene.world.sim.component.Energy;
+import org.gene.world.sim.component.Genome;
+import org.gene.world.sim.component.Heading;
+import org.gene.world.sim.component.Position;
+
+/**
+ * Cria as criaturas: as primeiras com genes ao acaso e os filhos com os genes do pai mutados.
+ * É um sistema passivo (nunca processado) só para receber o World, o {@link Habitat} e o
+ * {@link CreatureStore} pela injeção do Artemis. Os componentes marcadores são
+ * {@code PooledComponent}: com a população estável, nascer reaproveita os de quem morreu.
+ */
+public class CreatureFactory extends BaseSystem {
+    public static final float MIN_SPEED = 5f, MAX_SPEED = 120f;
+    public static final float MAX_WANDER = 6f;
+    public static final float MIN_APPETITE = 0.05f, MAX_APPETITE = 2f;
+    public static final float MIN_BREED_AT = 1.2f, MAX_BREED_AT = 6f;
+    /** Desvio relativo máximo de um gene a cada geração. */
+    public static final float MUTATION = 0.15f;
+    /** Energia de quem nasce no começo da simulação. */
+    public static final float INITIAL_ENERGY = 1f;
+
+    @Wire
+    private Habitat habitat;
+    @Wire
+    private CreatureStore store;
+
+    private final SimRandom random;
+    private Archetype creature;
+
+    public CreatureFactory(long seed) {
+        this.random = new SimRandom(seed);
+    }
+
+    @Override
+    protected void initialize() {
+        creature = new ArchetypeBuilder()
+                .add(Position.class)
+                .add(Heading.class)
+                .add(Genome.class)
+                .add(Energy.class)
+                .build(world);
+    }
+
+    @Override
+    protected boolean checkProcessing() {
+        return false;
+    }
+
+    @Override
+    protected void processSystem() {}
+
+    /** Criatura com genes ao acaso num ponto ao acaso do habitat. */
+    public int spawnRandom() {
+        int e = world.create(creature);
+        CreatureStore s = store;
+        s.ensure(e);
+        s.speed[e] = lerp(MIN_SPEED, MAX_SPEED * 0.5f, random.nextFloat());
+        s.wander[e] = MAX_WANDER * random.nextFloat();
+        s.swim[e] = random.nextFloat();
+        s.appetite[e] = lerp(MIN_APPETITE, MAX_APPETITE * 0.5f, random.nextFloat());
+        s.breedAt[e] = lerp(MIN_BREED_AT, MAX_BREED_AT * 0.5f, random.nextFloat());
+        s.color[e] = colorOf(s, e);
+
+        s.x[e] = s.prevX[e] = random.nextFloat() * habitat.getWidth();
+        s.y[e] = s.prevY[e] = random.nextFloat() * habitat.getHeight();
+        s.quadrant[e] = habitat.quadrantAt(s.x[e], s.y[e]);
+        randomHeading(s, e);
+        s.energy[e] = INITIAL_ENERGY;
+        s.age[e] = 0;
+        return e;
+    }
+
+    /**
+     * Filho de {@code parent} no mesmo lugar, com os genes mutados e {@code energy} de
+     * energia (já descontada do pai por quem chamou).
+     */
+    public int spawnChild(int parent, float energy) {
+        int e = world.create(creature);
+        CreatureStore s = store;
+        s.ensure(e);
+        s.speed[e] = clamp(mutate(s.speed[parent]), MIN_SPEED, MAX_SPEED);
+        s.wander[e] = clamp(mutate(s.wander[parent]), 0f, MAX_WANDER);
+        s.swim[e] = clamp(s.swim[parent] + MUTATION * random.nextTriangular(), 0f, 1f);
+        s.appetite[e] = clamp(mutate(s.appetite[parent]), MIN_APPETITE, MAX_APPETITE);
+        s.breedAt[e] = clamp(mutate(s.breedAt[parent]), MIN_BREED_AT, MAX_BREED_AT);
+        s.color[e] = colorOf(s, e);
+
+        s.x[e] = s.prevX[e] = s.x[parent];
+        s.y[e] = s.prevY[e] = s.y[parent];
+        s.quadrant[e] = s.quadrant[parent];
+        randomHeading(s, e);
+        s.energy[e] = energy;
+        s.age[e] = 0;
+        return e;
+    }
+
+    // Vermelho = velocidade, verde = apetite, azul = natação
+    private static float colorOf(CreatureStore s, int e) {
+        float r = (s.speed[e] - MIN_SPEED) / (MAX_SPEED - MIN_SPEED);
+        float g = (s.appetite[e] - MIN_APPETITE) / (MAX_APPETITE - MIN_APPETITE);
+        return Color.toFloatBits(0.25f + 0.75f * r, 0.25f + 0.75f * g, 0.25f + 0.75f * s.swim[e], 1f);
+    }
+
+    private void randomHeading(CreatureStore s, int e) {
+        float angle = random.nextFloat() * (float) (Math.PI * 2);
+        s.dx[e] = (float) Math.cos(angle);
+        s.dy[e] = (float) Math.sin(angle);
+    }
+
+    private float mutate(float gene) {
+        return gene * (1f + MUTATION * random.nextTriangular());
+    }
+
+    private static float lerp(float a, float b, float t) {
+        return a + (b - a) * t;
+    }
+
+    private static float clamp(float v, float min, float max) {
+        return v < min ? min : Math.min(v, max);
+    }
+}
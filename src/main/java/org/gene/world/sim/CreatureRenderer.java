@@ -0,0 +1,63 @@
+package org.gene.world.sim;
+
+import com.artemis.utils.IntBag;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+
+/**
+ * Desenha as criaturas como quadrados na cor dos genes, interpolando entre o tick anterior e
+ * o atual. Só as que caem na área visível vão para o SpriteBatch.
+ */
+public class CreatureRenderer {
+    private final Simulation simulation;
+    private final Texture pixel;
+
+    public CreatureRenderer(Simulation simulation) {
+        this.simulation = simulation;
+        Pixmap white = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
+        white.setColor(Color.WHITE);
+        white.fill();
+        this.pixel = new Texture(white);
+        white.dispose();
+    }
+
+    /**
+     * Desenha dentro de um {@code batch.begin()}/{@code end()} já abertos. A área visível é em
+     * pixels de mundo; {@code size} é o lado do quadrado, também em pixels de mundo.
+     */
+    public void render(SpriteBatch batch, float viewX, float viewY, float viewW, float viewH, float size) {
+        Habitat habitat = simulation.getHabitat();
+        float alpha = simulation.getAlpha();
+        float ox = habitat.getOriginX(), oy = habitat.getOriginY();
+        float halfW = habitat.getWidth() / 2f, halfH = habitat.getHeight() / 2f;
+        float x0 = viewX - size, y0 = viewY - size;
+        float x1 = viewX + viewW, y1 = viewY + viewH;
+        float previousColor = batch.getPackedColor();
+
+        CreatureStore s = simulation.getStore();
+        IntBag creatures = simulation.getCreatures();
+        int[] ids = creatures.getData();
+        for (int i = 0, n = creatures.size(); i < n; i++) {
+            int e = ids[i];
+            float x = s.x[e], y = s.y[e];
+            float px = s.prevX[e], py = s.prevY[e];
+            // Quem deu a volta no toro neste tick é desenhado direto na posição nova
+            if (Math.abs(x - px) < halfW && Math.abs(y - py) < halfH) {
+                x = px + (x - px) * alpha;
+                y = py + (y - py) * alpha;
+            }
+            x += ox - size / 2f;
+            y += oy - size / 2f;
+            if (x < x0 || x > x1 || y < y0 || y > y1) continue;
+            batch.setPackedColor(s.color[e]);
+            batch.draw(pixel, x, y, size, size);
+        }
+        batch.setPackedColor(previousColor);
+    }
+
+    public void dispose() {
+        pixel.dispose();
+    }
+}
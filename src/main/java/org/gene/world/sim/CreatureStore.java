@@ -0,0 +1,81 @@
+package org.gene.world.sim;
+
+import java.util.Arrays;
+
+/**
+ * Dados das criaturas em colunas de tipos primitivos indexadas pelo id da entidade do Artemis
+ * (o equivalente aos componentes empacotados). Os componentes em
+ * {@code org.gene.world.sim.component} são só marcadores para os aspectos; os sistemas
+ * percorrem os ids em ordem e leem estas colunas, então um tick é uma varredura sequencial
+ * de arrays, sem seguir ponteiros para objetos espalhados pelo heap.
+ * <p>
+ * O Artemis reaproveita os ids de quem morreu: com a população estável as colunas não crescem.
+ */
+public final class CreatureStore {
+    private static final int MIN_CAPACITY = 64;
+
+    // Position
+    public float[] x, y;          // pixels locais do habitat
+    public float[] prevX, prevY;  // posição no tick anterior, para interpolar o desenho
+    public int[] quadrant;        // quadrante do habitat sob (x, y)
+
+    // Heading: vetor unitário, girar é multiplicar (sem seno e cosseno por tick)
+    public float[] dx, dy;
+
+    // Genome
+    public float[] speed;     // pixels por segundo; o custo cresce com o quadrado
+    public float[] wander;    // quanto a direção varia ao acaso, em radianos por segundo
+    public float[] swim;      // fração da velocidade mantida na água (0..1)
+    public float[] appetite;  // comida ingerida por segundo, se houver
+    public float[] breedAt;   // energia a partir da qual se reproduz
+    public float[] color;     // cor empacotada para o SpriteBatch, derivada dos genes
+
+    // Energy
+    public float[] energy;
+    public int[] age;         // em ticks
+
+    private int capacity;
+
+    public CreatureStore(int expected) {
+        allocate(Math.max(MIN_CAPACITY, expected));
+    }
+
+    /** Garante espaço para o id {@code entity}; só aloca quando o maior id cresce. */
+    public void ensure(int entity) {
+        if (entity < capacity) return;
+        allocate(Math.max(entity + 1, capacity + (capacity >> 1)));
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    // ------------------- interno -------------------
+
+    private void allocate(int n) {
+        x = grow(x, n);
+        y = grow(y, n);
+        prevX = grow(prevX, n);
+        prevY = grow(prevY, n);
+        quadrant = grow(quadrant, n);
+        dx = grow(dx, n);
+        dy = grow(dy, n);
+        speed = grow(speed, n);
+        wander = grow(wander, n);
+        swim = grow(swim, n);
+        appetite = grow(appetite, n);
+        breedAt = grow(breedAt, n);
+        color = grow(color, n);
+        energy = grow(energy, n);
+        age = grow(age, n);
+        capacity = n;
+    }
+
+    private static float[] grow(float[] a, int n) {
+        return a == null ? new float[n] : Arrays.copyOf(a, n);
+    }
+
+    private static int[] grow(int[] a, int n) {
+        return a == null ? new int[n] : Arrays.copyOf(a, n);
+    }
+}
@@ -0,0 +1,155 @@
+package org.gene.world.sim;
+
+import org.gene.world.chunks.enums.Biome;
+import org.gene.world.world.TileMap;
+import org.gene.world.world.query.TerrainIndex;
+
+import java.util.Arrays;
+
+/**
+ * O terreno visto pelas criaturas: um retângulo de {@link TileMap} com meia célula de
+ * resolução (um valor por quadrante do TileType), fechado como um toro.
+ * <ul>
+ *   <li>{@link #biomeAt} devolve o ordinal do Biome sob um ponto, com uma leitura de array
+ *       (o {@link TerrainIndex} do retângulo).</li>
+ *   <li>Cada quadrante guarda a comida disponível, que cresce até o teto do bioma e é
+ *       consumida pelas criaturas ({@link #eat}). O crescimento é calculado só quando alguém
+ *       come ali, pelo tempo desde a última vez: o custo do tick não depende do tamanho do mapa.</li>
+ * </ul>
+ * Coordenadas em pixels locais, de (0, 0) até ({@link #getWidth()}, {@link #getHeight()});
+ * o canto (0, 0) fica em ({@link #getOriginX()}, {@link #getOriginY()}) no mundo. O y cresce
+ * para cima, como no mundo: a metade norte de uma célula é a de y maior.
+ */
+public final class Habitat {
+    /** Quadrante sem tile (região não gerada): sem comida, andar normal. */
+    public static final int VOID = TerrainIndex.VOID;
+
+    // Propriedades por bioma, indexadas pelo ordinal (VOID no fim)
+    private static final float[] GROWTH = new float[VOID + 1];    // comida por segundo
+    private static final float[] CAPACITY = new float[VOID + 1];  // teto de comida por quadrante
+    private static final float[] DAMAGE = new float[VOID + 1];    // energia perdida por segundo
+    private static final boolean[] WATER = new boolean[VOID + 1];
+
+    static {
+        set(Biome.GROUND, 0.05f, 0.6f, 0f, false);
+        set(Biome.GRASS, 0.12f, 1.5f, 0f, false);
+        set(Biome.SAND, 0.01f, 0.2f, 0f, false);
+        set(Biome.WATER, 0.03f, 0.4f, 0f, true);
+        set(Biome.LAVA, 0f, 0f, 1.5f, false);
+        set(Biome.STONEFLOOR, 0.005f, 0.1f, 0f, false);
+    }
+
+    private final TerrainIndex terrain;
+    private final float width;
+    private final float height;
+    // Por quadrante, lado a lado (uma linha de cache por consulta): a comida em 2q e o
+    // instante da última atualização dela em 2q + 1
+    private final float[] food;
+    private double time;           // segundos simulados
+
+    /**
+     * @param map        tiles da área
+     * @param cellPixels lado de uma célula em pixels (o tamanho do chunk)
+     * @param originX    x no mundo da borda esquerda da célula (0, 0)
+     * @param originY    y no mundo da borda de baixo da célula (0, 0)
+     */
+    public Habitat(TileMap map, int cellPixels, float originX, float originY) {
+        this.terrain = new TerrainIndex(map, cellPixels, originX, originY);
+        this.width = terrain.getWidth();
+        this.height = terrain.getHeight();
+        this.food = new float[terrain.getQuadrantCount() * 2];
+
+        // Começa com a comida no teto
+        for (int i = 0; i < terrain.getQuadrantCount(); i++) {
+            food[2 * i] = CAPACITY[terrain.biome(i)];
+        }
+    }
+
+    public float getWidth() { return width; }
+
+    public float getHeight() { return height; }
+
+    public float getOriginX() { return terrain.getOriginX(); }
+
+    public float getOriginY() { return terrain.getOriginY(); }
+
+    /** Terreno do retângulo, para consultas por célula ou por pixel de mundo. */
+    public TerrainIndex getTerrain() { return terrain; }
+
+    /** Quadrante sob o ponto (x, y) em pixels locais, já dentro de [0, largura) x [0, altura). */
+    public int quadrantAt(float x, float y) {
+        return terrain.quadrantAt(x, y);
+    }
+
+    /** Ordinal do Biome sob o ponto em pixels locais, ou {@link #VOID}. */
+    public int biomeAt(float x, float y) {
+        return terrain.biome(terrain.quadrantAt(x, y));
+    }
+
+    public boolean isWater(int quadrant) {
+        return WATER[terrain.biome(quadrant)];
+    }
+
+    /** Energia perdida por segundo por estar no quadrante (lava). */
+    public float damage(int quadrant) {
+        return DAMAGE[terrain.biome(quadrant)];
+    }
+
+    /** Avança o relógio da comida; chamado uma vez por tick. */
+    public void advance(float delta) {
+        time += delta;
+    }
+
+    /** Tira até {@code amount} de comida do quadrante; devolve quanto conseguiu. */
+    public float eat(int quadrant, float amount) {
+        float available = foodAt(quadrant);
+        float eaten = Math.min(available, amount);
+        food[2 * quadrant] = available - eaten;
+        food[2 * quadrant + 1] = (float) time;
+        return eaten;
+    }
+
+    /** Comida no quadrante agora, com o que cresceu desde a última vez que alguém comeu ali. */
+    public float foodAt(int quadrant) {
+        int biome = terrain.biome(quadrant);
+        float grown = food[2 * quadrant] + GROWTH[biome] * ((float) time - food[2 * quadrant + 1]);
+        return Math.min(CAPACITY[biome], grown);
+    }
+
+    /** Comida total, para diagnóstico. */
+    public double totalFood() {
+        double sum = 0;
+        for (int i = 0; i < terrain.getQuadrantCount(); i++) sum += foodAt(i);
+        return sum;
+    }
+
+    /** Leva (x) para dentro de [0, largura), dando a volta no toro. */
+    public float wrapX(float x) {
+        if (x < 0) return x + width;
+        return x >= width ? x - width : x;
+    }
+
+    public float wrapY(float y) {
+        if (y < 0) return y + height;
+        return y >= height ? y - height : y;
+    }
+
+    /** Quadrantes de cada bioma, por ordinal ({@link #VOID} no fim). */
+    public int[] biomeHistogram() {
+        return terrain.biomeHistogram();
+    }
+
+    // ------------------- interno -------------------
+
+    private static void set(Biome biome, float growth, float capacity, float damage, boolean water) {
+        GROWTH[biome.ordinal()] = growth;
+        CAPACITY[biome.ordinal()] = capacity;
+        DAMAGE[biome.ordinal()] = damage;
+        WATER[biome.ordinal()] = water;
+    }
+
+    @Override
+    public String toString() {
+        return "Habitat[" + terrain.getTiles().getWidth() + "x" + terrain.getTiles().getHeight() + " células, " + Arrays.toString(biomeHistogram()) + "]";
+    }
+}
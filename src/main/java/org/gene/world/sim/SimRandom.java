@@ -0,0 +1,41 @@
+package org.gene.world.sim;
+
+/**
+ * Gerador xorshift64* com o estado num long: sem alocação por número sorteado, e cada
+ * sistema tem o seu, então a simulação é reproduzível para a mesma seed.
+ */
+public final class SimRandom {
+    private long state;
+
+    public SimRandom(long seed) {
+        // splitmix64 da seed: seeds vizinhas dão sequências independentes, e o estado nunca é 0
+        long z = seed + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        state = (z ^ (z >>> 31)) | 1L;
+    }
+
+    public long nextLong() {
+        long x = state;
+        x ^= x >>> 12;
+        x ^= x << 25;
+        x ^= x >>> 27;
+        state = x;
+        return x * 0x2545F4914F6CDD1DL;
+    }
+
+    /** Uniforme em [0, 1). */
+    public float nextFloat() {
+        return (nextLong() >>> 40) * 0x1.0p-24f;
+    }
+
+    /** Uniforme em [-1, 1). */
+    public float nextSigned() {
+        return nextFloat() * 2f - 1f;
+    }
+
+    /** Triangular em (-1, 1), concentrada no 0: uma aproximação barata da normal. */
+    public float nextTriangular() {
+        return nextFloat() - nextFloat();
+    }
+}
@@ -0,0 +1,172 @@
+package org.gene.world.sim;
+
+import com.artemis.Aspect;
+import com.artemis.EntitySubscription;
+import com.artemis.World;
+import com.artemis.WorldConfiguration;
+import com.artemis.WorldConfigurationBuilder;
+import com.artemis.utils.IntBag;
+import org.gene.world.diagnostics.Metrics;
+import org.gene.world.sim.component.Energy;
+import org.gene.world.sim.component.Genome;
+import org.gene.world.sim.component.Position;
+import org.gene.world.sim.system.HabitatSystem;
+import org.gene.world.sim.system.MetabolismSystem;
+import org.gene.world.sim.system.MovementSystem;
+import org.gene.world.sim.system.ReproductionSystem;
+import org.gene.world.world.query.SpatialGrid;
+
+/**
+ * Simulação das criaturas sobre um {@link Habitat}, num World do Artemis-ODB.
+ * <ul>
+ *   <li>Entidades são ids inteiros. Os componentes marcam os aspectos ({@code @All}) de cada
+ *       sistema; os dados ficam empacotados em colunas primitivas indexadas pelo id
+ *       ({@link CreatureStore}). Cada sistema percorre o IntBag dos ids em ordem: o tick é uma
+ *       varredura de arrays e não aloca nada.</li>
+ *   <li>Passo fixo de {@link #STEP}: {@link #advance} roda quantos ticks couberem no tempo do
+ *       frame e guarda o resto, então o resultado não depende do FPS. O render interpola entre
+ *       o tick anterior e o atual com {@link #getAlpha()}.</li>
+ *   <li>Ordem do tick: relógio do habitat, movimento, metabolismo (comer, pagar,
+ *       morrer), reprodução. Mortes e nascimentos entram no World ao fim de cada sistema.</li>
+ *   <li>Vizinhança: {@link #getNeighbours()} devolve um {@link SpatialGrid} das posições do
+ *       último tick, reconstruído na primeira consulta depois de cada tick (quem não consulta
+ *       não paga a reconstrução).</li>
+ * </ul>
+ * Reproduzível: a mesma seed, habitat e sequência de chamadas dão as mesmas criaturas.
+ */
+public class Simulation {
+    public static final float STEP = 1f / 60f;
+    // Depois de um travamento, não tenta recuperar mais que isto de uma vez
+    private static final int MAX_STEPS_PER_ADVANCE = 8;
+    private static final float MAX_FRAME_SECONDS = 0.25f;
+
+    private final World world;
+    private final Habitat habitat;
+    private final CreatureStore store;
+    private final CreatureFactory factory;
+    private final EntitySubscription creatures;
+    private final MetabolismSystem metabolism;
+    private final ReproductionSystem reproduction;
+    private final SpatialGrid neighbours;
+
+    private float accumulator;
+    private long ticks;
+    private long neighboursTick = -1;
+
+    /**
+     * @param capacity população máxima (os nascimentos param nela)
+     * @param seed     seed dos genes, das posições iniciais e do passeio aleatório
+     */
+    public Simulation(Habitat habitat, int capacity, long seed) {
+        this.habitat = habitat;
+        this.store = new CreatureStore(capacity);
+        this.factory = new CreatureFactory(seed);
+        this.metabolism = new MetabolismSystem();
+        this.reproduction = new ReproductionSystem(capacity);
+        WorldConfiguration config = new WorldConfigurationBuilder()
+                .with(factory,
+                        new HabitatSystem(),
+                        new MovementSystem(seed * 31 + 1),
+                        metabolism,
+                        reproduction)
+                .build()
+                .register(habitat)
+                .register(store)
+                .expectedEntityCount(capacity);
+        this.world = new World(config);
+        this.creatures = world.getAspectSubscriptionManager()
+                .get(Aspect.all(Position.class, Genome.class, Energy.class));
+        // Uma célula por quadrante do habitat
+        this.neighbours = new SpatialGrid(habitat.getWidth(), habitat.getHeight(),
+                habitat.getTerrain().getCellPixels() / 2f, true);
+    }
+
+    /** Cria {@code count} criaturas com genes ao acaso; entram na população no próximo tick. */
+    public void spawn(int count) {
+        for (int i = 0; i < count; i++) factory.spawnRandom();
+    }
+
+    /**
+     * Avança {@code delta} segundos de tempo real em ticks de {@link #STEP}; o que sobrar fica
+     * para a próxima chamada. Devolve quantos ticks rodaram.
+     */
+    public int advance(float delta) {
+        accumulator += Math.min(delta, MAX_FRAME_SECONDS);
+        int steps = 0;
+        while (accumulator >= STEP && steps < MAX_STEPS_PER_ADVANCE) {
+            tick();
+            accumulator -= STEP;
+            steps++;
+        }
+        // Atrasado demais: descarta o excesso em vez de acumular (a simulação fica mais lenta)
+        if (steps == MAX_STEPS_PER_ADVANCE) accumulator = Math.min(accumulator, STEP);
+        return steps;
+    }
+
+    /** Um tick de {@link #STEP} segundos. */
+    public void tick() {
+        long start = Metrics.start();
+        world.setDelta(STEP);
+        world.process();
+        ticks++;
+        Metrics.SIM_TICKS.increment();
+        Metrics.SIM_TICK_TIME.recordSince(start);
+    }
+
+    /** Fração do próximo tick já decorrida (0..1), para interpolar o desenho. */
+    public float getAlpha() {
+        return accumulator / STEP;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    /** Criaturas vivas no último tick. */
+    public int getPopulation() {
+        return creatures.getEntities().size();
+    }
+
+    /** Ids das criaturas vivas no último tick; não alterar. */
+    public IntBag getCreatures() {
+        return creatures.getEntities();
+    }
+
+    /**
+     * Índice espacial das criaturas vivas nas posições do último tick (pixels locais do
+     * habitat, com a volta do toro). Não alterar; vale até o próximo tick.
+     */
+    public SpatialGrid getNeighbours() {
+        if (neighboursTick != ticks) {
+            IntBag ids = creatures.getEntities();
+            neighbours.rebuild(ids.getData(), ids.size(), store.x, store.y);
+            neighboursTick = ticks;
+        }
+        return neighbours;
+    }
+
+    public int getBirths() {
+        return reproduction.getBirths();
+    }
+
+    public int getDeaths() {
+        return metabolism.getDeaths();
+    }
+
+    /** Dados das criaturas, indexados pelo id (ver {@link #getCreatures()}). */
+    public CreatureStore getStore() {
+        return store;
+    }
+
+    public Habitat getHabitat() {
+        return habitat;
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    public void dispose() {
+        world.dispose();
+    }
+}
@@ -0,0 +1,9 @@
+package org.gene.world.sim.component;
+
+import com.artemis.PooledComponent;
+
+/** Criatura que come e gasta energia; reserva e idade no {@link org.gene.world.sim.CreatureStore}. */
+public class Energy extends PooledComponent {
+    @Override
+    protected void reset() {}
+}
@@ -0,0 +1,13 @@
+package org.gene.world.sim.component;
+
+import com.artemis.PooledComponent;
+
+/**
+ * Criatura com genes ({@code speed}, {@code wander}, {@code swim}, {@code appetite},
+ * {@code breedAt} no {@link org.gene.world.sim.CreatureStore}). Fixos durante a vida; os
+ * filhos herdam com mutação ({@link org.gene.world.sim.CreatureFactory}).
+ */
+public class Genome extends PooledComponent {
+    @Override
+    protected void reset() {}
+}
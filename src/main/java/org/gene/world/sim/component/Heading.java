@@ -0,0 +1,9 @@
+package org.gene.world.sim.component;
+
+import com.artemis.PooledComponent;
+
+/** Criatura que se move; direção em {@code dx}/{@code dy} do {@link org.gene.world.sim.CreatureStore}. */
+public class Heading extends PooledComponent {
+    @Override
+    protected void reset() {}
+}
@@ -0,0 +1,13 @@
+package org.gene.world.sim.component;
+
+import com.artemis.PooledComponent;
+
+/**
+ * Criatura com posição. Os dados ficam empacotados no {@link org.gene.world.sim.CreatureStore}
+ * ({@code x}, {@code y}, {@code prevX}, {@code prevY}, {@code quadrant}); o componente só
+ * põe a entidade nos aspectos dos sistemas.
+ */
+public class Position extends PooledComponent {
+    @Override
+    protected void reset() {}
+}
@@ -0,0 +1,16 @@
+package org.gene.world.sim.system;
+
+import com.artemis.BaseSystem;
+import com.artemis.annotations.Wire;
+import org.gene.world.sim.Habitat;
+
+/** Primeiro sistema do tick: avança o relógio da comida do habitat. */
+public class HabitatSystem extends BaseSystem {
+    @Wire
+    private Habitat habitat;
+
+    @Override
+    protected void processSystem() {
+        habitat.advance(world.delta);
+    }
+}
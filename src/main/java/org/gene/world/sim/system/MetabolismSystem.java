@@ -0,0 +1,64 @@
+package org.gene.world.sim.system;
+
+import com.artemis.BaseEntitySystem;
+import com.artemis.annotations.All;
+import com.artemis.annotations.Wire;
+import com.artemis.utils.IntBag;
+import org.gene.world.sim.CreatureStore;
+import org.gene.world.sim.Habitat;
+import org.gene.world.sim.component.Energy;
+import org.gene.world.sim.component.Genome;
+import org.gene.world.sim.component.Position;
+
+/**
+ * Come do quadrante em que está (até {@code appetite} por segundo), paga o custo dos genes
+ * e o dano do terreno, envelhece e morre sem energia ou de velhice.
+ */
+@All({Position.class, Genome.class, Energy.class})
+public class MetabolismSystem extends BaseEntitySystem {
+    /** Custo fixo por segundo, de qualquer criatura. */
+    public static final float BASE_COST = 0.04f;
+    /** Custo por segundo por (pixel/segundo)² de velocidade. */
+    public static final float SPEED_COST = 1.5e-5f;
+    /** Custo por segundo de saber nadar (swim = 1). */
+    public static final float SWIM_COST = 0.06f;
+    /** Custo por segundo por unidade de apetite. */
+    public static final float APPETITE_COST = 0.03f;
+    public static final float MAX_AGE_SECONDS = 180f;
+
+    @Wire
+    private Habitat habitat;
+    @Wire
+    private CreatureStore store;
+
+    private int deaths;
+
+    /** Mortes desde o início. */
+    public int getDeaths() {
+        return deaths;
+    }
+
+    @Override
+    protected void processSystem() {
+        CreatureStore s = store;
+        Habitat h = habitat;
+        float dt = world.delta;
+        int maxAge = (int) (MAX_AGE_SECONDS / dt);
+        IntBag entities = getEntityIds();
+        int[] ids = entities.getData();
+        for (int i = 0, n = entities.size(); i < n; i++) {
+            int e = ids[i];
+            int quadrant = s.quadrant[e];
+            float speed = s.speed[e];
+            float cost = BASE_COST + SPEED_COST * speed * speed + SWIM_COST * s.swim[e]
+                    + APPETITE_COST * s.appetite[e] + h.damage(quadrant);
+            float energy = s.energy[e] + h.eat(quadrant, s.appetite[e] * dt) - cost * dt;
+            s.energy[e] = energy;
+            // Removida ao fim do sistema; o id volta a ser usado por um nascimento
+            if (energy <= 0 || ++s.age[e] > maxAge) {
+                world.delete(e);
+                deaths++;
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package org.gene.world.sim.system;
+
+import com.artemis.BaseEntitySystem;
+import com.artemis.annotations.All;
+import com.artemis.annotations.Wire;
+import com.artemis.utils.IntBag;
+import org.gene.world.sim.CreatureStore;
+import org.gene.world.sim.Habitat;
+import org.gene.world.sim.SimRandom;
+import org.gene.world.sim.component.Genome;
+import org.gene.world.sim.component.Heading;
+import org.gene.world.sim.component.Position;
+
+/**
+ * Gira a direção ao acaso (até {@code wander} radianos por segundo) e anda com a velocidade
+ * do genoma; na água só a fração {@code swim} da velocidade vale. Guarda a posição anterior
+ * para o render interpolar; as bordas do habitat dão a volta (toro).
+ * <p>
+ * Girar e andar ficam no mesmo sistema para passar pelos dados uma vez por tick. O ângulo do
+ * tick é pequeno: a rotação usa cos ≈ 1 - t²/2 e sen ≈ t, e um passo de Newton devolve o
+ * vetor ao comprimento 1.
+ */
+@All({Position.class, Heading.class, Genome.class})
+public class MovementSystem extends BaseEntitySystem {
+    @Wire
+    private Habitat habitat;
+    @Wire
+    private CreatureStore store;
+
+    private final SimRandom random;
+
+    public MovementSystem(long seed) {
+        this.random = new SimRandom(seed);
+    }
+
+    @Override
+    protected void processSystem() {
+        CreatureStore s = store;
+        Habitat h = habitat;
+        float dt = world.delta;
+        IntBag entities = getEntityIds();
+        int[] ids = entities.getData();
+        for (int i = 0, n = entities.size(); i < n; i++) {
+            int e = ids[i];
+            float t = random.nextSigned() * s.wander[e] * dt;
+            float cos = 1f - t * t * 0.5f;
+            float dx = s.dx[e] * cos - s.dy[e] * t;
+            float dy = s.dx[e] * t + s.dy[e] * cos;
+            float norm = 1.5f - 0.5f * (dx * dx + dy * dy);
+            dx *= norm;
+            dy *= norm;
+            s.dx[e] = dx;
+            s.dy[e] = dy;
+
+            float speed = s.speed[e] * dt;
+            if (h.isWater(s.quadrant[e])) speed *= s.swim[e];
+            float x = h.wrapX(s.x[e] + dx * speed);
+            float y = h.wrapY(s.y[e] + dy * speed);
+            s.prevX[e] = s.x[e];
+            s.prevY[e] = s.y[e];
+            s.x[e] = x;
+            s.y[e] = y;
+            s.quadrant[e] = h.quadrantAt(x, y);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package org.gene.world.sim.system;
+
+import com.artemis.BaseEntitySystem;
+import com.artemis.annotations.All;
+import com.artemis.annotations.Wire;
+import com.artemis.utils.IntBag;
+import org.gene.world.sim.CreatureFactory;
+import org.gene.world.sim.CreatureStore;
+import org.gene.world.sim.component.Energy;
+import org.gene.world.sim.component.Genome;
+import org.gene.world.sim.component.Position;
+
+/**
+ * Com energia acima de {@code breedAt}, a criatura divide a energia com um filho mutado.
+ * A população nunca passa da capacidade: os nascimentos do tick contam junto com os vivos.
+ */
+@All({Position.class, Genome.class, Energy.class})
+public class ReproductionSystem extends BaseEntitySystem {
+    @Wire
+    private CreatureStore store;
+    private CreatureFactory factory;
+
+    private final int capacity;
+    private int births;
+
+    public ReproductionSystem(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /** Nascimentos desde o início. */
+    public int getBirths() {
+        return births;
+    }
+
+    @Override
+    protected void processSystem() {
+        IntBag entities = getEntityIds();
+        int room = capacity - entities.size();
+        if (room <= 0) return;
+        int[] ids = entities.getData();
+        for (int i = 0, n = entities.size(); i < n && room > 0; i++) {
+            int e = ids[i];
+            if (store.energy[e] < store.breedAt[e]) continue;
+            // O filho pode fazer as colunas crescerem: relê o store a cada nascimento
+            store.energy[e] *= 0.5f;
+            factory.spawnChild(e, store.energy[e]);
+            room--;
+            births++;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package org.gene.world.world;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.InputAdapter;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector3;
+
+/**
+ * Pan e zoom da câmera do mundo.
+ * <ul>
+ *   <li>Arrastar com o mouse ou WASD/setas: move a câmera.</li>
+ *   <li>Roda do mouse: zoom, mantendo fixo o ponto sob o cursor.</li>
+ * </ul>
+ */
+public class CameraController extends InputAdapter {
+    private static final float MIN_ZOOM = 0.25f;
+    private static final float MAX_ZOOM = 16f;
+    private static final float ZOOM_STEP = 1.15f;
+    private static final float KEY_PAN_SPEED = 800f; // pixels de tela por segundo
+
+    private final OrthographicCamera camera;
+    private final Vector3 before = new Vector3();
+    private final Vector3 after = new Vector3();
+    private int lastX, lastY;
+
+    public CameraController(OrthographicCamera camera) {
+        this.camera = camera;
+    }
+
+    /** Aplica o pan pelo teclado; chamar uma vez por frame antes de camera.update(). */
+    public void update(float delta) {
+        float step = KEY_PAN_SPEED * camera.zoom * delta;
+        if (Gdx.input.isKeyPressed(Input.Keys.A) || Gdx.input.isKeyPressed(Input.Keys.LEFT)) camera.position.x -= step;
+        if (Gdx.input.isKeyPressed(Input.Keys.D) || Gdx.input.isKeyPressed(Input.Keys.RIGHT)) camera.position.x += step;
+        if (Gdx.input.isKeyPressed(Input.Keys.S) || Gdx.input.isKeyPressed(Input.Keys.DOWN)) camera.position.y -= step;
+        if (Gdx.input.isKeyPressed(Input.Keys.W) || Gdx.input.isKeyPressed(Input.Keys.UP)) camera.position.y += step;
+    }
+
+    @Override
+    public boolean touchDown(int screenX, int screenY, int pointer, int button) {
+        lastX = screenX;
+        lastY = screenY;
+        return true;
+    }
+
+    @Override
+    public boolean touchDragged(int screenX, int screenY, int pointer) {
+        // y da tela cresce para baixo, o do mundo para cima
+        camera.position.x -= (screenX - lastX) * camera.zoom;
+        camera.position.y += (screenY - lastY) * camera.zoom;
+        lastX = screenX;
+        lastY = screenY;
+        return true;
+    }
+
+    @Override
+    public boolean scrolled(float amountX, float amountY) {
+        int mx = Gdx.input.getX();
+        int my = Gdx.input.getY();
+        camera.unproject(before.set(mx, my, 0));
+        camera.zoom = MathUtils.clamp(camera.zoom * (float) Math.pow(ZOOM_STEP, amountY), MIN_ZOOM, MAX_ZOOM);
+        camera.update();
+        camera.unproject(after.set(mx, my, 0));
+        camera.position.add(before.x - after.x, before.y - after.y, 0);
+        return true;
+    }
+}
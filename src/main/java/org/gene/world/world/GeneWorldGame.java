@@ -2,43 +2,174 @@ package org.gene.world.world;
 
 import com.badlogic.gdx.ApplicationAdapter;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
 import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+import org.gene.world.chunks.model.TileAssets;
+import org.gene.world.diagnostics.FrameEvent;
+import org.gene.world.diagnostics.Metrics;
+import org.gene.world.sim.CreatureRenderer;
+import org.gene.world.sim.Habitat;
+import org.gene.world.sim.Simulation;
+
+import java.util.concurrent.CompletableFuture;
 
 public class GeneWorldGame extends ApplicationAdapter {
     // ... (constantes iguais) ...
     public static final int SCREEN_SIZE = 1000;
     public static final int CHUNK_SIZE  = 100;
     public static final int CHUNKS_PER_AXIS = SCREEN_SIZE / CHUNK_SIZE;
+    public static final int CREATURES = 2_000;
+    public static final int MAX_CREATURES = 100_000;
+    private static final float CREATURE_SCREEN_PIXELS = 4f;
 
     private SpriteBatch batch;
-    private World world;
+    private OrthographicCamera camera;
+    private CameraController cameraController;
+    private StreamingWorld world;
+    private StaticWorldLayer staticLayer;
+    private boolean useStaticLayer = true; // F2 alterna com o render direto pelo SpriteBatch
+    private StatsOverlay overlay;
+    private GLProfiler profiler;
+    private CompletableFuture<Integer> assets; // imagens dos tiles decodificando em paralelo
+    private Simulation simulation;
+    private CreatureRenderer creatures;
 
     @Override
     public void create() {
         batch = new SpriteBatch();
-        batch.setProjectionMatrix(new Matrix4().setToOrtho2D(0, 0, SCREEN_SIZE, SCREEN_SIZE));
 
-        // A criação do mundo não precisa mais do tipo, pois ele será gerado proceduralmente
-        world = new World(CHUNKS_PER_AXIS, CHUNKS_PER_AXIS, CHUNK_SIZE);
+        // Câmera começa mostrando 0..SCREEN_SIZE, como a projeção fixa antiga
+        camera = new OrthographicCamera(SCREEN_SIZE, SCREEN_SIZE);
+        camera.position.set(SCREEN_SIZE / 2f, SCREEN_SIZE / 2f, 0);
+        camera.update();
+        cameraController = new CameraController(camera);
+        Gdx.input.setInputProcessor(cameraController);
+
+        // Texturas base reduzidas de big/ para o tamanho do chunk, com as reduções em disco.
+        // Todos os núcleos decodificam; o mundo só é criado quando tudo estiver no cache
+        TileAssets.configure(CHUNK_SIZE, Gdx.files.local("cache/assets").file().toPath());
+        assets = TileAssets.preload(Runtime.getRuntime().availableProcessors());
+    }
+
+    private void createWorld() {
+        // O mundo é gerado por regiões, sob demanda: o startup custa só a região visível
+        long seed = "A".hashCode();
+        world = new StreamingWorld(CHUNK_SIZE, seed);
+        // Regiões já visitadas em execuções anteriores são lidas do disco
+        world.enableDiskCache(Gdx.files.local("cache/world").file().toPath());
+        staticLayer = new StaticWorldLayer(world);
+        // F3: overlay com contadores; os eventos do JFR (gene.world.*) independem dele
+        overlay = new StatsOverlay(world, staticLayer);
+        profiler = new GLProfiler(Gdx.graphics);
+        updateWorld();
+
+        // Criaturas na região da origem (a primeira gerada, onde a câmera começa), em passo fixo
+        int arena = StreamingWorld.DEFAULT_REGION_SIZE;
+        simulation = new Simulation(new Habitat(world.snapshot(0, 0, arena, arena), CHUNK_SIZE, 0, 0),
+                MAX_CREATURES, seed);
+        simulation.spawn(CREATURES);
+        creatures = new CreatureRenderer(simulation);
+        overlay.setSimulation(simulation);
+    }
+
+    @Override
+    public void resize(int width, int height) {
+        camera.viewportWidth = width;
+        camera.viewportHeight = height;
+        camera.update();
     }
 
     @Override
     public void render() {
+        if (world == null) {
+            // Enquanto as imagens decodificam, a thread de render só limpa a tela
+            if (!assets.isDone()) {
+                Gdx.gl.glClearColor(0.05f, 0.05f, 0.08f, 1f);
+                Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+                return;
+            }
+            assets.join(); // propaga uma falha de leitura
+            createWorld();
+        }
+
+        FrameEvent frameEvent = new FrameEvent();
+        frameEvent.begin();
+        long frameStart = Metrics.start();
+        // Contar chamadas de GL tem custo: só com o overlay na tela ou o JFR gravando frames
+        boolean profile = overlay.isVisible() || FrameEvent.isRecording();
+        if (profile != profiler.isEnabled()) {
+            if (profile) profiler.enable(); else profiler.disable();
+        }
+        profiler.reset();
+
         Gdx.gl.glClearColor(0.05f, 0.05f, 0.08f, 1f);
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
 
+        float delta = Gdx.graphics.getDeltaTime();
+        cameraController.update(delta);
+        camera.update();
+        updateWorld();
+        simulation.advance(delta);
+
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F2)) {
+            useStaticLayer = !useStaticLayer;
+            if (!useStaticLayer) staticLayer.invalidate();
+        }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F3)) overlay.toggle();
+        renderWorld();
+
+        int drawCalls = profile ? profiler.getDrawCalls() : 0;
+        int textureBinds = profile ? profiler.getTextureBindings() : 0;
+        Metrics.FRAMES.increment();
+        Metrics.FRAME_TIME.recordSince(frameStart);
+        overlay.render(Gdx.graphics.getWidth(), Gdx.graphics.getHeight(), delta, drawCalls, textureBinds);
+        if (frameEvent.shouldCommit()) {
+            frameEvent.drawCalls = drawCalls;
+            frameEvent.textureBinds = textureBinds;
+            frameEvent.pendingChunks = world.getPipeline().getPendingCount();
+            frameEvent.commit();
+        }
+    }
+
+    private void renderWorld() {
+        // O terreno não muda de um frame para o outro: em geral só reexecuta a geometria gravada
+        boolean cached = useStaticLayer && staticLayer.render(camera.combined,
+                viewX(), viewY(), viewWidth(), viewHeight(), camera.zoom);
+
+        batch.setProjectionMatrix(camera.combined);
         batch.begin();
-        batch.disableBlending();  // 🔑 evita bleed de alpha entre texturas adjacentes
-        world.render(batch);
-        batch.enableBlending();
+        if (!cached) {
+            batch.disableBlending();  // 🔑 evita bleed de alpha entre texturas adjacentes
+            world.render(batch, viewX(), viewY(), viewWidth(), viewHeight(), camera.zoom);
+            batch.enableBlending();
+        }
+        creatures.render(batch, viewX(), viewY(), viewWidth(), viewHeight(),
+                CREATURE_SCREEN_PIXELS * camera.zoom);
         batch.end();
     }
 
     @Override
     public void dispose() {
+        if (profiler != null) profiler.disable();
+        if (overlay != null) overlay.dispose();
+        if (creatures != null) creatures.dispose();
+        if (simulation != null) simulation.dispose();
+        if (staticLayer != null) staticLayer.dispose();
         if (world != null) world.dispose();
         if (batch != null) batch.dispose();
     }
+
+    // ------------------- visão da câmera (pixels de mundo) -------------------
+
+    private void updateWorld() {
+        world.update(viewX(), viewY(), viewWidth(), viewHeight());
+    }
+
+    private float viewWidth() { return camera.viewportWidth * camera.zoom; }
+    private float viewHeight() { return camera.viewportHeight * camera.zoom; }
+    private float viewX() { return camera.position.x - viewWidth() / 2f; }
+    private float viewY() { return camera.position.y - viewHeight() / 2f; }
 }
@@ -3,6 +3,10 @@ package org.gene.world.world;
 import org.gene.world.chunks.enums.Biome;
 import org.gene.world.chunks.enums.Direction;
 import org.gene.world.chunks.enums.TileType;
+import org.gene.world.world.wfc.BitmaskWfcSolver;
+import org.gene.world.world.wfc.Seeds;
+import org.gene.world.world.wfc.TileRules;
+import org.gene.world.world.wfc.WfcStats;
 
 import java.util.*;
 
@@ -13,17 +17,175 @@ import java.util.*;
 public class MapGenerator {
     public record GeneratedTile(TileType type, Biome primary, Biome secondary) {}
 
+    /**
+     * Consulta de tiles já gerados, em coordenadas globais de célula.
+     */
+    @FunctionalInterface
+    public interface TileLookup {
+        /** Ordinal do TileType em (x, y), ou {@link BitmaskWfcSolver#UNCOLLAPSED} se ainda não existir. */
+        int tileAt(int x, int y);
+    }
+
+    /**
+     * Implementação usada pelo generateMap. LEGACY e BITMASK geram o mesmo mapa para a mesma seed.
+     */
+    public enum Solver {
+        /** Listas de TileType por célula (implementação original). */
+        LEGACY,
+        /** Máscaras de bits em arrays primitivos, sem alocação no loop de colapso. */
+        BITMASK,
+        /**
+         * Máscaras de bits com propagação completa (AC-3) e reinício local em caso de
+         * contradição. Nunca deixa células vazias, mas gera mapas diferentes dos outros dois.
+         */
+        CONSTRAINED
+    }
+
     private final long seed;
     private final Random random;
+    private final Solver solver;
+    private WfcStats lastStats = new WfcStats();
     private final Biome primaryBiome = Biome.GROUND;
     private final Biome secondaryBiome = Biome.WATER;
 
     public MapGenerator(long seed) {
+        this(seed, Solver.LEGACY);
+    }
+
+    public MapGenerator(long seed, Solver solver) {
         this.seed = seed;
         this.random = new Random(seed);
+        this.solver = solver;
     }
 
     public GeneratedTile[][] generateMap(int width, int height) {
+        return switch (solver) {
+            case LEGACY -> generateLegacy(width, height);
+            case BITMASK -> generateBitmask(width, height, BitmaskWfcSolver.Propagation.NEIGHBOURS);
+            case CONSTRAINED -> generateBitmask(width, height, BitmaskWfcSolver.Propagation.AC3);
+        };
+    }
+
+    /**
+     * Mesmo mapa do {@link #generateMap}, já no formato compacto (um byte por célula).
+     * Os solvers de bitmask vão direto dos ordinais para o TileMap, sem GeneratedTile por célula.
+     */
+    public TileMap generateTileMap(int width, int height) {
+        return switch (solver) {
+            case LEGACY -> TileMap.from(generateLegacy(width, height));
+            case BITMASK -> TileMap.fromOrdinals(width, height,
+                    solveBitmask(width, height, BitmaskWfcSolver.Propagation.NEIGHBOURS), primaryBiome, secondaryBiome);
+            case CONSTRAINED -> TileMap.fromOrdinals(width, height,
+                    solveBitmask(width, height, BitmaskWfcSolver.Propagation.AC3), primaryBiome, secondaryBiome);
+        };
+    }
+
+    /**
+     * Mesmo mapa do {@link #generateMap}, como ordinais dos TileType na ordem {@code y * width + x}.
+     * Células vazias ficam {@link BitmaskWfcSolver#UNCOLLAPSED}. O LEGACY gera os GeneratedTile e
+     * converte; os solvers de bitmask já trabalham com ordinais.
+     */
+    public byte[] generateTiles(int width, int height) {
+        return switch (solver) {
+            case LEGACY -> toOrdinals(generateLegacy(width, height), width, height);
+            case BITMASK -> solveBitmask(width, height, BitmaskWfcSolver.Propagation.NEIGHBOURS);
+            case CONSTRAINED -> solveBitmask(width, height, BitmaskWfcSolver.Propagation.AC3);
+        };
+    }
+
+    /**
+     * Contadores da última chamada de generateMap (vazios para o solver LEGACY).
+     */
+    public WfcStats getLastStats() {
+        return lastStats;
+    }
+
+    /**
+     * Gera uma região quadrada de {@code size}x{@code size} células cujo canto inferior
+     * esquerdo está em (originX, originY), em coordenadas globais de célula.
+     * As células vizinhas já geradas (consultadas em {@code neighbours}) entram fixas no
+     * anel externo do WFC, então a costura com as regiões existentes respeita as adjacências.
+     * Usa um Random próprio, derivado da seed e da origem, e não o Random do gerador.
+     *
+     * @return ordinais dos TileType, na ordem {@code y * size + x}
+     */
+    public byte[] generateRegion(int originX, int originY, int size, TileLookup neighbours) {
+        return generateRegion(originX, originY, size, size, neighbours);
+    }
+
+    /** Versão retangular do {@link #generateRegion(int, int, int, TileLookup)}. */
+    public byte[] generateRegion(int originX, int originY, int width, int height, TileLookup neighbours) {
+        WfcStats stats = new WfcStats();
+        byte[] region = solveRegion(seed, originX, originY, width, height, neighbours, stats);
+        lastStats = stats;
+        return region;
+    }
+
+    /**
+     * Núcleo do generateRegion, sem estado de instância: pode rodar em várias threads ao mesmo tempo.
+     * Os contadores da execução são somados em {@code stats}.
+     */
+    static byte[] solveRegion(long seed, int originX, int originY, int width, int height,
+                              TileLookup neighbours, WfcStats stats) {
+        Random regionRandom = new Random(Seeds.mix(seed, originX, originY));
+        BitmaskWfcSolver wfc = new BitmaskWfcSolver(width + 2, height + 2, regionRandom,
+                BitmaskWfcSolver.Propagation.AC3);
+
+        // Anel externo: fixa o que já existe; o resto é resolvido e descartado
+        for (int ly = -1; ly <= height; ly++) {
+            for (int lx = -1; lx <= width; lx++) {
+                boolean ring = lx == -1 || ly == -1 || lx == width || ly == height;
+                if (!ring) continue;
+                int tile = neighbours.tileAt(originX + lx, originY + ly);
+                if (tile != BitmaskWfcSolver.UNCOLLAPSED) {
+                    wfc.collapse(lx + 1, ly + 1, TileRules.TILES[tile]);
+                }
+            }
+        }
+        wfc.run();
+        stats.add(wfc.getStats());
+
+        byte[] region = new byte[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                region[y * width + x] = (byte) wfc.tileAt(x + 1, y + 1);
+            }
+        }
+        return region;
+    }
+
+    private GeneratedTile[][] generateBitmask(int width, int height, BitmaskWfcSolver.Propagation propagation) {
+        byte[] tiles = solveBitmask(width, height, propagation);
+        GeneratedTile[][] finalMap = new GeneratedTile[width][height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int tile = tiles[y * width + x];
+                if (tile == BitmaskWfcSolver.UNCOLLAPSED) continue; // Pode acontecer se o WFC falhar
+                finalMap[x][y] = toGeneratedTile(TileRules.TILES[tile]);
+            }
+        }
+        return finalMap;
+    }
+
+    // Ordinais dos TileType, na ordem y * width + x
+    private byte[] solveBitmask(int width, int height, BitmaskWfcSolver.Propagation propagation) {
+        BitmaskWfcSolver wfc = new BitmaskWfcSolver(width, height, random, propagation);
+        lastStats = wfc.getStats();
+        // Mesmo ponto de partida do algoritmo original: centro FULL.
+        wfc.collapse(width / 2, height / 2, TileType.FULL);
+        wfc.run();
+
+        byte[] tiles = new byte[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                tiles[y * width + x] = (byte) wfc.tileAt(x, y);
+            }
+        }
+        return tiles;
+    }
+
+    private GeneratedTile[][] generateLegacy(int width, int height) {
+        lastStats = new WfcStats();
         // --- INICIALIZAÇÃO ---
         // 1. Grid de possibilidades: cada célula começa com TODOS os TileTypes possíveis.
         List<TileType>[][] possibilities = new ArrayList[width][height];
@@ -113,18 +275,36 @@ public class MapGenerator {
                 TileType type = collapsedGrid[x][y];
                 if (type == null) continue; // Pode acontecer se o WFC falhar
 
-                // Agora, a lógica é simples e direta:
-                // Se o gerador escolheu um FULL_SECONDARY, nós o criamos com os biomas invertidos.
-                if (type == TileType.FULL_SECONDARY) {
-                    finalMap[x][y] = new GeneratedTile(TileType.FULL, secondaryBiome, primaryBiome);
-                } else {
-                    finalMap[x][y] = new GeneratedTile(type, primaryBiome, secondaryBiome);
-                }
+                finalMap[x][y] = toGeneratedTile(type);
             }
         }
         return finalMap;
     }
 
+    /** Inverso do {@link #toGeneratedTile}: FULL com os biomas invertidos volta a ser FULL_SECONDARY. */
+    private byte[] toOrdinals(GeneratedTile[][] map, int width, int height) {
+        byte[] tiles = new byte[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                GeneratedTile tile = map[x][y];
+                TileType type = tile == null ? null
+                        : tile.type() == TileType.FULL && tile.primary() == secondaryBiome ? TileType.FULL_SECONDARY
+                        : tile.type();
+                tiles[y * width + x] = type == null ? BitmaskWfcSolver.UNCOLLAPSED : (byte) type.ordinal();
+            }
+        }
+        return tiles;
+    }
+
+    public GeneratedTile toGeneratedTile(TileType type) {
+        // Agora, a lógica é simples e direta:
+        // Se o gerador escolheu um FULL_SECONDARY, nós o criamos com os biomas invertidos.
+        if (type == TileType.FULL_SECONDARY) {
+            return new GeneratedTile(TileType.FULL, secondaryBiome, primaryBiome);
+        }
+        return new GeneratedTile(type, primaryBiome, secondaryBiome);
+    }
+
     /**
      * Atualiza as possibilidades dos vizinhos com base em um tile recém-colocado.
      */
@@ -0,0 +1,150 @@
+package org.gene.world.world;
+
+import org.gene.world.chunks.enums.TileType;
+import org.gene.world.world.wfc.BitmaskWfcSolver;
+import org.gene.world.world.wfc.TileRules;
+import org.gene.world.world.wfc.WfcStats;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Gera o mapa em paralelo, dividindo o grid em blocos independentes separados por faixas.
+ * <pre>
+ *  +------+--+------+--+---
+ *  |bloco |V |bloco |V |
+ *  +------+--+------+--+---
+ *  |   H (faixa horizontal inteira)
+ *  +------+--+------+--+---
+ * </pre>
+ * <ol>
+ *   <li>Os blocos são colapsados ao mesmo tempo, sem restrições entre si.</li>
+ *   <li>Os trechos verticais (V) das faixas, entre dois blocos, são resolvidos com as
+ *       colunas vizinhas dos blocos fixas.</li>
+ *   <li>As faixas horizontais (H) são resolvidas com as linhas de cima e de baixo fixas.</li>
+ * </ol>
+ * Cada etapa só lê células de etapas anteriores e escreve em células disjuntas, e cada
+ * pedaço usa um Random derivado da seed e da sua origem. Por isso o resultado depende
+ * apenas da seed e do tamanho de bloco, nunca do número de threads.
+ * Com faixas de 2 células sempre existe solução que respeita os dois lados.
+ */
+public class ParallelMapGenerator {
+    public static final int DEFAULT_BLOCK_SIZE = 64;
+    private static final int BAND = 2;
+
+    private final long seed;
+    private final int blockSize;
+    private final ForkJoinPool pool;
+    private final MapGenerator tileMapper;
+    private WfcStats lastStats = new WfcStats();
+
+    public ParallelMapGenerator(long seed) {
+        this(seed, DEFAULT_BLOCK_SIZE, ForkJoinPool.commonPool());
+    }
+
+    public ParallelMapGenerator(long seed, int blockSize, ForkJoinPool pool) {
+        this.seed = seed;
+        this.blockSize = blockSize;
+        this.pool = pool;
+        this.tileMapper = new MapGenerator(seed, MapGenerator.Solver.CONSTRAINED);
+    }
+
+    public MapGenerator.GeneratedTile[][] generateMap(int width, int height) {
+        byte[] tiles = generateTiles(width, height);
+        MapGenerator.GeneratedTile[][] finalMap = new MapGenerator.GeneratedTile[width][height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                finalMap[x][y] = tileMapper.toGeneratedTile(TileRules.TILES[tiles[y * width + x]]);
+            }
+        }
+        return finalMap;
+    }
+
+    /** Mesmo mapa do {@link #generateMap}, no formato compacto (um byte por célula). */
+    public TileMap generateTileMap(int width, int height) {
+        MapGenerator.GeneratedTile full = tileMapper.toGeneratedTile(TileType.FULL);
+        return TileMap.fromOrdinals(width, height, generateTiles(width, height), full.primary(), full.secondary());
+    }
+
+    /**
+     * @return ordinais dos TileType, na ordem {@code y * width + x}
+     */
+    public byte[] generateTiles(int width, int height) {
+        byte[] grid = new byte[width * height];
+        Arrays.fill(grid, BitmaskWfcSolver.UNCOLLAPSED);
+        MapGenerator.TileLookup lookup = (x, y) ->
+                (x < 0 || y < 0 || x >= width || y >= height) ? BitmaskWfcSolver.UNCOLLAPSED : grid[y * width + x];
+
+        int period = blockSize + BAND;
+        WfcStats stats = new WfcStats();
+
+        // 1) blocos
+        List<Callable<WfcStats>> tasks = new ArrayList<>();
+        for (int y0 = 0; y0 < height; y0 += period) {
+            for (int x0 = 0; x0 < width; x0 += period) {
+                tasks.add(solveTask(grid, width, lookup, x0, y0,
+                        Math.min(blockSize, width - x0), Math.min(blockSize, height - y0)));
+            }
+        }
+        runAll(tasks, stats);
+
+        // 2) trechos verticais das faixas, entre blocos da mesma linha
+        tasks.clear();
+        for (int y0 = 0; y0 < height; y0 += period) {
+            for (int x0 = blockSize; x0 < width; x0 += period) {
+                tasks.add(solveTask(grid, width, lookup, x0, y0,
+                        Math.min(BAND, width - x0), Math.min(blockSize, height - y0)));
+            }
+        }
+        runAll(tasks, stats);
+
+        // 3) faixas horizontais, na largura inteira
+        tasks.clear();
+        for (int y0 = blockSize; y0 < height; y0 += period) {
+            tasks.add(solveTask(grid, width, lookup, 0, y0, width, Math.min(BAND, height - y0)));
+        }
+        runAll(tasks, stats);
+
+        lastStats = stats;
+        return grid;
+    }
+
+    /** Contadores somados de todos os pedaços da última geração. */
+    public WfcStats getLastStats() {
+        return lastStats;
+    }
+
+    // ------------------- interno -------------------
+
+    private Callable<WfcStats> solveTask(byte[] grid, int gridWidth, MapGenerator.TileLookup lookup,
+                                         int x0, int y0, int w, int h) {
+        return () -> {
+            WfcStats stats = new WfcStats();
+            byte[] part = MapGenerator.solveRegion(seed, x0, y0, w, h, lookup, stats);
+            for (int y = 0; y < h; y++) {
+                System.arraycopy(part, y * w, grid, (y0 + y) * gridWidth + x0, w);
+            }
+            return stats;
+        };
+    }
+
+    private void runAll(List<Callable<WfcStats>> tasks, WfcStats total) {
+        // invokeAll espera todos terminarem, então a próxima etapa enxerga as escritas desta
+        List<Future<WfcStats>> results = pool.invokeAll(tasks);
+        try {
+            for (Future<WfcStats> result : results) {
+                total.add(result.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Geração paralela interrompida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha ao gerar um bloco do mapa", e.getCause());
+        }
+    }
+}
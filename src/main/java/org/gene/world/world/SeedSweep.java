@@ -0,0 +1,145 @@
+package org.gene.world.world;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import org.gene.world.chunks.enums.TileType;
+import org.gene.world.chunks.factory.ChunkFactory;
+import org.gene.world.chunks.model.ChunkModel;
+import org.gene.world.world.wfc.TileRules;
+import org.gene.world.world.wfc.WfcStats;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Gera muitas seeds em paralelo, sem janela nem OpenGL, para escolher mundos.
+ * <p>
+ * Cada seed roda inteira numa thread (um MapGenerator próprio): o trabalho é só CPU, então
+ * um pool fixo do tamanho do número de núcleos rende mais que paralelizar cada mapa.
+ * Os resultados chegam na thread que chamou {@link #run}, na ordem em que ficam prontos.
+ */
+public final class SeedSweep {
+    private final int width;
+    private final int height;
+    private final MapGenerator.Solver solver;
+
+    /** Resultado de uma seed; {@code tiles} são os ordinais dos TileType ({@code y * width + x}). */
+    public record Result(long seed, int width, int height, byte[] tiles, int[] histogram,
+                         long nanos, WfcStats stats) {
+        /** Células de cada TileType, na ordem dos ordinais. */
+        public int count(TileType type) {
+            return histogram[type.ordinal()];
+        }
+    }
+
+    public SeedSweep(int width, int height, MapGenerator.Solver solver) {
+        if (solver == MapGenerator.Solver.LEGACY) {
+            throw new IllegalArgumentException("A varredura usa os solvers de bitmask");
+        }
+        this.width = width;
+        this.height = height;
+        this.solver = solver;
+    }
+
+    /** Gera uma seed na thread atual. */
+    public Result generate(long seed) {
+        long start = System.nanoTime();
+        MapGenerator generator = new MapGenerator(seed, solver);
+        byte[] tiles = generator.generateTiles(width, height);
+        long nanos = System.nanoTime() - start;
+
+        int[] histogram = new int[TileRules.TILES.length];
+        for (byte tile : tiles) {
+            if (tile >= 0) histogram[tile]++; // UNCOLLAPSED (-1) fica fora
+        }
+        return new Result(seed, width, height, tiles, histogram, nanos, generator.getLastStats());
+    }
+
+    /**
+     * Gera as seeds {@code firstSeed .. firstSeed + count - 1} em {@code threads} threads.
+     * {@code sink} é chamado na thread atual, uma vez por seed, assim que cada uma termina;
+     * só é preciso guardar o que o sink guardar.
+     */
+    public void run(long firstSeed, int count, int threads, Consumer<Result> sink) {
+        run(firstSeed, count, threads, null, sink);
+    }
+
+    /**
+     * Como {@link #run(long, int, int, Consumer)}, chamando antes {@code onWorker} (se não for
+     * null) na própria thread que gerou a seed: lugar para o trabalho pesado por seed, como
+     * gravar o mapa ou a imagem, sem serializar tudo na thread que recebe os resultados.
+     */
+    public void run(long firstSeed, int count, int threads, Consumer<Result> onWorker, Consumer<Result> sink) {
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "seed-sweep");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            ExecutorCompletionService<Result> done = new ExecutorCompletionService<>(pool);
+            // Janela limitada de tarefas em voo: a memória não cresce com o número de seeds
+            int window = threads * 4;
+            int submitted = 0;
+            for (; submitted < Math.min(count, window); submitted++) {
+                done.submit(task(firstSeed + submitted, onWorker));
+            }
+            for (int received = 0; received < count; received++) {
+                Future<Result> next = done.take();
+                if (submitted < count) {
+                    done.submit(task(firstSeed + submitted++, onWorker));
+                }
+                sink.accept(next.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Varredura de seeds interrompida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha ao gerar uma seed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private Callable<Result> task(long seed, Consumer<Result> onWorker) {
+        return () -> {
+            Result result = generate(seed);
+            if (onWorker != null) onWorker.accept(result);
+            return result;
+        };
+    }
+
+    /**
+     * Desenha o mapa com os ChunkModels, {@code cellPixels} x {@code cellPixels} por célula
+     * (cada chunk é gerado em {@code chunkSize} e reduzido). O y do mundo cresce para cima,
+     * então a linha 0 da imagem é a última linha do mapa. Precisa dos nativos do gdx e de
+     * {@code Gdx.files} para as imagens dos tiles.
+     */
+    public static Pixmap render(Result result, int chunkSize, int cellPixels) {
+        MapGenerator generator = new MapGenerator(result.seed(), MapGenerator.Solver.CONSTRAINED);
+        Pixmap image = new Pixmap(result.width() * cellPixels, result.height() * cellPixels, Pixmap.Format.RGBA8888);
+        image.setBlending(Pixmap.Blending.None);
+        image.setFilter(Pixmap.Filter.BiLinear);
+        Pixmap chunk = new Pixmap(chunkSize, chunkSize, Pixmap.Format.RGBA8888);
+        chunk.setBlending(Pixmap.Blending.None);
+        try {
+            for (int y = 0; y < result.height(); y++) {
+                for (int x = 0; x < result.width(); x++) {
+                    int tile = result.tiles()[y * result.width() + x];
+                    if (tile < 0) continue;
+                    MapGenerator.GeneratedTile info = generator.toGeneratedTile(TileRules.TILES[tile]);
+                    ChunkModel model = ChunkFactory.modelFor(info.type(), info.primary(), info.secondary());
+                    model.fill(chunk, x * chunkSize, y * chunkSize, result.seed());
+                    image.drawPixmap(chunk, 0, 0, chunkSize, chunkSize,
+                            x * cellPixels, (result.height() - 1 - y) * cellPixels, cellPixels, cellPixels);
+                }
+            }
+        } finally {
+            chunk.dispose();
+        }
+        return image;
+    }
+}
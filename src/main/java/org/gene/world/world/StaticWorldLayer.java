@@ -0,0 +1,144 @@
+package org.gene.world.world;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+import com.badlogic.gdx.math.Matrix4;
+import org.gene.world.chunks.model.Chunk;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Camada estática do terreno: a geometria dos chunks é gravada uma vez num {@link SpriteCache}
+ * (na GPU) cobrindo a área visível mais uma margem, e cada frame só reexecuta o cache.
+ * <p>
+ * O cache é refeito apenas quando:
+ * <ul>
+ *   <li>a vista sai da área gravada;</li>
+ *   <li>o nível de LOD muda;</li>
+ *   <li>o que foi gravado muda ({@link StreamingWorld#getVersion}): regiões carregadas ou
+ *       descartadas dentro da área gravada, ou chunks gravados que ficaram prontos ou foram
+ *       regerados. Pré-carga e descarte fora da área não contam.</li>
+ * </ul>
+ * Os chunks gravados ficam presos ({@link Chunk#pin}) enquanto estão no cache, para que o
+ * orçamento de textura não solte um slot que a geometria gravada ainda usa.
+ */
+public class StaticWorldLayer {
+    /** Máximo de sprites de um SpriteCache com índices. */
+    public static final int MAX_SPRITES = 8191;
+
+    private final StreamingWorld world;
+    private final SpriteCache cache;
+    private final float marginFactor;
+
+    private final List<Chunk> cached = new ArrayList<>();
+    private final List<Chunk> collected = new ArrayList<>();
+    private int cacheId = -1;
+    private float cachedX0, cachedY0, cachedX1, cachedY1;
+    private int cachedLevel = -1;
+    private long cachedVersion = -1;
+    private int rebuilds;
+
+    /** Margem padrão: meia vista para cada lado. */
+    public StaticWorldLayer(StreamingWorld world) {
+        this(world, 0.5f);
+    }
+
+    /**
+     * @param marginFactor margem gravada além da vista, em frações do tamanho da vista por lado;
+     *                     maior = menos reconstruções ao andar, reconstruções mais caras
+     */
+    public StaticWorldLayer(StreamingWorld world, float marginFactor) {
+        this.world = world;
+        this.marginFactor = marginFactor;
+        this.cache = new SpriteCache(MAX_SPRITES, true);
+    }
+
+    /**
+     * Desenha o terreno visível com a projeção dada. Só na thread do GL, fora de um SpriteBatch.
+     *
+     * @return false se a vista tem mais chunks do que cabem no cache; nesse caso nada foi
+     *         desenhado e o chamador deve usar {@link StreamingWorld#render}
+     */
+    public boolean render(Matrix4 projection, float viewX, float viewY, float viewW, float viewH, float zoom) {
+        int level = world.lodLevel(zoom);
+        boolean inside = viewX >= cachedX0 && viewY >= cachedY0
+                && viewX + viewW <= cachedX1 && viewY + viewH <= cachedY1;
+        if (cacheId < 0 || !inside || level != cachedLevel || world.getVersion() != cachedVersion) {
+            if (!rebuild(viewX, viewY, viewW, viewH, zoom, level)) return false;
+        }
+
+        Gdx.gl.glDisable(GL20.GL_BLEND); // como o batch.disableBlending() do render direto
+        cache.setProjectionMatrix(projection);
+        cache.begin();
+        cache.draw(cacheId);
+        cache.end();
+        return true;
+    }
+
+    /** Quantas vezes a geometria foi regravada. */
+    public int getRebuilds() {
+        return rebuilds;
+    }
+
+    /** Chunks na geometria gravada. */
+    public int getCachedCount() {
+        return cached.size();
+    }
+
+    /** Descarta o cache; os chunks voltam a ser tratados só pelo render. */
+    public void invalidate() {
+        for (int i = 0; i < cached.size(); i++) cached.get(i).unpin();
+        cached.clear();
+        cacheId = -1;
+        world.clearVersionArea();
+    }
+
+    public void dispose() {
+        invalidate();
+        cache.dispose();
+    }
+
+    // ------------------- interno -------------------
+
+    private boolean rebuild(float viewX, float viewY, float viewW, float viewH, float zoom, int level) {
+        float mx = viewW * marginFactor;
+        float my = viewH * marginFactor;
+        world.collectVisible(viewX - mx, viewY - my, viewW + 2 * mx, viewH + 2 * my, zoom, collected);
+        if (collected.size() > MAX_SPRITES) {
+            // Não cabe com margem: tenta só a vista
+            mx = 0;
+            my = 0;
+            world.collectVisible(viewX, viewY, viewW, viewH, zoom, collected);
+            if (collected.size() > MAX_SPRITES) {
+                collected.clear();
+                invalidate();
+                return false;
+            }
+        }
+
+        // O descarte por orçamento só roda no upload, então soltar todos e prender os novos é seguro
+        for (int i = 0; i < cached.size(); i++) cached.get(i).unpin();
+        for (int i = 0; i < collected.size(); i++) collected.get(i).pin();
+        cached.clear();
+        cached.addAll(collected);
+        collected.clear();
+
+        cache.clear();
+        cache.beginCache();
+        for (int i = 0; i < cached.size(); i++) cached.get(i).addTo(cache);
+        cacheId = cache.endCache();
+
+        cachedX0 = viewX - mx;
+        cachedY0 = viewY - my;
+        cachedX1 = viewX + viewW + mx;
+        cachedY1 = viewY + viewH + my;
+        cachedLevel = level;
+        world.setVersionArea(cachedX0, cachedY0, cachedX1, cachedY1);
+        // pin pode ter agendado regerações; a versão só muda quando elas ficarem prontas
+        cachedVersion = world.getVersion();
+        rebuilds++;
+        return true;
+    }
+}
@@ -0,0 +1,123 @@
+package org.gene.world.world;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.math.Matrix4;
+import org.gene.world.chunks.model.ChunkPipeline;
+import org.gene.world.diagnostics.Histogram;
+import org.gene.world.diagnostics.Metrics;
+import org.gene.world.sim.Simulation;
+
+/**
+ * Texto no canto da tela com os contadores de {@link Metrics} e o estado do streaming.
+ * Ao aparecer liga as métricas; ao sumir volta ao que estava. O texto é refeito só algumas
+ * vezes por segundo, então o overlay em si quase não pesa no frame.
+ */
+public class StatsOverlay {
+    private static final float REFRESH_SECONDS = 0.25f;
+
+    private final StreamingWorld world;
+    private final StaticWorldLayer staticLayer;
+    private final SpriteBatch batch = new SpriteBatch();
+    private final BitmapFont font = new BitmapFont();
+    private final Matrix4 screen = new Matrix4();
+    private final StringBuilder text = new StringBuilder();
+    private Simulation simulation;
+
+    private boolean visible;
+    private boolean metricsBefore;
+    private float sinceRefresh = REFRESH_SECONDS;
+
+    public StatsOverlay(StreamingWorld world, StaticWorldLayer staticLayer) {
+        this.world = world;
+        this.staticLayer = staticLayer;
+        font.setColor(Color.WHITE);
+    }
+
+    /** Simulação cujas contagens aparecem no overlay (null para nenhuma). */
+    public void setSimulation(Simulation simulation) {
+        this.simulation = simulation;
+    }
+
+    public boolean isVisible() {
+        return visible;
+    }
+
+    public void toggle() {
+        visible = !visible;
+        if (visible) {
+            metricsBefore = Metrics.isEnabled();
+            Metrics.setEnabled(true);
+            sinceRefresh = REFRESH_SECONDS;
+        } else {
+            Metrics.setEnabled(metricsBefore);
+        }
+    }
+
+    /**
+     * Desenha por cima do que já está na tela.
+     *
+     * @param drawCalls    chamadas de desenho do frame (0 se não foram contadas)
+     * @param textureBinds trocas de textura do frame (0 se não foram contadas)
+     */
+    public void render(int screenWidth, int screenHeight, float delta, int drawCalls, int textureBinds) {
+        if (!visible) return;
+        sinceRefresh += delta;
+        if (sinceRefresh >= REFRESH_SECONDS) {
+            sinceRefresh = 0;
+            refresh(delta, drawCalls, textureBinds);
+        }
+
+        screen.setToOrtho2D(0, 0, screenWidth, screenHeight);
+        batch.setProjectionMatrix(screen);
+        batch.begin();
+        font.draw(batch, text, 8, screenHeight - 8);
+        batch.end();
+    }
+
+    public void dispose() {
+        if (visible) toggle();
+        batch.dispose();
+        font.dispose();
+    }
+
+    // ------------------- interno -------------------
+
+    private void refresh(float delta, int drawCalls, int textureBinds) {
+        ChunkPipeline pipeline = world.getPipeline();
+        text.setLength(0);
+        text.append("FPS ").append(delta > 0 ? Math.round(1f / delta) : 0)
+                .append("  frame ").append(timing(Metrics.FRAME_TIME)).append('\n');
+        text.append("draw calls ").append(drawCalls)
+                .append("  texture binds ").append(textureBinds).append('\n');
+        text.append("WFC runs ").append(Metrics.WFC_RUNS.get())
+                .append("  cells ").append(Metrics.WFC_CELLS.get())
+                .append("  propagations ").append(Metrics.WFC_PROPAGATIONS.get())
+                .append("  contradictions ").append(Metrics.WFC_CONTRADICTIONS.get())
+                .append("  run ").append(timing(Metrics.WFC_RUN_TIME)).append('\n');
+        text.append("chunk fills ").append(Metrics.CHUNK_FILL_TIME.getCount())
+                .append("  ").append(timing(Metrics.CHUNK_FILL_TIME)).append('\n');
+        text.append("uploads ").append(Metrics.TEXTURE_UPLOADS.get())
+                .append("  ").append(Metrics.TEXTURE_UPLOAD_BYTES.get() >> 20).append(" MB").append('\n');
+        text.append("regions ").append(world.getLoadedRegionCount())
+                .append("  pending ").append(pipeline.getPendingCount())
+                .append("  resident ").append(pipeline.getResidentBytes() >> 20).append(" MB")
+                .append("  evictions ").append(pipeline.getEvictions())
+                .append("  regenerations ").append(pipeline.getRegenerations())
+                .append("  failures ").append(pipeline.getFailures()).append('\n');
+        text.append("static layer ").append(staticLayer.getCachedCount()).append(" chunks")
+                .append("  rebuilds ").append(staticLayer.getRebuilds());
+        if (simulation != null) {
+            text.append('\n').append("creatures ").append(simulation.getPopulation())
+                    .append("  births ").append(simulation.getBirths())
+                    .append("  deaths ").append(simulation.getDeaths())
+                    .append("  tick ").append(timing(Metrics.SIM_TICK_TIME));
+        }
+    }
+
+    // "média / p99" em ms
+    private static String timing(Histogram h) {
+        return String.format("%.2f / %.2f ms", h.getMean() / 1e6, h.getPercentile(0.99) / 1e6);
+    }
+}
@@ -0,0 +1,492 @@
+package org.gene.world.world;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.LongMap;
+import org.gene.world.chunks.atlas.ChunkAtlas;
+import org.gene.world.chunks.cache.RegionFileCache;
+import org.gene.world.chunks.enums.TileType;
+import org.gene.world.chunks.factory.ChunkFactory;
+import org.gene.world.chunks.model.Chunk;
+import org.gene.world.chunks.model.ChunkModel;
+import org.gene.world.chunks.model.ChunkPipeline;
+import org.gene.world.chunks.model.DownsampledChunkModel;
+import org.gene.world.chunks.model.TileImageChunkModel;
+import org.gene.world.chunks.model.TransitionTiles;
+import org.gene.world.world.query.TerrainIndex;
+import org.gene.world.world.wfc.BitmaskWfcSolver;
+import org.gene.world.world.wfc.Seeds;
+import org.gene.world.world.wfc.TileRules;
+import org.gene.world.world.wfc.WfcStats;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mundo infinito gerado sob demanda, por regiões de {@code regionSize}x{@code regionSize} chunks.
+ * <ul>
+ *   <li>Cada região é um WFC independente; as bordas das regiões vizinhas já geradas entram
+ *       fixas, então as costuras respeitam as adjacências do TileType.</li>
+ *   <li>Regiões que encostam na área visível (mais a margem de pré-carga) têm os tiles gerados,
+ *       no máximo uma por {@link #update}, da mais próxima para a mais distante. Os chunks de
+ *       uma região só são criados (e o conteúdo agendado) na primeira vez que são desenhados.</li>
+ *   <li>Regiões além da margem de descarte liberam seus chunks (texturas). Os tiles delas
+ *       ficam num cache LRU limitado, para que a costura continue igual se a câmera voltar.
+ *       Quando até os tiles saem do cache, a região é regerada da seed com os vizinhos que
+ *       existirem no momento.</li>
+ *   <li>O conteúdo dos chunks é gerado em threads de fundo pelo {@link ChunkPipeline} e enviado
+ *       para a GPU aos poucos, dentro do orçamento de cada frame; até lá o chunk mostra o placeholder.</li>
+ *   <li>Com zoom, o render usa super-chunks de LOD: 2^L x 2^L chunks reduzidos para uma única
+ *       textura do tamanho de um chunk, com L escolhido pelo zoom. O número de desenhos e de
+ *       slots por tela fica praticamente constante. Formam uma mip chain (o nível L sai dos
+ *       pixels do nível L - 1), são gerados sob demanda e vivem com a região.</li>
+ * </ul>
+ * Cada região carregada tem um {@link TerrainIndex} dos seus tiles ({@link #terrainAt},
+ * {@link #biomeAt}), que sai junto com ela.
+ * A memória fica limitada pela área visível e pelo tamanho do cache, não pela distância percorrida.
+ */
+public class StreamingWorld {
+    public static final int DEFAULT_REGION_SIZE = 16;
+    private static final int DEFAULT_TILE_CACHE_REGIONS = 1024;
+    // Mude quando a geração dos tiles (WFC, regras, costuras) mudar: invalida o cache em disco
+    private static final int TILES_VERSION = 1;
+    // Tentativas com seeds derivadas quando as costuras de uma região não convergem
+    private static final int REGION_RETRIES = 3;
+
+    private final int chunkSize;
+    private final int regionSize;
+    private final long seed;
+    private final MapGenerator generator;
+    private final ChunkAtlas atlas;
+    private final ChunkPipeline pipeline;
+    private RegionFileCache diskCache;
+
+    private final int maxLodLevel;
+
+    private final Map<Long, Region> loaded = new HashMap<>();
+    private final LongMap<Chunk> chunkIndex = new LongMap<>(); // chunks já criados por (cx, cy)
+    private final List<Chunk> visible = new ArrayList<>();     // reaproveitada a cada render
+    private long structureVersion;
+    // Área em que carregar/descartar regiões muda o getVersion (pixels de mundo); padrão: tudo
+    private float versionX0 = Float.NEGATIVE_INFINITY, versionY0 = Float.NEGATIVE_INFINITY;
+    private float versionX1 = Float.POSITIVE_INFINITY, versionY1 = Float.POSITIVE_INFINITY;
+    private final Map<Long, byte[]> evictedTiles;
+
+    private float preloadMargin;
+    private float evictMargin;
+
+    private static final class Region {
+        final int rx, ry;
+        final byte[] tiles;
+        final TerrainIndex terrain; // consultas de terreno sobre os mesmos tiles
+        final List<Chunk> chunks = new ArrayList<>(); // só os já desenhados alguma vez
+        final IntMap<Chunk> lods = new IntMap<>(); // super-chunks por (nível, x, y) locais
+        final IntMap<DownsampledChunkModel> lodModels = new IntMap<>(); // mip chain, mesma chave
+
+        Region(int rx, int ry, byte[] tiles, TerrainIndex terrain) {
+            this.rx = rx;
+            this.ry = ry;
+            this.tiles = tiles;
+            this.terrain = terrain;
+        }
+    }
+
+    public StreamingWorld(int chunkSize, long seed) {
+        this(chunkSize, DEFAULT_REGION_SIZE, seed, DEFAULT_TILE_CACHE_REGIONS);
+    }
+
+    public StreamingWorld(int chunkSize, int regionSize, long seed, int tileCacheRegions) {
+        this.chunkSize = chunkSize;
+        this.regionSize = regionSize;
+        this.seed = seed;
+        this.generator = new MapGenerator(seed, MapGenerator.Solver.CONSTRAINED);
+        this.atlas = new ChunkAtlas(chunkSize);
+        this.pipeline = new ChunkPipeline(atlas);
+        // super-chunks não passam de uma região (fator máximo = maior potência de 2 que divide regionSize)
+        this.maxLodLevel = Integer.numberOfTrailingZeros(regionSize);
+        this.evictedTiles = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, byte[]> eldest) {
+                return size() > tileCacheRegions;
+            }
+        };
+        // Por padrão pré-carrega meia região e só descarta a uma região de distância
+        float regionPixels = regionSize * chunkSize;
+        this.preloadMargin = regionPixels / 2f;
+        this.evictMargin = regionPixels;
+    }
+
+    /**
+     * Guarda os tiles das regiões e os pixels dos chunks em arquivos de região sob {@code root}
+     * (um subdiretório por seed e versão). Numa próxima execução com a mesma seed, regiões e
+     * chunks já gravados são lidos do disco em vez de gerados. Chamar antes do primeiro update.
+     */
+    public void enableDiskCache(Path root) {
+        long worldVersion = ((long) TILES_VERSION << 32) | (regionSize << 16) | chunkSize;
+        diskCache = new RegionFileCache(root, seed, worldVersion, regionSize, chunkSize);
+        pipeline.setDiskCache(diskCache);
+    }
+
+    /** Distância (em pixels de mundo) além da área visível em que regiões já são geradas. */
+    public void setPreloadMargin(float pixels) { this.preloadMargin = pixels; }
+
+    /** Distância (em pixels de mundo) além da área visível a partir da qual regiões são descartadas. */
+    public void setEvictMargin(float pixels) { this.evictMargin = pixels; }
+
+    /**
+     * Gera a região que falta mais próxima da área visível, descarta as distantes e envia para
+     * a GPU os chunks que ficaram prontos (dentro do orçamento do frame).
+     * Deve ser chamado uma vez por frame com o retângulo visível em pixels de mundo.
+     */
+    public void update(float viewX, float viewY, float viewW, float viewH) {
+        pipeline.upload();
+        evictOutside(viewX - evictMargin, viewY - evictMargin,
+                viewX + viewW + evictMargin, viewY + viewH + evictMargin);
+
+        float regionPixels = regionSize * chunkSize;
+        int rx0 = (int) Math.floor((viewX - preloadMargin) / regionPixels);
+        int ry0 = (int) Math.floor((viewY - preloadMargin) / regionPixels);
+        int rx1 = (int) Math.floor((viewX + viewW + preloadMargin - 1) / regionPixels);
+        int ry1 = (int) Math.floor((viewY + viewH + preloadMargin - 1) / regionPixels);
+
+        // Mais próxima do centro da vista primeiro
+        float cx = (viewX + viewW / 2f) / regionPixels - 0.5f;
+        float cy = (viewY + viewH / 2f) / regionPixels - 0.5f;
+        int bestX = 0, bestY = 0;
+        float bestDist = Float.MAX_VALUE;
+        for (int ry = ry0; ry <= ry1; ry++) {
+            for (int rx = rx0; rx <= rx1; rx++) {
+                if (loaded.containsKey(key(rx, ry))) continue;
+                float dist = (rx - cx) * (rx - cx) + (ry - cy) * (ry - cy);
+                if (dist < bestDist) {
+                    bestDist = dist;
+                    bestX = rx;
+                    bestY = ry;
+                }
+            }
+        }
+        if (bestDist != Float.MAX_VALUE) load(bestX, bestY);
+    }
+
+    /**
+     * Desenha só os chunks que cruzam o retângulo visível (pixels de mundo), consultando o
+     * índice por coordenada: o custo depende da área visível, não de quantos chunks existem.
+     */
+    public void render(SpriteBatch batch, float viewX, float viewY, float viewW, float viewH) {
+        render(batch, viewX, viewY, viewW, viewH, 1f);
+    }
+
+    /**
+     * Como {@link #render(SpriteBatch, float, float, float, float)}, escolhendo o nível de
+     * detalhe pelo zoom da câmera (pixels de mundo por pixel de tela): nível L = floor(log2(zoom)).
+     */
+    public void render(SpriteBatch batch, float viewX, float viewY, float viewW, float viewH, float zoom) {
+        collectVisible(viewX, viewY, viewW, viewH, zoom, visible);
+        for (int i = 0; i < visible.size(); i++) visible.get(i).render(batch);
+        visible.clear();
+    }
+
+    /**
+     * Coloca em {@code out} (depois de limpá-la) os chunks que {@link #render} desenharia para
+     * esse retângulo e zoom, na mesma ordem. Chunks e super-chunks de LOD das regiões carregadas
+     * que ainda não existiam são criados aqui.
+     */
+    public void collectVisible(float viewX, float viewY, float viewW, float viewH, float zoom, List<Chunk> out) {
+        out.clear();
+        int level = lodLevel(zoom);
+        if (level == 0) {
+            int cx0 = (int) Math.floor(viewX / chunkSize);
+            int cy0 = (int) Math.floor(viewY / chunkSize);
+            int cx1 = (int) Math.floor((viewX + viewW) / chunkSize);
+            int cy1 = (int) Math.floor((viewY + viewH) / chunkSize);
+            for (int cy = cy0; cy <= cy1; cy++) {
+                for (int cx = cx0; cx <= cx1; cx++) {
+                    Chunk c = chunk(cx, cy);
+                    if (c != null) out.add(c);
+                }
+            }
+            return;
+        }
+
+        int span = chunkSize << level; // pixels de mundo cobertos por um super-chunk
+        int sx0 = (int) Math.floor(viewX / span);
+        int sy0 = (int) Math.floor(viewY / span);
+        int sx1 = (int) Math.floor((viewX + viewW) / span);
+        int sy1 = (int) Math.floor((viewY + viewH) / span);
+        for (int sy = sy0; sy <= sy1; sy++) {
+            for (int sx = sx0; sx <= sx1; sx++) {
+                Chunk c = superChunk(level, sx, sy);
+                if (c != null) out.add(c);
+            }
+        }
+    }
+
+    /**
+     * Muda sempre que o que {@link #collectVisible} devolve dentro da área de versão
+     * ({@link #setVersionArea}), ou a textura de algum chunk fixado, pode ter mudado: regiões
+     * carregadas/descartadas que tocam a área e chunks fixados que ganharam o slot.
+     */
+    public long getVersion() {
+        return structureVersion + pipeline.getChangeCount();
+    }
+
+    /**
+     * Restringe o {@link #getVersion} às regiões que tocam o retângulo (pixels de mundo): quem
+     * guarda a geometria de uma área passa a área gravada, e a pré-carga e o descarte fora dela
+     * não forçam a regravação.
+     */
+    public void setVersionArea(float x0, float y0, float x1, float y1) {
+        versionX0 = x0;
+        versionY0 = y0;
+        versionX1 = x1;
+        versionY1 = y1;
+    }
+
+    /** Volta a contar as regiões de qualquer lugar no {@link #getVersion}. */
+    public void clearVersionArea() {
+        setVersionArea(Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY,
+                Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY);
+    }
+
+    /** Nível de LOD usado para um zoom (0 = chunks normais). */
+    public int lodLevel(float zoom) {
+        if (zoom < 2f) return 0;
+        int level = 31 - Integer.numberOfLeadingZeros((int) zoom);
+        return Math.min(level, maxLodLevel);
+    }
+
+    public int getLoadedRegionCount() {
+        return loaded.size();
+    }
+
+    /** Pipeline que gera os chunks (orçamento de envio por frame, pendências). */
+    public ChunkPipeline getPipeline() {
+        return pipeline;
+    }
+
+    /** Atlas dos chunks carregados (slots compartilhados e contadores de acerto/erro). */
+    public ChunkAtlas getAtlas() {
+        return atlas;
+    }
+
+    /**
+     * Ordinal do TileType na célula global (x, y), ou {@link BitmaskWfcSolver#UNCOLLAPSED}
+     * se a região dela não estiver carregada nem no cache de tiles.
+     */
+    public int tileAt(int x, int y) {
+        int rx = Math.floorDiv(x, regionSize);
+        int ry = Math.floorDiv(y, regionSize);
+        long key = key(rx, ry);
+        Region region = loaded.get(key);
+        byte[] tiles = region != null ? region.tiles : evictedTiles.get(key);
+        if (tiles == null) return BitmaskWfcSolver.UNCOLLAPSED;
+        return tiles[(y - ry * regionSize) * regionSize + (x - rx * regionSize)];
+    }
+
+    /** Terreno da região carregada sob o ponto de mundo (pixels), ou null se ela não está carregada. */
+    public TerrainIndex terrainAt(float worldX, float worldY) {
+        float regionPixels = regionSize * chunkSize;
+        Region region = loaded.get(key((int) Math.floor(worldX / regionPixels), (int) Math.floor(worldY / regionPixels)));
+        return region != null ? region.terrain : null;
+    }
+
+    /** Ordinal do Biome sob o ponto de mundo, ou {@link TerrainIndex#VOID} fora das regiões carregadas. */
+    public int biomeAt(float worldX, float worldY) {
+        TerrainIndex terrain = terrainAt(worldX, worldY);
+        return terrain != null ? terrain.biomeAt(worldX, worldY) : TerrainIndex.VOID;
+    }
+
+    /**
+     * Cópia dos tiles das células [x0, x0 + width) x [y0, y0 + height) como TileMap; células
+     * de regiões que não estão carregadas nem no cache de tiles ficam vazias.
+     */
+    public TileMap snapshot(int x0, int y0, int width, int height) {
+        byte[] ordinals = new byte[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                ordinals[y * width + x] = (byte) tileAt(x0 + x, y0 + y);
+            }
+        }
+        MapGenerator.GeneratedTile full = generator.toGeneratedTile(TileType.FULL);
+        return TileMap.fromOrdinals(width, height, ordinals, full.primary(), full.secondary());
+    }
+
+    public void dispose() {
+        for (Region region : loaded.values()) {
+            for (Chunk c : region.chunks) c.dispose();
+            for (Chunk c : region.lods.values()) c.dispose();
+        }
+        loaded.clear();
+        chunkIndex.clear();
+        evictedTiles.clear();
+        pipeline.dispose();
+        if (diskCache != null) diskCache.close();
+        atlas.dispose();
+        // Limpa o cache de imagens estático
+        TileImageChunkModel.disposeCache();
+        DownsampledChunkModel.disposeScratch();
+        TransitionTiles.clear();
+    }
+
+    // ------------------- interno -------------------
+
+    private void load(int rx, int ry) {
+        long key = key(rx, ry);
+        byte[] tiles = evictedTiles.remove(key);
+        if (tiles == null && diskCache != null) tiles = diskCache.readTiles(rx, ry);
+        if (tiles == null) {
+            tiles = generateTiles(rx, ry);
+            if (diskCache != null) diskCache.writeTiles(rx, ry, tiles);
+        }
+
+        MapGenerator.GeneratedTile full = generator.toGeneratedTile(TileType.FULL);
+        TileMap map = TileMap.fromOrdinals(regionSize, regionSize, tiles, full.primary(), full.secondary());
+        float regionPixels = regionSize * chunkSize;
+        TerrainIndex terrain = new TerrainIndex(map, chunkSize, rx * regionPixels, ry * regionPixels);
+        loaded.put(key, new Region(rx, ry, tiles, terrain));
+        if (inVersionArea(rx, ry)) structureVersion++;
+    }
+
+    /**
+     * WFC da região com as bordas dos vizinhos fixadas. Se as costuras fixadas entram em
+     * conflito e o solver desiste, tenta de novo com seeds derivadas e, por fim, sem os
+     * vizinhos: uma costura imperfeita é melhor que derrubar o frame.
+     */
+    private byte[] generateTiles(int rx, int ry) {
+        int x0 = rx * regionSize, y0 = ry * regionSize;
+        try {
+            return generator.generateRegion(x0, y0, regionSize, this::tileAt);
+        } catch (IllegalStateException e) {
+            // WFC não convergiu com estas costuras
+        }
+        for (int attempt = 1; attempt <= REGION_RETRIES; attempt++) {
+            try {
+                return MapGenerator.solveRegion(Seeds.mix(seed, attempt, 0), x0, y0, regionSize, regionSize,
+                        this::tileAt, new WfcStats());
+            } catch (IllegalStateException e) {
+                // próxima seed
+            }
+        }
+        try {
+            return MapGenerator.solveRegion(seed, x0, y0, regionSize, regionSize,
+                    (x, y) -> BitmaskWfcSolver.UNCOLLAPSED, new WfcStats());
+        } catch (IllegalStateException e) {
+            byte[] tiles = new byte[regionSize * regionSize];
+            Arrays.fill(tiles, (byte) TileType.FULL.ordinal());
+            return tiles;
+        }
+    }
+
+    // Chunk (cx, cy), criado na primeira vez que é desenhado; null se a região não está carregada
+    private Chunk chunk(int cx, int cy) {
+        long key = key(cx, cy);
+        Chunk chunk = chunkIndex.get(key);
+        if (chunk != null) return chunk;
+        int rx = Math.floorDiv(cx, regionSize);
+        int ry = Math.floorDiv(cy, regionSize);
+        Region region = loaded.get(key(rx, ry));
+        if (region == null) return null;
+
+        int worldX0 = cx * chunkSize;
+        int worldY0 = cy * chunkSize;
+        ChunkModel model = modelAt(region.tiles, cx - rx * regionSize, cy - ry * regionSize);
+        chunk = pipeline.submit(chunkSize, worldX0, worldY0, worldX0, worldY0, seed, model);
+        region.chunks.add(chunk);
+        chunkIndex.put(key, chunk);
+        return chunk;
+    }
+
+    private ChunkModel modelAt(byte[] tiles, int x, int y) {
+        TileType type = TileRules.TILES[tiles[y * regionSize + x]];
+        MapGenerator.GeneratedTile tileInfo = generator.toGeneratedTile(type);
+        return ChunkFactory.modelFor(tileInfo.type(), tileInfo.primary(), tileInfo.secondary());
+    }
+
+    // Super-chunk (level, sx, sy), criado na primeira vez que é desenhado; null se a região não está carregada
+    private Chunk superChunk(int level, int sx, int sy) {
+        int factor = 1 << level;
+        int cx0 = sx * factor;
+        int cy0 = sy * factor;
+        int rx = Math.floorDiv(cx0, regionSize);
+        int ry = Math.floorDiv(cy0, regionSize);
+        Region region = loaded.get(key(rx, ry));
+        if (region == null) return null;
+
+        int lx0 = cx0 - rx * regionSize;
+        int ly0 = cy0 - ry * regionSize;
+        int lodKey = lodKey(level, lx0, ly0);
+        Chunk chunk = region.lods.get(lodKey);
+        if (chunk == null) {
+            int worldX0 = cx0 * chunkSize;
+            int worldY0 = cy0 * chunkSize;
+            chunk = pipeline.submit(chunkSize, chunkSize * factor, worldX0, worldY0, worldX0, worldY0, seed,
+                    lodModel(region, level, lx0, ly0));
+            region.lods.put(lodKey, chunk);
+        }
+        return chunk;
+    }
+
+    // Modelo do super-chunk (level, lx0, ly0) da região, com os quadrantes do nível de baixo; guardado
+    // na região para que os pixels de um nível fiquem à mão quando o de cima for gerado
+    private DownsampledChunkModel lodModel(Region region, int level, int lx0, int ly0) {
+        int lodKey = lodKey(level, lx0, ly0);
+        DownsampledChunkModel model = region.lodModels.get(lodKey);
+        if (model != null) return model;
+        int half = 1 << (level - 1);
+        ChunkModel[] quadrants = new ChunkModel[4];
+        for (int q = 0; q < 4; q++) {
+            int x = lx0 + (q & 1) * half, y = ly0 + (q >> 1) * half;
+            quadrants[q] = level == 1 ? modelAt(region.tiles, x, y) : lodModel(region, level - 1, x, y);
+        }
+        model = new DownsampledChunkModel(chunkSize, quadrants);
+        region.lodModels.put(lodKey, model);
+        return model;
+    }
+
+    private int lodKey(int level, int lx0, int ly0) {
+        return (level * regionSize + ly0) * regionSize + lx0;
+    }
+
+    private void evictOutside(float x0, float y0, float x1, float y1) {
+        float regionPixels = regionSize * chunkSize;
+        Iterator<Region> it = loaded.values().iterator();
+        while (it.hasNext()) {
+            Region region = it.next();
+            float left = region.rx * regionPixels;
+            float bottom = region.ry * regionPixels;
+            boolean outside = left + regionPixels < x0 || left > x1
+                    || bottom + regionPixels < y0 || bottom > y1;
+            if (!outside) continue;
+
+            for (Chunk c : region.chunks) c.dispose();
+            for (Chunk c : region.lods.values()) c.dispose();
+            for (int y = 0; y < regionSize; y++) {
+                for (int x = 0; x < regionSize; x++) {
+                    chunkIndex.remove(key(region.rx * regionSize + x, region.ry * regionSize + y));
+                }
+            }
+            evictedTiles.put(key(region.rx, region.ry), region.tiles);
+            it.remove();
+            if (inVersionArea(region.rx, region.ry)) structureVersion++;
+        }
+    }
+
+    private boolean inVersionArea(int rx, int ry) {
+        float regionPixels = regionSize * chunkSize;
+        float left = rx * regionPixels;
+        float bottom = ry * regionPixels;
+        return left < versionX1 && left + regionPixels > versionX0
+                && bottom < versionY1 && bottom + regionPixels > versionY0;
+    }
+
+    // Chave de região ou de chunk: (x, y) empacotados num long
+    static long key(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,189 @@
+package org.gene.world.world;
+
+import org.gene.world.chunks.enums.Biome;
+import org.gene.world.chunks.enums.TileType;
+import org.gene.world.world.wfc.TileRules;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Mapa de tiles compacto: um byte por célula, num array primitivo em ordem {@code y * width + x}.
+ * <pre>
+ *   bits 0..3  ordinal do TileType (15 = célula vazia)
+ *   bits 4..7  índice na paleta de pares de bioma (primary, secondary)
+ * </pre>
+ * Equivale ao {@code GeneratedTile[][]} do MapGenerator, sem um objeto por célula.
+ * {@link #get} devolve instâncias compartilhadas, então ler o mapa não aloca.
+ */
+public final class TileMap {
+    public static final int MAX_PALETTE = 16;
+    /** Nibble de tipo de uma célula sem tile (o WFC original pode deixar células vazias). */
+    public static final int EMPTY = 0x0F;
+
+    private final int width;
+    private final int height;
+    private final byte[] cells;
+    private final List<Biome[]> palette = new ArrayList<>();
+    private final MapGenerator.GeneratedTile[] flyweights = new MapGenerator.GeneratedTile[256];
+
+    public TileMap(int width, int height) {
+        this(width, height, new byte[width * height]);
+        Arrays.fill(cells, (byte) EMPTY);
+    }
+
+    TileMap(int width, int height, byte[] cells) {
+        if (TileType.values().length > EMPTY) {
+            throw new IllegalStateException("TileType não cabe em 4 bits");
+        }
+        this.width = width;
+        this.height = height;
+        this.cells = cells;
+    }
+
+    /** Converte o resultado do MapGenerator. Células null viram vazias. */
+    public static TileMap from(MapGenerator.GeneratedTile[][] map) {
+        int width = map.length;
+        int height = width == 0 ? 0 : map[0].length;
+        TileMap tiles = new TileMap(width, height);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                tiles.set(x, y, map[x][y]);
+            }
+        }
+        return tiles;
+    }
+
+    /**
+     * Converte ordinais de TileType ({@code y * width + x}) como os do WFC, aplicando a mesma
+     * regra do {@link MapGenerator#toGeneratedTile}: FULL_SECONDARY vira FULL com os biomas trocados.
+     */
+    public static TileMap fromOrdinals(int width, int height, byte[] ordinals, Biome primary, Biome secondary) {
+        TileMap tiles = new TileMap(width, height, new byte[width * height]);
+        int normal = tiles.paletteIndex(primary, secondary);
+        int swapped = tiles.paletteIndex(secondary, primary);
+        int fullSecondary = TileType.FULL_SECONDARY.ordinal();
+        for (int i = 0; i < ordinals.length; i++) {
+            int type = ordinals[i];
+            if (type < 0) {
+                tiles.cells[i] = (byte) EMPTY;
+            } else if (type == fullSecondary) {
+                tiles.cells[i] = (byte) (swapped << 4 | TileType.FULL.ordinal());
+            } else {
+                tiles.cells[i] = (byte) (normal << 4 | type);
+            }
+        }
+        return tiles;
+    }
+
+    public int getWidth() { return width; }
+
+    public int getHeight() { return height; }
+
+    /** Byte empacotado da célula (tipo nos bits 0..3, paleta nos bits 4..7). */
+    public int packedAt(int x, int y) {
+        return cells[y * width + x] & 0xFF;
+    }
+
+    /** TileType da célula, ou null se vazia. */
+    public TileType typeAt(int x, int y) {
+        int type = cells[y * width + x] & 0x0F;
+        return type == EMPTY ? null : TileRules.TILES[type];
+    }
+
+    public Biome primaryAt(int x, int y) {
+        return palette.get((cells[y * width + x] & 0xFF) >>> 4)[0];
+    }
+
+    public Biome secondaryAt(int x, int y) {
+        return palette.get((cells[y * width + x] & 0xFF) >>> 4)[1];
+    }
+
+    /** Tile da célula como no MapGenerator (instância compartilhada), ou null se vazia. */
+    public MapGenerator.GeneratedTile get(int x, int y) {
+        int packed = cells[y * width + x] & 0xFF;
+        if ((packed & 0x0F) == EMPTY) return null;
+        MapGenerator.GeneratedTile tile = flyweights[packed];
+        if (tile == null) {
+            Biome[] pair = palette.get(packed >>> 4);
+            tile = new MapGenerator.GeneratedTile(TileRules.TILES[packed & 0x0F], pair[0], pair[1]);
+            flyweights[packed] = tile;
+        }
+        return tile;
+    }
+
+    public void set(int x, int y, MapGenerator.GeneratedTile tile) {
+        cells[y * width + x] = tile == null
+                ? (byte) EMPTY
+                : (byte) (paletteIndex(tile.primary(), tile.secondary()) << 4 | tile.type().ordinal());
+    }
+
+    /**
+     * Bioma de cada quadrante (2 x 2 por célula): ordinais em {@code qy * 2 * width + qx}, com
+     * {@code qx = 2x + dx}, {@code qy = 2y + dy} e dy = 1 na metade norte (y maior). Células
+     * vazias recebem {@code empty}.
+     */
+    public byte[] quadrantBiomes(int empty) {
+        byte[] out = new byte[width * height * 4];
+        writeQuadrantBiomes(0, 0, width, height, out, empty);
+        return out;
+    }
+
+    /**
+     * Reescreve em {@code out}, no layout de {@link #quadrantBiomes}, os quadrantes das células
+     * [x0, x0 + w) x [y0, y0 + h).
+     */
+    public void writeQuadrantBiomes(int x0, int y0, int w, int h, byte[] out, int empty) {
+        int columns = width * 2;
+        for (int y = y0; y < y0 + h; y++) {
+            for (int x = x0; x < x0 + w; x++) {
+                TileType type = typeAt(x, y);
+                int mask = type != null ? type.quadrantMask() : 0;
+                byte primary = (byte) (type != null ? primaryAt(x, y).ordinal() : empty);
+                byte secondary = (byte) (type != null ? secondaryAt(x, y).ordinal() : empty);
+                int south = y * 2 * columns + x * 2;
+                int north = south + columns;
+                out[north] = (mask & TileType.QUADRANT_NW) != 0 ? primary : secondary;
+                out[north + 1] = (mask & TileType.QUADRANT_NE) != 0 ? primary : secondary;
+                out[south] = (mask & TileType.QUADRANT_SW) != 0 ? primary : secondary;
+                out[south + 1] = (mask & TileType.QUADRANT_SE) != 0 ? primary : secondary;
+            }
+        }
+    }
+
+    /** Volta para o formato do MapGenerator ({@code [x][y]}). */
+    public MapGenerator.GeneratedTile[][] toGeneratedTiles() {
+        MapGenerator.GeneratedTile[][] map = new MapGenerator.GeneratedTile[width][height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                map[x][y] = get(x, y);
+            }
+        }
+        return map;
+    }
+
+    /** Pares (primary, secondary) da paleta, na ordem dos índices. */
+    public List<Biome[]> getPalette() {
+        return Collections.unmodifiableList(palette);
+    }
+
+    /** Índice do par na paleta, acrescentando se for novo. */
+    public int paletteIndex(Biome primary, Biome secondary) {
+        for (int i = 0; i < palette.size(); i++) {
+            Biome[] pair = palette.get(i);
+            if (pair[0] == primary && pair[1] == secondary) return i;
+        }
+        if (palette.size() == MAX_PALETTE) {
+            throw new IllegalStateException("Paleta de biomas cheia (" + MAX_PALETTE + " pares)");
+        }
+        palette.add(new Biome[]{primary, secondary});
+        return palette.size() - 1;
+    }
+
+    /** Array de células, sem cópia (usado pelo {@link TileMapFormat}). */
+    byte[] cells() {
+        return cells;
+    }
+}
@@ -0,0 +1,253 @@
+package org.gene.world.world;
+
+import org.gene.world.chunks.enums.Biome;
+import org.gene.world.world.wfc.TileRules;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Formato binário versionado do {@link TileMap} (big-endian):
+ * <pre>
+ *   int   MAGIC "GWTM"
+ *   short VERSION
+ *   short flags (reservado, 0)
+ *   int   width, height, bandRows
+ *   byte  tamanho da paleta, e para cada par: byte primary, byte secondary (ordinais de Biome)
+ *   blocos: para cada faixa de bandRows linhas, em ordem:
+ *     byte codec (0 = cru, 1 = deflate), int bytes crus, int bytes gravados, bytes
+ * </pre>
+ * Os blocos são faixas de linhas inteiras, então cada um descompacta direto na sua parte do
+ * array de células. O mesmo layout serve para stream ({@link #write(TileMap, OutputStream, boolean)},
+ * {@link #read(InputStream)}) e para arquivo mapeado ({@link #read(Path)}), em que blocos
+ * crus são uma cópia só do mapeamento. Blocos que não diminuem com deflate ficam crus.
+ */
+public final class TileMapFormat {
+    public static final int MAGIC = 0x4757544D; // "GWTM"
+    public static final short VERSION = 1;
+    public static final int DEFAULT_BAND_ROWS = 256;
+
+    private static final byte RAW = 0;
+    private static final byte DEFLATE = 1;
+
+    private TileMapFormat() {}
+
+    public static void write(TileMap map, Path file, boolean compress) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file)) {
+            write(map, out, compress);
+        }
+    }
+
+    public static void write(TileMap map, OutputStream stream, boolean compress) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16));
+        int width = map.getWidth();
+        int height = map.getHeight();
+        int bandRows = DEFAULT_BAND_ROWS;
+
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeShort(0);
+        out.writeInt(width);
+        out.writeInt(height);
+        out.writeInt(bandRows);
+        out.writeByte(map.getPalette().size());
+        for (Biome[] pair : map.getPalette()) {
+            out.writeByte(pair[0].ordinal());
+            out.writeByte(pair[1].ordinal());
+        }
+
+        byte[] cells = map.cells();
+        Deflater deflater = compress ? new Deflater(Deflater.BEST_SPEED) : null;
+        byte[] packed = new byte[Math.max(1, bandRows * width)];
+        try {
+            for (int y0 = 0; y0 < height; y0 += bandRows) {
+                int offset = y0 * width;
+                int length = Math.min(bandRows, height - y0) * width;
+                int stored = 0;
+                if (deflater != null) {
+                    deflater.reset();
+                    deflater.setInput(cells, offset, length);
+                    deflater.finish();
+                    stored = deflater.deflate(packed);
+                    // não coube em menos que o cru: grava cru
+                    if (!deflater.finished()) stored = 0;
+                }
+                if (stored > 0 && stored < length) {
+                    out.writeByte(DEFLATE);
+                    out.writeInt(length);
+                    out.writeInt(stored);
+                    out.write(packed, 0, stored);
+                } else {
+                    out.writeByte(RAW);
+                    out.writeInt(length);
+                    out.writeInt(length);
+                    out.write(cells, offset, length);
+                }
+            }
+        } finally {
+            if (deflater != null) deflater.end();
+        }
+        out.flush();
+    }
+
+    /** Lê de um stream sequencial (rede, zip, etc.). */
+    public static TileMap read(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(stream, 1 << 16));
+        int magic = in.readInt();
+        short version = in.readShort();
+        checkHeader(magic, version);
+        in.readShort(); // flags
+        int width = in.readInt();
+        int height = in.readInt();
+        in.readInt();   // bandRows: os blocos já dizem o próprio tamanho
+        checkDimensions(width, height);
+        TileMap map = new TileMap(width, height, new byte[width * height]);
+        readPalette(map, in.readUnsignedByte(), in::readUnsignedByte);
+
+        byte[] cells = map.cells();
+        byte[] packed = new byte[0];
+        Inflater inflater = new Inflater();
+        try {
+            for (int offset = 0; offset < cells.length; ) {
+                byte codec = in.readByte();
+                int length = in.readInt();
+                int stored = in.readInt();
+                checkBlock(offset, length, cells.length);
+                if (codec == RAW) {
+                    in.readFully(cells, offset, length);
+                } else {
+                    if (packed.length < stored) packed = new byte[stored];
+                    in.readFully(packed, 0, stored);
+                    inflate(inflater, packed, 0, stored, cells, offset, length);
+                }
+                offset += length;
+            }
+        } finally {
+            inflater.end();
+        }
+        checkCells(map);
+        return map;
+    }
+
+    /** Lê de um arquivo mapeado em memória: blocos crus viram uma cópia direta do mapeamento. */
+    public static TileMap read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            checkHeader(buf.getInt(), buf.getShort());
+            buf.getShort(); // flags
+            int width = buf.getInt();
+            int height = buf.getInt();
+            buf.getInt();   // bandRows
+            checkDimensions(width, height);
+            TileMap map = new TileMap(width, height, new byte[width * height]);
+            readPalette(map, buf.get() & 0xFF, () -> buf.get() & 0xFF);
+
+            byte[] cells = map.cells();
+            Inflater inflater = new Inflater();
+            try {
+                for (int offset = 0; offset < cells.length; ) {
+                    byte codec = buf.get();
+                    int length = buf.getInt();
+                    int stored = buf.getInt();
+                    checkBlock(offset, length, cells.length);
+                    if (codec == RAW) {
+                        buf.get(cells, offset, length);
+                    } else {
+                        inflater.reset();
+                        inflater.setInput(buf.slice(buf.position(), stored));
+                        inflateInto(inflater, cells, offset, length);
+                        buf.position(buf.position() + stored);
+                    }
+                    offset += length;
+                }
+            } finally {
+                inflater.end();
+            }
+            checkCells(map);
+            return map;
+        }
+    }
+
+    // ------------------- interno -------------------
+
+    private interface ByteSource {
+        int next() throws IOException;
+    }
+
+    private static void readPalette(TileMap map, int size, ByteSource source) throws IOException {
+        if (size > TileMap.MAX_PALETTE) throw new IOException("Paleta grande demais: " + size);
+        for (int i = 0; i < size; i++) {
+            Biome primary = biome(source.next());
+            Biome secondary = biome(source.next());
+            map.paletteIndex(primary, secondary);
+        }
+    }
+
+    private static Biome biome(int ordinal) throws IOException {
+        Biome[] biomes = Biome.values();
+        if (ordinal >= biomes.length) throw new IOException("Bioma inválido na paleta: " + ordinal);
+        return biomes[ordinal];
+    }
+
+    private static void checkHeader(int magic, short version) throws IOException {
+        if (magic != MAGIC) throw new IOException("Não é um arquivo de TileMap");
+        if (version != VERSION) throw new IOException("Versão de TileMap não suportada: " + version);
+    }
+
+    private static void checkDimensions(int width, int height) throws IOException {
+        if (width < 0 || height < 0 || (long) width * height > Integer.MAX_VALUE - 8) {
+            throw new IOException("Dimensões de TileMap inválidas: " + width + "x" + height);
+        }
+    }
+
+    // Tipo dentro de TileRules.TILES (ou vazio) e par de biomas dentro da paleta lida
+    private static void checkCells(TileMap map) throws IOException {
+        int types = TileRules.TILES.length;
+        int paletteSize = map.getPalette().size();
+        for (byte cell : map.cells()) {
+            int type = cell & 0x0F;
+            if (type == TileMap.EMPTY) continue;
+            if (type >= types || (cell & 0xFF) >>> 4 >= paletteSize) {
+                throw new IOException("Bloco de TileMap corrompido");
+            }
+        }
+    }
+
+    private static void checkBlock(int offset, int length, int total) throws IOException {
+        if (length <= 0 || offset + length > total) throw new IOException("Bloco de TileMap corrompido");
+    }
+
+    private static void inflate(Inflater inflater, byte[] src, int srcOffset, int srcLength,
+                                byte[] dst, int dstOffset, int dstLength) throws IOException {
+        inflater.reset();
+        inflater.setInput(src, srcOffset, srcLength);
+        inflateInto(inflater, dst, dstOffset, dstLength);
+    }
+
+    private static void inflateInto(Inflater inflater, byte[] dst, int offset, int length) throws IOException {
+        try {
+            int done = 0;
+            while (done < length) {
+                int n = inflater.inflate(dst, offset + done, length - done);
+                if (n == 0 && (inflater.finished() || inflater.needsInput())) break;
+                done += n;
+            }
+            if (done != length) throw new IOException("Bloco de TileMap corrompido");
+        } catch (DataFormatException e) {
+            throw new IOException("Bloco de TileMap corrompido", e);
+        }
+    }
+}
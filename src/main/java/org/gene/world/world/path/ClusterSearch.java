@@ -0,0 +1,94 @@
+package org.gene.world.world.path;
+
+import java.util.Arrays;
+
+/**
+ * Dijkstra de um ponto para todos os quadrantes de uma janela (um cluster), com as mesmas
+ * regras de passo do {@link LocalGraph}. É o que dá o custo das arestas entre portais: uma
+ * busca por portal em vez de um A* por par. Arrays primitivos reaproveitados entre buscas.
+ */
+final class ClusterSearch {
+    private final WalkGrid grid;
+    private final int size;
+    private final float[] dist;
+    // Heap binário com inserção preguiçosa: entradas velhas são puladas ao sair
+    private final float[] heapKeys;
+    private final int[] heapCells;
+    private int heapSize;
+    private int originX;
+    private int originY;
+
+    ClusterSearch(WalkGrid grid, int size) {
+        this.grid = grid;
+        this.size = size;
+        this.dist = new float[size * size];
+        // Cada quadrante entra no máximo uma vez por vizinho que o melhora, mais a origem
+        this.heapKeys = new float[size * size * LocalGraph.DX.length + 1];
+        this.heapCells = new int[heapKeys.length];
+    }
+
+    /** Distâncias a partir de (sx, sy) dentro da janela com canto em (ox, oy). */
+    void run(int ox, int oy, int sx, int sy) {
+        originX = ox;
+        originY = oy;
+        Arrays.fill(dist, Float.POSITIVE_INFINITY);
+        heapSize = 0;
+        int source = (sy - oy) * size + (sx - ox);
+        dist[source] = 0f;
+        push(0f, source);
+        while (heapSize > 0) {
+            float d = heapKeys[0];
+            int cell = heapCells[0];
+            pop();
+            if (d > dist[cell]) continue;
+            int lx = cell % size, ly = cell / size;
+            for (int k = 0; k < LocalGraph.DX.length; k++) {
+                int nx = lx + LocalGraph.DX[k], ny = ly + LocalGraph.DY[k];
+                if (nx < 0 || ny < 0 || nx >= size || ny >= size) continue;
+                if (!LocalGraph.canStep(grid, ox + lx, oy + ly, LocalGraph.DX[k], LocalGraph.DY[k])) continue;
+                float next = d + (k < 4 ? 1f : LocalGraph.SQRT2);
+                int target = ny * size + nx;
+                if (next < dist[target]) {
+                    dist[target] = next;
+                    push(next, target);
+                }
+            }
+        }
+    }
+
+    /** Custo até (qx, qy) na última busca, ou infinito se não houver caminho dentro da janela. */
+    float distanceTo(int qx, int qy) {
+        return dist[(qy - originY) * size + (qx - originX)];
+    }
+
+    private void push(float key, int cell) {
+        int i = heapSize++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heapKeys[parent] <= key) break;
+            heapKeys[i] = heapKeys[parent];
+            heapCells[i] = heapCells[parent];
+            i = parent;
+        }
+        heapKeys[i] = key;
+        heapCells[i] = cell;
+    }
+
+    private void pop() {
+        int last = --heapSize;
+        float key = heapKeys[last];
+        int cell = heapCells[last];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= last) break;
+            if (child + 1 < last && heapKeys[child + 1] < heapKeys[child]) child++;
+            if (heapKeys[child] >= key) break;
+            heapKeys[i] = heapKeys[child];
+            heapCells[i] = heapCells[child];
+            i = child;
+        }
+        heapKeys[i] = key;
+        heapCells[i] = cell;
+    }
+}
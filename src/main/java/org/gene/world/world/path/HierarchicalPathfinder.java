@@ -0,0 +1,379 @@
+package org.gene.world.world.path;
+
+import com.badlogic.gdx.ai.pfa.DefaultGraphPath;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedAStarPathFinder;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntMap;
+import org.gene.world.chunks.enums.Biome;
+import org.gene.world.world.TileMap;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Caminhos sobre o {@link TileMap} em dois níveis (HPA*), com o A* indexado do gdx-ai.
+ * <ul>
+ *   <li>O mapa é dividido em clusters quadrados (por padrão uma região de chunks de 16 x 16
+ *       células). Em cada trecho contínuo andável da borda entre dois clusters há um ou dois
+ *       portais; o custo entre os portais de um mesmo cluster é pré-calculado com um Dijkstra
+ *       limitado ao cluster ({@link PortalGraph}).</li>
+ *   <li>Uma rota longa é planejada sobre os portais e depois refinada trecho a trecho com A*
+ *       no grafo de quadrantes de um só cluster ({@link LocalGraph}). O custo de uma consulta
+ *       depende do número de portais, não do número de quadrantes do mapa.</li>
+ *   <li>Origem e destino no mesmo cluster tentam primeiro o caminho direto lá dentro.</li>
+ *   <li>Os caminhos encontrados ficam num {@link PathCache}; {@link #invalidateRegion} recalcula
+ *       os portais da região alterada e tira do cache só os caminhos que passavam por ela.</li>
+ * </ul>
+ * Coordenadas em quadrantes (meia célula, y para o norte), como no {@link WalkGrid}; os
+ * caminhos saem como índices {@code qy * largura + qx}, da origem ao destino inclusive. O
+ * resultado é quase ótimo (a rota passa pelos portais). Não é thread-safe.
+ */
+public final class HierarchicalPathfinder {
+    /** Biomas andáveis para quem não nada: tudo menos água e lava. */
+    public static final Set<Biome> LAND = EnumSet.complementOf(EnumSet.of(Biome.WATER, Biome.LAVA));
+    /** Lado padrão do cluster em células. */
+    public static final int DEFAULT_CLUSTER_TILES = 16;
+    // Trechos de borda até este tamanho ganham um portal no meio; maiores, um em cada ponta
+    private static final int MAX_SINGLE_PORTAL = 6;
+    private static final int[] NONE = new int[0];
+
+    private final WalkGrid grid;
+    private final int clusterSize; // em quadrantes
+    private final int clustersX;
+    private final int clustersY;
+    // Por cluster: pares (quadrante deste lado, quadrante do vizinho) na borda leste e na norte
+    private final int[][] eastEntrances;
+    private final int[][] northEntrances;
+    // Por cluster: quadrantes dos portais e a matriz n x n de custos entre eles
+    private final int[][] portals;
+    private final float[][] portalCosts;
+
+    private final ClusterSearch search;
+    private final LocalGraph local;
+    private final IndexedAStarPathFinder<LocalGraph.Node> localFinder;
+    private final DefaultGraphPath<LocalGraph.Node> localPath = new DefaultGraphPath<>();
+    private PortalGraph graph;
+    private PortalGraph.Node[][] clusterNodes;
+    private IndexedAStarPathFinder<PortalGraph.Node> abstractFinder;
+    private final DefaultGraphPath<PortalGraph.Node> abstractPath = new DefaultGraphPath<>();
+    private final PathCache cache;
+
+    private long queries;
+    private long cacheHits;
+
+    /**
+     * @param passable      biomas por onde se anda
+     * @param clusterTiles  lado do cluster em células
+     * @param cacheCapacity caminhos guardados no cache (0 desliga)
+     */
+    public HierarchicalPathfinder(TileMap map, Set<Biome> passable, int clusterTiles, int cacheCapacity) {
+        if (clusterTiles <= 0) throw new IllegalArgumentException("clusterTiles deve ser positivo");
+        this.grid = new WalkGrid(map, passable);
+        this.clusterSize = clusterTiles * 2;
+        this.clustersX = (grid.getWidth() + clusterSize - 1) / clusterSize;
+        this.clustersY = (grid.getHeight() + clusterSize - 1) / clusterSize;
+        int clusters = clustersX * clustersY;
+        this.eastEntrances = new int[clusters][];
+        this.northEntrances = new int[clusters][];
+        this.portals = new int[clusters][];
+        this.portalCosts = new float[clusters][];
+        this.search = new ClusterSearch(grid, clusterSize);
+        this.local = new LocalGraph(grid, clusterSize);
+        this.localFinder = new IndexedAStarPathFinder<>(local);
+        this.cache = new PathCache(cacheCapacity);
+
+        for (int cy = 0; cy < clustersY; cy++) {
+            for (int cx = 0; cx < clustersX; cx++) computeEntrances(cx, cy);
+        }
+        for (int cy = 0; cy < clustersY; cy++) {
+            for (int cx = 0; cx < clustersX; cx++) computePortals(cx, cy);
+        }
+        assemble();
+    }
+
+    public HierarchicalPathfinder(TileMap map, Set<Biome> passable) {
+        this(map, passable, DEFAULT_CLUSTER_TILES, 4096);
+    }
+
+    /**
+     * Caminho de (sx, sy) até (gx, gy), em quadrantes, escrito em {@code out} (que é limpo
+     * antes). Devolve false se um dos pontos não é andável ou não há caminho.
+     */
+    public boolean findPath(int sx, int sy, int gx, int gy, IntArray out) {
+        out.clear();
+        queries++;
+        if (!grid.isWalkable(sx, sy) || !grid.isWalkable(gx, gy)) return false;
+        int width = grid.getWidth();
+        long key = PathCache.key(sy * width + sx, gy * width + gx);
+        int[] cached = cache.get(key);
+        if (cached != null) {
+            cacheHits++;
+            out.addAll(cached);
+            return true;
+        }
+
+        int startCluster = clusterOf(sx, sy), goalCluster = clusterOf(gx, gy);
+        boolean found = startCluster == goalCluster && appendLocal(sx, sy, gx, gy, startCluster, out)
+                || searchAbstract(sx, sy, startCluster, gx, gy, goalCluster, out);
+        if (found) cache.put(key, out.toArray(), clustersCrossed(out));
+        return found;
+    }
+
+    /**
+     * O terreno das células [x0, x0 + w) x [y0, y0 + h) mudou em {@code map} (o mesmo mapa do
+     * construtor, já alterado): relê a região, recalcula os portais dos clusters tocados e dos
+     * vizinhos e tira do cache os caminhos que passavam por ali.
+     */
+    public void invalidateRegion(TileMap map, int x0, int y0, int w, int h) {
+        grid.update(map, x0, y0, w, h);
+        int cx0 = (x0 * 2) / clusterSize, cy0 = (y0 * 2) / clusterSize;
+        int cx1 = ((x0 + w) * 2 - 1) / clusterSize, cy1 = ((y0 + h) * 2 - 1) / clusterSize;
+
+        // Bordas dos clusters tocados, inclusive as que eles dividem com o vizinho de oeste e sul
+        for (int cy = Math.max(0, cy0 - 1); cy <= cy1; cy++) {
+            for (int cx = Math.max(0, cx0 - 1); cx <= cx1; cx++) computeEntrances(cx, cy);
+        }
+        // Os vizinhos também: podem ter ganho ou perdido portais nessas bordas. Passos na
+        // diagonal dependem dos quadrantes do lado, então o cache perde o anel em volta também.
+        boolean[] dirty = new boolean[clustersX * clustersY];
+        for (int cy = Math.max(0, cy0 - 1); cy <= Math.min(clustersY - 1, cy1 + 1); cy++) {
+            for (int cx = Math.max(0, cx0 - 1); cx <= Math.min(clustersX - 1, cx1 + 1); cx++) {
+                computePortals(cx, cy);
+                dirty[cy * clustersX + cx] = true;
+            }
+        }
+        assemble();
+        local.invalidate();
+        cache.invalidate(dirty);
+    }
+
+    public WalkGrid getGrid() {
+        return grid;
+    }
+
+    /** Lado do cluster em quadrantes. */
+    public int getClusterSize() {
+        return clusterSize;
+    }
+
+    public int getClusterCount() {
+        return clustersX * clustersY;
+    }
+
+    public int getPortalCount() {
+        return graph.getPortalCount();
+    }
+
+    public long getQueries() {
+        return queries;
+    }
+
+    public long getCacheHits() {
+        return cacheHits;
+    }
+
+    /** Caminhos no cache agora. */
+    public int getCachedPaths() {
+        return cache.size();
+    }
+
+    /** Esvazia o cache (por exemplo para medir a busca sem ele). */
+    public void clearCache() {
+        cache.clear();
+    }
+
+    // ------------------- consulta -------------------
+
+    private boolean searchAbstract(int sx, int sy, int startCluster, int gx, int gy, int goalCluster,
+                                   IntArray out) {
+        PortalGraph g = graph;
+        PortalGraph.Node start = g.prepareStart(sx, sy, startCluster);
+        PortalGraph.Node goal = g.prepareGoal(gx, gy, goalCluster);
+        search.run(originX(startCluster), originY(startCluster), sx, sy);
+        for (PortalGraph.Node portal : clusterNodes[startCluster]) {
+            float cost = search.distanceTo(portal.x, portal.y);
+            if (cost != Float.POSITIVE_INFINITY) g.linkFromStart(portal, cost);
+        }
+        // Os custos da grade são simétricos: a busca a partir do destino serve para chegar nele
+        search.run(originX(goalCluster), originY(goalCluster), gx, gy);
+        for (PortalGraph.Node portal : clusterNodes[goalCluster]) {
+            float cost = search.distanceTo(portal.x, portal.y);
+            if (cost != Float.POSITIVE_INFINITY) g.linkToGoal(portal, cost);
+        }
+
+        abstractPath.clear();
+        boolean found = abstractFinder.searchNodePath(start, goal, PortalGraph.HEURISTIC, abstractPath);
+        g.clearQuery();
+        if (!found) return false;
+
+        // Refinamento: trechos dentro de um cluster viram A* local; travessias de borda são um passo
+        for (int i = 0; i + 1 < abstractPath.getCount(); i++) {
+            PortalGraph.Node a = abstractPath.get(i), b = abstractPath.get(i + 1);
+            if (a.cluster != b.cluster) {
+                out.add(b.y * grid.getWidth() + b.x);
+            } else if (!appendLocal(a.x, a.y, b.x, b.y, a.cluster, out)) {
+                out.clear();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** A* de (sx, sy) até (gx, gy) dentro do cluster; acrescenta o caminho sem repetir o ponto de junção. */
+    private boolean appendLocal(int sx, int sy, int gx, int gy, int cluster, IntArray out) {
+        int ox = originX(cluster), oy = originY(cluster);
+        local.bind(ox, oy);
+        localPath.clear();
+        if (!localFinder.searchNodePath(local.node(sx, sy), local.node(gx, gy), LocalGraph.HEURISTIC, localPath)) {
+            return false;
+        }
+        int width = grid.getWidth();
+        for (int i = out.size == 0 ? 0 : 1; i < localPath.getCount(); i++) {
+            LocalGraph.Node node = localPath.get(i);
+            out.add((oy + node.y) * width + ox + node.x);
+        }
+        return true;
+    }
+
+    private int[] clustersCrossed(IntArray path) {
+        IntArray clusters = new IntArray(8);
+        int width = grid.getWidth();
+        int previous = -1;
+        for (int i = 0; i < path.size; i++) {
+            int q = path.get(i);
+            int cluster = clusterOf(q % width, q / width);
+            if (cluster != previous && !clusters.contains(cluster)) clusters.add(cluster);
+            previous = cluster;
+        }
+        return clusters.toArray();
+    }
+
+    private int clusterOf(int qx, int qy) {
+        return (qy / clusterSize) * clustersX + qx / clusterSize;
+    }
+
+    private int originX(int cluster) {
+        return (cluster % clustersX) * clusterSize;
+    }
+
+    private int originY(int cluster) {
+        return (cluster / clustersX) * clusterSize;
+    }
+
+    // ------------------- construção -------------------
+
+    private void computeEntrances(int cx, int cy) {
+        int c = cy * clustersX + cx;
+        int x0 = cx * clusterSize, y0 = cy * clusterSize;
+        int along = Math.min(clusterSize, grid.getWidth() - x0);
+        int up = Math.min(clusterSize, grid.getHeight() - y0);
+        eastEntrances[c] = cx + 1 < clustersX
+                ? scanBorder(x0 + clusterSize - 1, y0, 0, 1, 1, 0, up) : NONE;
+        northEntrances[c] = cy + 1 < clustersY
+                ? scanBorder(x0, y0 + clusterSize - 1, 1, 0, 0, 1, along) : NONE;
+    }
+
+    /**
+     * Percorre {@code length} quadrantes a partir de (ax, ay) na direção (ux, uy); cada um forma
+     * par com o vizinho em (nx, ny). Devolve os pares escolhidos como portais, achatados.
+     */
+    private int[] scanBorder(int ax, int ay, int ux, int uy, int nx, int ny, int length) {
+        IntArray pairs = new IntArray();
+        int run = -1;
+        for (int p = 0; p <= length; p++) {
+            int x = ax + p * ux, y = ay + p * uy;
+            boolean open = p < length && grid.isWalkable(x, y) && grid.isWalkable(x + nx, y + ny);
+            if (open && run < 0) {
+                run = p;
+            } else if (!open && run >= 0) {
+                int last = p - 1;
+                if (last - run < MAX_SINGLE_PORTAL) {
+                    addPair(pairs, ax, ay, ux, uy, nx, ny, (run + last) / 2);
+                } else {
+                    addPair(pairs, ax, ay, ux, uy, nx, ny, run);
+                    addPair(pairs, ax, ay, ux, uy, nx, ny, last);
+                }
+                run = -1;
+            }
+        }
+        return pairs.size == 0 ? NONE : pairs.toArray();
+    }
+
+    private void addPair(IntArray pairs, int ax, int ay, int ux, int uy, int nx, int ny, int p) {
+        int x = ax + p * ux, y = ay + p * uy, width = grid.getWidth();
+        pairs.add(y * width + x);
+        pairs.add((y + ny) * width + x + nx);
+    }
+
+    /** Portais do cluster (os lados dele nos pares das quatro bordas) e os custos entre eles. */
+    private void computePortals(int cx, int cy) {
+        int c = cy * clustersX + cx;
+        IntArray quadrants = new IntArray();
+        collect(quadrants, eastEntrances[c], 0);
+        collect(quadrants, northEntrances[c], 0);
+        if (cx > 0) collect(quadrants, eastEntrances[c - 1], 1);
+        if (cy > 0) collect(quadrants, northEntrances[c - clustersX], 1);
+
+        int n = quadrants.size, width = grid.getWidth();
+        float[] costs = new float[n * n];
+        for (int i = 0; i < n; i++) {
+            int qi = quadrants.get(i);
+            search.run(cx * clusterSize, cy * clusterSize, qi % width, qi / width);
+            for (int j = 0; j < n; j++) {
+                int qj = quadrants.get(j);
+                costs[i * n + j] = search.distanceTo(qj % width, qj / width);
+            }
+        }
+        portals[c] = quadrants.toArray();
+        portalCosts[c] = costs;
+    }
+
+    private static void collect(IntArray quadrants, int[] pairs, int side) {
+        for (int i = side; i < pairs.length; i += 2) {
+            if (!quadrants.contains(pairs[i])) quadrants.add(pairs[i]);
+        }
+    }
+
+    /** Monta o {@link PortalGraph} a partir dos portais e custos de cada cluster. */
+    private void assemble() {
+        PortalGraph g = new PortalGraph();
+        int width = grid.getWidth();
+        int clusters = clustersX * clustersY;
+        PortalGraph.Node[][] byCluster = new PortalGraph.Node[clusters][];
+        IntMap<PortalGraph.Node> byQuadrant = new IntMap<>();
+        for (int c = 0; c < clusters; c++) {
+            int[] quadrants = portals[c];
+            byCluster[c] = new PortalGraph.Node[quadrants.length];
+            for (int i = 0; i < quadrants.length; i++) {
+                PortalGraph.Node node = g.addNode(quadrants[i] % width, quadrants[i] / width, c);
+                byCluster[c][i] = node;
+                byQuadrant.put(quadrants[i], node);
+            }
+        }
+        for (int c = 0; c < clusters; c++) {
+            PortalGraph.Node[] nodes = byCluster[c];
+            float[] costs = portalCosts[c];
+            int n = nodes.length;
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    float cost = costs[i * n + j];
+                    if (i != j && cost != Float.POSITIVE_INFINITY) g.connect(nodes[i], nodes[j], cost);
+                }
+            }
+            link(g, byQuadrant, eastEntrances[c]);
+            link(g, byQuadrant, northEntrances[c]);
+        }
+        g.seal();
+        graph = g;
+        clusterNodes = byCluster;
+        abstractFinder = new IndexedAStarPathFinder<>(g);
+    }
+
+    private static void link(PortalGraph g, IntMap<PortalGraph.Node> byQuadrant, int[] pairs) {
+        for (int i = 0; i < pairs.length; i += 2) {
+            PortalGraph.Node a = byQuadrant.get(pairs[i]), b = byQuadrant.get(pairs[i + 1]);
+            g.connect(a, b, 1f);
+            g.connect(b, a, 1f);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package org.gene.world.world.path;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.ai.pfa.Heuristic;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedGraph;
+import com.badlogic.gdx.utils.Array;
+
+import java.util.Arrays;
+
+/**
+ * Grafo de quadrantes de uma janela quadrada do {@link WalkGrid}, para o A* do gdx-ai. Oito
+ * vizinhos, custo 1 na reta e raiz de 2 na diagonal; a diagonal só vale se os dois quadrantes
+ * do lado também forem andáveis (não corta quina).
+ * <p>
+ * Os nós e as conexões possíveis são criados uma vez; {@link #bind} só reposiciona a janela.
+ * A lista de conexões de um nó é refeita quando o A* pede por ela pela primeira vez depois
+ * disso, então refinar um trecho custa os nós visitados, não o cluster inteiro, e não aloca.
+ */
+final class LocalGraph implements IndexedGraph<LocalGraph.Node> {
+    static final float SQRT2 = (float) Math.sqrt(2);
+    // Retas primeiro, diagonais nos índices 4..7
+    static final int[] DX = {1, -1, 0, 0, 1, 1, -1, -1};
+    static final int[] DY = {0, 0, 1, -1, 1, -1, 1, -1};
+
+    /** Distância octil em quadrantes: exata num grid de oito vizinhos sem obstáculos. */
+    static final Heuristic<Node> HEURISTIC = (a, b) -> octile(a.x - b.x, a.y - b.y);
+
+    static final class Node {
+        final int index;
+        final int x, y; // na janela
+        final Array<Connection<Node>> connections = new Array<>(false, 8);
+        int stamp; // connections vale para a janela com este stamp
+
+        Node(int index, int x, int y) {
+            this.index = index;
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    static final class Step implements Connection<Node> {
+        final Node from, to;
+        final int dx, dy;
+        final float cost;
+
+        Step(Node from, Node to, int dx, int dy) {
+            this.from = from;
+            this.to = to;
+            this.dx = dx;
+            this.dy = dy;
+            this.cost = dx != 0 && dy != 0 ? SQRT2 : 1f;
+        }
+
+        @Override public float getCost() { return cost; }
+
+        @Override public Node getFromNode() { return from; }
+
+        @Override public Node getToNode() { return to; }
+    }
+
+    private final WalkGrid grid;
+    private final int size;
+    private final Node[] nodes;
+    private final Step[][] steps; // por nó, os vizinhos que caem dentro da janela
+    private int originX = Integer.MIN_VALUE;
+    private int originY = Integer.MIN_VALUE;
+    private int stamp;
+
+    LocalGraph(WalkGrid grid, int size) {
+        this.grid = grid;
+        this.size = size;
+        this.nodes = new Node[size * size];
+        this.steps = new Step[size * size][];
+        for (int i = 0; i < nodes.length; i++) nodes[i] = new Node(i, i % size, i / size);
+        Step[] buffer = new Step[DX.length];
+        for (Node node : nodes) {
+            int count = 0;
+            for (int k = 0; k < DX.length; k++) {
+                int nx = node.x + DX[k], ny = node.y + DY[k];
+                if (nx < 0 || ny < 0 || nx >= size || ny >= size) continue;
+                buffer[count++] = new Step(node, nodes[ny * size + nx], DX[k], DY[k]);
+            }
+            steps[node.index] = Arrays.copyOf(buffer, count);
+        }
+    }
+
+    /** Põe o canto (0, 0) da janela no quadrante (ox, oy); não faz nada se já estiver lá. */
+    void bind(int ox, int oy) {
+        if (ox == originX && oy == originY) return;
+        originX = ox;
+        originY = oy;
+        stamp++;
+    }
+
+    /** O grid mudou: o próximo {@link #bind} refaz as conexões mesmo na mesma janela. */
+    void invalidate() {
+        originX = originY = Integer.MIN_VALUE;
+        stamp++;
+    }
+
+    /** Nó do quadrante (qx, qy), que precisa estar dentro da janela atual. */
+    Node node(int qx, int qy) {
+        return nodes[(qy - originY) * size + (qx - originX)];
+    }
+
+    int getOriginX() {
+        return originX;
+    }
+
+    int getOriginY() {
+        return originY;
+    }
+
+    @Override
+    public int getIndex(Node node) {
+        return node.index;
+    }
+
+    @Override
+    public int getNodeCount() {
+        return nodes.length;
+    }
+
+    @Override
+    public Array<Connection<Node>> getConnections(Node fromNode) {
+        Array<Connection<Node>> connections = fromNode.connections;
+        if (fromNode.stamp != stamp) {
+            fromNode.stamp = stamp;
+            connections.clear();
+            int x = originX + fromNode.x, y = originY + fromNode.y;
+            if (grid.isWalkable(x, y)) {
+                for (Step step : steps[fromNode.index]) {
+                    if (canStep(grid, x, y, step.dx, step.dy)) connections.add(step);
+                }
+            }
+        }
+        return connections;
+    }
+
+    /** Se dá para ir de (x, y) para (x + dx, y + dy) sem entrar em nada bloqueado nem cortar quina. */
+    static boolean canStep(WalkGrid grid, int x, int y, int dx, int dy) {
+        if (!grid.isWalkable(x + dx, y + dy)) return false;
+        return dx == 0 || dy == 0 || grid.isWalkable(x + dx, y) && grid.isWalkable(x, y + dy);
+    }
+
+    static float octile(int dx, int dy) {
+        dx = Math.abs(dx);
+        dy = Math.abs(dy);
+        return Math.max(dx, dy) + (SQRT2 - 1f) * Math.min(dx, dy);
+    }
+}
@@ -0,0 +1,67 @@
+package org.gene.world.world.path;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caminhos já calculados, por par (origem, destino), com descarte do menos usado (LRU). Cada
+ * caminho guarda os clusters por onde passa: quando o terreno de um cluster muda,
+ * {@link #invalidate} tira só os caminhos que cruzam ali.
+ */
+final class PathCache {
+    private record Entry(int[] path, int[] clusters) {}
+
+    private final int capacity;
+    private final LinkedHashMap<Long, Entry> entries;
+
+    /** @param capacity caminhos guardados; 0 desliga o cache */
+    PathCache(int capacity) {
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > PathCache.this.capacity;
+            }
+        };
+    }
+
+    static long key(int start, int goal) {
+        return (long) start << 32 | goal & 0xFFFFFFFFL;
+    }
+
+    /** Quadrantes do caminho guardado (não alterar), ou null. */
+    int[] get(long key) {
+        if (capacity == 0) return null;
+        Entry entry = entries.get(key);
+        return entry != null ? entry.path : null;
+    }
+
+    void put(long key, int[] path, int[] clusters) {
+        if (capacity == 0) return;
+        entries.put(key, new Entry(path, clusters));
+    }
+
+    /** Tira os caminhos que passam por algum cluster marcado em {@code dirty} (pelo id). */
+    int invalidate(boolean[] dirty) {
+        int removed = 0;
+        for (Iterator<Entry> it = entries.values().iterator(); it.hasNext(); ) {
+            for (int cluster : it.next().clusters) {
+                if (dirty[cluster]) {
+                    it.remove();
+                    removed++;
+                    break;
+                }
+            }
+        }
+        return removed;
+    }
+
+    void clear() {
+        entries.clear();
+    }
+
+    int size() {
+        return entries.size();
+    }
+}
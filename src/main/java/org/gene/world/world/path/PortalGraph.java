@@ -0,0 +1,136 @@
+package org.gene.world.world.path;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.ai.pfa.Heuristic;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedGraph;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Nível abstrato do {@link HierarchicalPathfinder}: um nó por portal (quadrante na borda de
+ * um cluster), arestas entre portais do mesmo cluster com o custo real do caminho lá dentro e
+ * arestas de custo 1 atravessando a borda. Os dois últimos nós são a origem e o destino de
+ * cada consulta, ligados aos portais dos seus clusters só durante a busca.
+ */
+final class PortalGraph implements IndexedGraph<PortalGraph.Node> {
+    /** Distância octil em quadrantes: nunca passa do custo real, então o A* acha o menor. */
+    static final Heuristic<Node> HEURISTIC = (a, b) -> LocalGraph.octile(a.x - b.x, a.y - b.y);
+
+    static final class Node {
+        final int index;
+        int x, y;    // quadrante
+        int cluster;
+        final Array<Connection<Node>> edges = new Array<>(false, 8);
+
+        Node(int index, int x, int y, int cluster) {
+            this.index = index;
+            this.x = x;
+            this.y = y;
+            this.cluster = cluster;
+        }
+    }
+
+    static final class Edge implements Connection<Node> {
+        Node from, to;
+        float cost;
+
+        @Override public float getCost() { return cost; }
+
+        @Override public Node getFromNode() { return from; }
+
+        @Override public Node getToNode() { return to; }
+    }
+
+    private final Array<Node> nodes = new Array<>();
+    // Arestas da origem e do destino, reaproveitadas entre consultas
+    private final Array<Edge> temporary = new Array<>();
+    private final Array<Node> linkedToGoal = new Array<>();
+    private int temporaryUsed;
+    private Node start;
+    private Node goal;
+
+    Node addNode(int x, int y, int cluster) {
+        if (start != null) throw new IllegalStateException("Grafo já fechado");
+        Node node = new Node(nodes.size, x, y, cluster);
+        nodes.add(node);
+        return node;
+    }
+
+    void connect(Node from, Node to, float cost) {
+        Edge edge = new Edge();
+        edge.from = from;
+        edge.to = to;
+        edge.cost = cost;
+        from.edges.add(edge);
+    }
+
+    /** Acrescenta os nós de origem e destino; depois disso não entram mais portais. */
+    void seal() {
+        start = new Node(nodes.size, 0, 0, -1);
+        nodes.add(start);
+        goal = new Node(nodes.size, 0, 0, -1);
+        nodes.add(goal);
+    }
+
+    Node prepareStart(int x, int y, int cluster) {
+        clearQuery();
+        return place(start, x, y, cluster);
+    }
+
+    Node prepareGoal(int x, int y, int cluster) {
+        return place(goal, x, y, cluster);
+    }
+
+    void linkFromStart(Node portal, float cost) {
+        start.edges.add(temporary(start, portal, cost));
+    }
+
+    void linkToGoal(Node portal, float cost) {
+        portal.edges.add(temporary(portal, goal, cost));
+        linkedToGoal.add(portal);
+    }
+
+    /** Tira dos portais as arestas para o destino da consulta anterior. */
+    void clearQuery() {
+        // Cada portal ganhou uma aresta no fim da lista: sai com pop
+        for (Node portal : linkedToGoal) portal.edges.pop();
+        linkedToGoal.clear();
+        start.edges.clear();
+        temporaryUsed = 0;
+    }
+
+    /** Portais, sem contar origem e destino. */
+    int getPortalCount() {
+        return nodes.size - 2;
+    }
+
+    @Override
+    public int getIndex(Node node) {
+        return node.index;
+    }
+
+    @Override
+    public int getNodeCount() {
+        return nodes.size;
+    }
+
+    @Override
+    public Array<Connection<Node>> getConnections(Node fromNode) {
+        return fromNode.edges;
+    }
+
+    private static Node place(Node node, int x, int y, int cluster) {
+        node.x = x;
+        node.y = y;
+        node.cluster = cluster;
+        return node;
+    }
+
+    private Edge temporary(Node from, Node to, float cost) {
+        if (temporaryUsed == temporary.size) temporary.add(new Edge());
+        Edge edge = temporary.get(temporaryUsed++);
+        edge.from = from;
+        edge.to = to;
+        edge.cost = cost;
+        return edge;
+    }
+}
@@ -0,0 +1,52 @@
+package org.gene.world.world.path;
+
+import org.gene.world.chunks.enums.Biome;
+import org.gene.world.world.TileMap;
+
+import java.util.Set;
+
+/**
+ * Onde dá para andar, com meia célula de resolução: um valor por quadrante do TileType (como
+ * no {@code Habitat}), lido do {@link TileMap#quadrantBiomes}. Coordenadas em quadrantes, com
+ * {@code qx = 2 * x + dx} e o y crescendo para o norte; fora do mapa nada é andável.
+ */
+public final class WalkGrid {
+    /** Quadrante de célula vazia (região não gerada): nunca andável. */
+    static final int EMPTY = Biome.values().length;
+
+    private final int width;
+    private final int height;
+    private final byte[] biomes;
+    private final boolean[] passable; // por ordinal do Biome, EMPTY no fim
+
+    public WalkGrid(TileMap map, Set<Biome> passable) {
+        this.width = map.getWidth() * 2;
+        this.height = map.getHeight() * 2;
+        this.biomes = map.quadrantBiomes(EMPTY);
+        this.passable = new boolean[EMPTY + 1];
+        for (Biome biome : passable) this.passable[biome.ordinal()] = true;
+    }
+
+    /** Largura em quadrantes (duas vezes a do mapa). */
+    public int getWidth() {
+        return width;
+    }
+
+    /** Altura em quadrantes (duas vezes a do mapa). */
+    public int getHeight() {
+        return height;
+    }
+
+    public boolean isWalkable(int qx, int qy) {
+        if (qx < 0 || qy < 0 || qx >= width || qy >= height) return false;
+        return passable[biomes[qy * width + qx]];
+    }
+
+    /** Relê as células [x0, x0 + w) x [y0, y0 + h) de {@code map} depois que o terreno mudou. */
+    public void update(TileMap map, int x0, int y0, int w, int h) {
+        if (map.getWidth() * 2 != width || map.getHeight() * 2 != height) {
+            throw new IllegalArgumentException("Mapa de tamanho diferente do grid");
+        }
+        map.writeQuadrantBiomes(x0, y0, w, h, biomes, EMPTY);
+    }
+}
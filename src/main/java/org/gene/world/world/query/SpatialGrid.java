@@ -0,0 +1,259 @@
+package org.gene.world.world.query;
+
+import java.util.Arrays;
+
+/**
+ * Índice espacial de entidades que se movem: um grid uniforme reconstruído por inteiro a cada
+ * tick com counting sort, em vez de uma lista por célula atualizada a cada movimento.
+ * <ul>
+ *   <li>{@link #rebuild} conta as entidades por célula, faz a soma de prefixos e espalha ids e
+ *       posições em arrays primitivos ordenados por célula: duas passadas lineares, sem alocar
+ *       (os arrays só crescem).</li>
+ *   <li>As entidades de uma célula ficam contíguas, com a posição ao lado do id: uma consulta
+ *       lê só as células que cruzam a área, em sequência. O custo é proporcional às células
+ *       visitadas e às entidades dentro delas (O(k) com densidade limitada), não ao total.</li>
+ *   <li>Consultas escrevem ids num {@code int[]} de quem chama e não alocam.</li>
+ * </ul>
+ * Coordenadas em pixels locais, de (0, 0) até (largura, altura). Com {@code wrap} o retângulo é
+ * um toro (como o {@code Habitat}): consultas perto de uma borda enxergam o outro lado, e as
+ * distâncias são pelo caminho mais curto; para as células também darem a volta exatamente na
+ * largura, o lado delas é esticado até dividir o retângulo (uma coluna parcial na emenda faria a
+ * consulta pular a primeira coluna). Sem {@code wrap}, posições fora do retângulo caem na célula
+ * da borda mais próxima.
+ */
+public final class SpatialGrid {
+    private final float width;
+    private final float height;
+    private final float invCellX;   // colunas por pixel
+    private final float invCellY;
+    private final int columns;
+    private final int rows;
+    private final boolean wrap;
+    // Entidades da célula c ficam em [cellStart[c], cellStart[c + 1])
+    private final int[] cellStart;
+    private final int[] cursor;
+
+    private int[] ids = new int[0];
+    private float[] positions = new float[0]; // x em 2s, y em 2s + 1: uma linha de cache por entrada
+    private int[] cellOf = new int[0]; // célula de cada entrada, entre as duas passadas
+    private int size;
+
+    /**
+     * @param cellSize lado da célula em pixels; perto do raio típico das consultas, para cada
+     *                 uma visitar poucas células; com {@code wrap}, esticado para a largura e a
+     *                 altura serem múltiplos dele
+     */
+    public SpatialGrid(float width, float height, float cellSize, boolean wrap) {
+        if (cellSize <= 0) throw new IllegalArgumentException("cellSize deve ser positivo");
+        this.width = width;
+        this.height = height;
+        if (wrap) {
+            this.columns = Math.max(1, (int) (width / cellSize));
+            this.rows = Math.max(1, (int) (height / cellSize));
+            this.invCellX = columns / width;
+            this.invCellY = rows / height;
+        } else {
+            this.columns = Math.max(1, (int) Math.ceil(width / cellSize));
+            this.rows = Math.max(1, (int) Math.ceil(height / cellSize));
+            this.invCellX = 1f / cellSize;
+            this.invCellY = 1f / cellSize;
+        }
+        this.wrap = wrap;
+        this.cellStart = new int[columns * rows + 1];
+        this.cursor = new int[columns * rows];
+    }
+
+    /**
+     * Reconstrói o índice com as {@code count} primeiras entidades de {@code entities}. As
+     * posições são lidas de {@code x[id]} e {@code y[id]}, colunas indexadas pelo id (como no
+     * {@code CreatureStore}).
+     */
+    public void rebuild(int[] entities, int count, float[] x, float[] y) {
+        ensureCapacity(count);
+        int[] start = cellStart;
+        Arrays.fill(start, 0);
+        for (int i = 0; i < count; i++) {
+            int e = entities[i];
+            int cell = cellAt(x[e], y[e]);
+            cellOf[i] = cell;
+            start[cell + 1]++;
+        }
+        for (int c = 0, n = columns * rows; c < n; c++) {
+            start[c + 1] += start[c];
+        }
+        System.arraycopy(start, 0, cursor, 0, cursor.length);
+        for (int i = 0; i < count; i++) {
+            int e = entities[i];
+            int slot = cursor[cellOf[i]]++;
+            ids[slot] = e;
+            positions[2 * slot] = x[e];
+            positions[2 * slot + 1] = y[e];
+        }
+        size = count;
+    }
+
+    /** Entidades no último {@link #rebuild}. */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Entidades a até {@code radius} de (x, y). Escreve os ids em {@code out} e devolve quantas
+     * achou; se passar de {@code out.length}, só as primeiras são escritas.
+     */
+    public int queryRadius(float x, float y, float radius, int[] out) {
+        float r2 = radius * radius;
+        int found = 0;
+        int cx0 = cellX(x - radius), cx1 = cellX(x + radius);
+        int cy0 = cellY(y - radius), cy1 = cellY(y + radius);
+        if (wrap) {
+            if (cx1 - cx0 >= columns) { cx0 = 0; cx1 = columns - 1; }
+            if (cy1 - cy0 >= rows) { cy0 = 0; cy1 = rows - 1; }
+        } else {
+            cx0 = Math.max(cx0, 0); cx1 = Math.min(cx1, columns - 1);
+            cy0 = Math.max(cy0, 0); cy1 = Math.min(cy1, rows - 1);
+        }
+        for (int cy = cy0; cy <= cy1; cy++) {
+            int row = wrap ? Math.floorMod(cy, rows) * columns : cy * columns;
+            for (int cx = cx0; cx <= cx1; cx++) {
+                int cell = row + (wrap ? Math.floorMod(cx, columns) : cx);
+                for (int s = cellStart[cell], end = cellStart[cell + 1]; s < end; s++) {
+                    float dx = deltaX(positions[2 * s] - x), dy = deltaY(positions[2 * s + 1] - y);
+                    if (dx * dx + dy * dy <= r2) {
+                        if (found < out.length) out[found] = ids[s];
+                        found++;
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Entidades dentro de [x0, x1] x [y0, y1]. Com {@code wrap}, o retângulo pode passar das
+     * bordas (até uma volta). Mesmo contrato de {@code out} do {@link #queryRadius}.
+     */
+    public int queryRect(float x0, float y0, float x1, float y1, int[] out) {
+        int found = 0;
+        int cx0 = cellX(x0), cx1 = cellX(x1);
+        int cy0 = cellY(y0), cy1 = cellY(y1);
+        if (wrap) {
+            if (cx1 - cx0 >= columns) { cx0 = 0; cx1 = columns - 1; }
+            if (cy1 - cy0 >= rows) { cy0 = 0; cy1 = rows - 1; }
+        } else {
+            cx0 = Math.max(cx0, 0); cx1 = Math.min(cx1, columns - 1);
+            cy0 = Math.max(cy0, 0); cy1 = Math.min(cy1, rows - 1);
+        }
+        for (int cy = cy0; cy <= cy1; cy++) {
+            int row = wrap ? Math.floorMod(cy, rows) * columns : cy * columns;
+            for (int cx = cx0; cx <= cx1; cx++) {
+                int cell = row + (wrap ? Math.floorMod(cx, columns) : cx);
+                for (int s = cellStart[cell], end = cellStart[cell + 1]; s < end; s++) {
+                    if (inside(positions[2 * s], x0, x1, width) && inside(positions[2 * s + 1], y0, y1, height)) {
+                        if (found < out.length) out[found] = ids[s];
+                        found++;
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Entidade mais próxima de (x, y) a até {@code maxRadius}, sem contar {@code exclude}
+     * (por exemplo quem pergunta), ou -1. Visita as células em anéis a partir da do ponto e
+     * para quando o anel seguinte já está mais longe que o melhor achado.
+     */
+    public int nearest(float x, float y, float maxRadius, int exclude) {
+        int best = -1;
+        float best2 = maxRadius * maxRadius;
+        int cx = cellX(x), cy = cellY(y);
+        // Lado menor e densidade maior: o anel é um limite inferior nos dois eixos
+        float cellSize = 1f / Math.max(invCellX, invCellY);
+        int maxRing = (int) Math.ceil(maxRadius * Math.max(invCellX, invCellY));
+        if (wrap) maxRing = Math.min(maxRing, Math.max(columns, rows) / 2 + 1);
+        else maxRing = Math.min(maxRing, Math.max(columns, rows));
+        for (int ring = 0; ring <= maxRing; ring++) {
+            // Tudo no anel está a pelo menos (ring - 1) células do ponto
+            float near = (ring - 1) * cellSize;
+            if (ring > 1 && near * near > best2) break;
+            for (int dy = -ring; dy <= ring; dy++) {
+                boolean edgeRow = dy == -ring || dy == ring;
+                for (int dx = -ring; dx <= ring; dx += edgeRow ? 1 : 2 * ring) {
+                    int cell = cellIndex(cx + dx, cy + dy);
+                    if (cell < 0) continue;
+                    for (int s = cellStart[cell], end = cellStart[cell + 1]; s < end; s++) {
+                        if (ids[s] == exclude) continue;
+                        float ex = deltaX(positions[2 * s] - x), ey = deltaY(positions[2 * s + 1] - y);
+                        float d2 = ex * ex + ey * ey;
+                        if (d2 <= best2) {
+                            best2 = d2;
+                            best = ids[s];
+                        }
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    // ------------------- interno -------------------
+
+    private int cellX(float v) {
+        return (int) Math.floor(v * invCellX);
+    }
+
+    private int cellY(float v) {
+        return (int) Math.floor(v * invCellY);
+    }
+
+    private int cellAt(float x, float y) {
+        int cx = (int) (x * invCellX), cy = (int) (y * invCellY);
+        cx = cx < 0 ? 0 : Math.min(cx, columns - 1);
+        cy = cy < 0 ? 0 : Math.min(cy, rows - 1);
+        return cy * columns + cx;
+    }
+
+    /** Índice da célula (cx, cy), dando a volta com {@code wrap}; -1 se fora do grid. */
+    private int cellIndex(int cx, int cy) {
+        if (wrap) return Math.floorMod(cy, rows) * columns + Math.floorMod(cx, columns);
+        if (cx < 0 || cy < 0 || cx >= columns || cy >= rows) return -1;
+        return cy * columns + cx;
+    }
+
+    private float deltaX(float d) {
+        if (!wrap) return d;
+        if (d > width * 0.5f) return d - width;
+        return d < -width * 0.5f ? d + width : d;
+    }
+
+    private float deltaY(float d) {
+        if (!wrap) return d;
+        if (d > height * 0.5f) return d - height;
+        return d < -height * 0.5f ? d + height : d;
+    }
+
+    private boolean inside(float v, float min, float max, float period) {
+        if (wrap) {
+            if (v < min) v += period;
+            else if (v > max) v -= period;
+        }
+        return v >= min && v <= max;
+    }
+
+    private void ensureCapacity(int count) {
+        if (count <= ids.length) return;
+        int n = Math.max(count, ids.length + (ids.length >> 1));
+        ids = new int[n];
+        positions = new float[2 * n];
+        cellOf = new int[n];
+    }
+}
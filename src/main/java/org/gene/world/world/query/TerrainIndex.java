@@ -0,0 +1,133 @@
+package org.gene.world.world.query;
+
+import org.gene.world.chunks.enums.Biome;
+import org.gene.world.chunks.enums.TileType;
+import org.gene.world.world.TileMap;
+
+/**
+ * Consulta de terreno por pixel de mundo ou por célula, sobre um retângulo de {@link TileMap}.
+ * <ul>
+ *   <li>Por célula: o próprio TileMap (um byte por célula com TileType e par de biomas).</li>
+ *   <li>Por pixel: o bioma de cada quadrante (meia célula) num {@code byte[]} em ordem
+ *       {@code qy * colunas + qx}, então {@link #biomeAt} é uma conta e uma leitura de array.</li>
+ * </ul>
+ * A célula (0, 0) começa em ({@link #getOriginX()}, {@link #getOriginY()}) no mundo; o y cresce
+ * para cima, então a metade norte de uma célula é a de y maior. Coordenadas "locais" são em
+ * pixels a partir da origem.
+ */
+public final class TerrainIndex {
+    /** Bioma de um quadrante sem tile (região não gerada) ou fora do retângulo. */
+    public static final int VOID = Biome.values().length;
+
+    private final TileMap tiles;
+    private final int cellPixels;
+    private final int columns;      // quadrantes por linha (2 por célula)
+    private final int rows;
+    private final float invHalfCell; // 1 / lado de um quadrante em pixels
+    private final float originX;
+    private final float originY;
+    private final byte[] biomes;
+
+    /**
+     * @param tiles      tiles da área (guardado sem cópia; depois de alterá-lo, chame {@link #refresh})
+     * @param cellPixels lado de uma célula em pixels (o tamanho do chunk)
+     * @param originX    x no mundo da borda esquerda da célula (0, 0)
+     * @param originY    y no mundo da borda de baixo da célula (0, 0)
+     */
+    public TerrainIndex(TileMap tiles, int cellPixels, float originX, float originY) {
+        this.tiles = tiles;
+        this.cellPixels = cellPixels;
+        this.columns = tiles.getWidth() * 2;
+        this.rows = tiles.getHeight() * 2;
+        this.invHalfCell = 2f / cellPixels;
+        this.originX = originX;
+        this.originY = originY;
+        this.biomes = tiles.quadrantBiomes(VOID);
+    }
+
+    public TileMap getTiles() { return tiles; }
+
+    public int getCellPixels() { return cellPixels; }
+
+    public float getOriginX() { return originX; }
+
+    public float getOriginY() { return originY; }
+
+    /** Largura em pixels. */
+    public float getWidth() { return tiles.getWidth() * (float) cellPixels; }
+
+    /** Altura em pixels. */
+    public float getHeight() { return tiles.getHeight() * (float) cellPixels; }
+
+    public int getQuadrantColumns() { return columns; }
+
+    public int getQuadrantRows() { return rows; }
+
+    public int getQuadrantCount() { return biomes.length; }
+
+    // ------------------- por célula -------------------
+
+    /** Célula sob o x de mundo (pode cair fora do mapa). */
+    public int tileX(float worldX) {
+        return (int) Math.floor((worldX - originX) / cellPixels);
+    }
+
+    public int tileY(float worldY) {
+        return (int) Math.floor((worldY - originY) / cellPixels);
+    }
+
+    public boolean containsTile(int tileX, int tileY) {
+        return tileX >= 0 && tileY >= 0 && tileX < tiles.getWidth() && tileY < tiles.getHeight();
+    }
+
+    /** TileType da célula, ou null se vazia ou fora do mapa. */
+    public TileType typeAtTile(int tileX, int tileY) {
+        return containsTile(tileX, tileY) ? tiles.typeAt(tileX, tileY) : null;
+    }
+
+    /** TileType sob o ponto de mundo, ou null. */
+    public TileType typeAt(float worldX, float worldY) {
+        return typeAtTile(tileX(worldX), tileY(worldY));
+    }
+
+    // ------------------- por pixel -------------------
+
+    /** Quadrante sob o ponto (x, y) em pixels locais, já dentro de [0, largura) x [0, altura). */
+    public int quadrantAt(float x, float y) {
+        int qx = Math.min((int) (x * invHalfCell), columns - 1);
+        int qy = Math.min((int) (y * invHalfCell), rows - 1);
+        return qy * columns + qx;
+    }
+
+    /** Quadrante sob o ponto de mundo, ou -1 fora do retângulo. */
+    public int quadrantAtWorld(float worldX, float worldY) {
+        float x = worldX - originX, y = worldY - originY;
+        if (x < 0 || y < 0) return -1;
+        int qx = (int) (x * invHalfCell), qy = (int) (y * invHalfCell);
+        if (qx >= columns || qy >= rows) return -1;
+        return qy * columns + qx;
+    }
+
+    /** Ordinal do Biome do quadrante, ou {@link #VOID}. */
+    public int biome(int quadrant) {
+        return biomes[quadrant];
+    }
+
+    /** Ordinal do Biome sob o ponto de mundo, ou {@link #VOID} (também fora do retângulo). */
+    public int biomeAt(float worldX, float worldY) {
+        int q = quadrantAtWorld(worldX, worldY);
+        return q < 0 ? VOID : biomes[q];
+    }
+
+    /** Relê os quadrantes das células [x0, x0 + w) x [y0, y0 + h) depois que o TileMap mudou. */
+    public void refresh(int x0, int y0, int w, int h) {
+        tiles.writeQuadrantBiomes(x0, y0, w, h, biomes, VOID);
+    }
+
+    /** Quadrantes de cada bioma, por ordinal ({@link #VOID} no fim). */
+    public int[] biomeHistogram() {
+        int[] counts = new int[VOID + 1];
+        for (byte b : biomes) counts[b]++;
+        return counts;
+    }
+}
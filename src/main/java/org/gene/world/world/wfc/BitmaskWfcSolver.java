@@ -0,0 +1,317 @@
+package org.gene.world.world.wfc;
+
+import org.gene.world.chunks.enums.TileType;
+import org.gene.world.diagnostics.Metrics;
+import org.gene.world.diagnostics.WfcRunEvent;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Wave Function Collapse sobre arrays primitivos.
+ * Cada célula guarda seu domínio como uma máscara de bits em um único {@code short[]}
+ * (índice {@code y * width + x}), e o tile escolhido em um {@code byte[]}.
+ * O loop de colapso não aloca nada: a entropia vem do popcount da máscara, a
+ * célula de menor entropia sai de um {@link EntropyIndex} em O(log N) e a
+ * escolha com pesos percorre os bits em ordem crescente de ordinal.
+ *
+ * Com {@link Propagation#NEIGHBOURS} consome o {@link Random} exatamente na mesma
+ * ordem que o algoritmo original do {@code MapGenerator}, portanto gera os mesmos
+ * mapas para a mesma seed.
+ */
+public final class BitmaskWfcSolver {
+    public static final byte UNCOLLAPSED = -1;
+
+    /** Raio inicial (em células) da região reiniciada após uma contradição. */
+    private static final int BASE_RESTART_RADIUS = 2;
+
+    public enum Propagation {
+        /**
+         * Só restringe os 8 vizinhos diretos da célula colapsada, sem cascata.
+         * Células que ficam sem possibilidades continuam vazias (comportamento original).
+         */
+        NEIGHBOURS,
+        /**
+         * Worklist no estilo AC-3: cada redução de domínio se propaga pelo grid até
+         * estabilizar. Um domínio vazio é detectado na hora e resolvido reiniciando
+         * uma região local ao redor da contradição, sem regenerar o mapa inteiro.
+         */
+        AC3
+    }
+
+    private final int width;
+    private final int height;
+    private final short[] domain;
+    private final byte[] tiles;
+    private final boolean[] pinned;
+    private final Random random;
+    private final Propagation propagation;
+    private final EntropyIndex entropy;
+    private final WfcStats stats = new WfcStats();
+    private int collapsedCount;
+
+    // Fila circular do AC-3 (cada célula entra no máximo uma vez)
+    private final int[] queue;
+    private final boolean[] queued;
+    private int queueHead, queueSize;
+
+    private final long maxRestarts;
+    private int restartRadius = BASE_RESTART_RADIUS;
+    private int calmCollapses;
+
+    public BitmaskWfcSolver(int width, int height, Random random) {
+        this(width, height, random, Propagation.NEIGHBOURS);
+    }
+
+    public BitmaskWfcSolver(int width, int height, Random random, Propagation propagation) {
+        this.width = width;
+        this.height = height;
+        this.random = random;
+        this.propagation = propagation;
+        int cells = width * height;
+        this.domain = new short[cells];
+        this.tiles = new byte[cells];
+        this.pinned = new boolean[cells];
+        Arrays.fill(domain, (short) TileRules.ALL);
+        Arrays.fill(tiles, UNCOLLAPSED);
+        this.entropy = new EntropyIndex(cells, TileRules.TILE_COUNT);
+        entropy.fill(cells, TileRules.TILE_COUNT);
+
+        boolean ac3 = propagation == Propagation.AC3;
+        this.queue = ac3 ? new int[cells] : null;
+        this.queued = ac3 ? new boolean[cells] : null;
+        this.maxRestarts = Math.max(64, cells / 8);
+    }
+
+    /**
+     * Fixa um tile em (x, y) e propaga as restrições para os vizinhos.
+     * Células fixadas assim nunca são desfeitas por um reinício de região.
+     */
+    public void collapse(int x, int y, TileType type) {
+        int cell = y * width + x;
+        pinned[cell] = true;
+        place(cell, type.ordinal());
+    }
+
+    /**
+     * Colapsa todas as células restantes. No modo {@link Propagation#NEIGHBOURS},
+     * células que ficarem sem possibilidades permanecem {@link #UNCOLLAPSED}, como no
+     * algoritmo original. No modo {@link Propagation#AC3} todas as células saem
+     * colapsadas, ou é lançada uma {@link IllegalStateException} se o limite de
+     * reinícios for excedido.
+     */
+    public void run() {
+        WfcRunEvent event = new WfcRunEvent();
+        event.begin();
+        long start = Metrics.start();
+
+        final int cells = width * height;
+        while (collapsedCount < cells) {
+            // Menor entropia e empates vêm do índice, sem varrer o grid
+            int minEntropy = entropy.minEntropy();
+            if (minEntropy == 0) break; // Terminou ou deu erro
+
+            // Pega o k-ésimo empate na ordem de varredura (y, depois x)
+            int k = random.nextInt(entropy.count(minEntropy));
+            int cell = entropy.select(minEntropy, k);
+
+            place(cell, chooseWeighted(domain[cell] & 0xFFFF));
+        }
+
+        // Contadores do solver inteiro, incluindo as células fixadas antes do run
+        Metrics.WFC_RUN_TIME.recordSince(start);
+        Metrics.WFC_RUNS.increment();
+        Metrics.WFC_CELLS.add(cells);
+        Metrics.WFC_PROPAGATIONS.add(stats.propagationSteps);
+        Metrics.WFC_CONTRADICTIONS.add(stats.contradictions);
+        if (event.shouldCommit()) {
+            event.cells = cells;
+            event.propagations = stats.propagationSteps;
+            event.contradictions = stats.contradictions;
+            event.restarts = stats.restarts;
+            event.commit();
+        }
+    }
+
+    /** Ordinal do tile em (x, y), ou {@link #UNCOLLAPSED}. */
+    public int tileAt(int x, int y) {
+        return tiles[y * width + x];
+    }
+
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+
+    public WfcStats getStats() { return stats; }
+
+    // ------------------- interno -------------------
+
+    private int chooseWeighted(int mask) {
+        // Subtrai os pesos em ordem de ordinal, igual ao loop original sobre a List,
+        // para que os arredondamentos de ponto flutuante sejam idênticos.
+        double randomChoice = random.nextDouble() * TileRules.totalWeight(mask);
+        for (int bits = mask; bits != 0; bits &= bits - 1) {
+            int tile = Integer.numberOfTrailingZeros(bits);
+            randomChoice -= TileRules.weight(tile);
+            if (randomChoice <= 0) return tile;
+        }
+        // Se por algum motivo não escolher (erros de ponto flutuante), pega o último
+        return 31 - Integer.numberOfLeadingZeros(mask);
+    }
+
+    private void place(int cell, int tile) {
+        int before = Integer.bitCount(domain[cell] & 0xFFFF);
+        if (before > 0) entropy.remove(cell, before);
+        tiles[cell] = (byte) tile;
+        collapsedCount++;
+        stats.collapses++;
+
+        if (propagation == Propagation.NEIGHBOURS) {
+            domain[cell] = 0;
+            propagateNeighbours(cell, tile);
+            return;
+        }
+
+        // No AC-3 a célula colapsada mantém o domínio unitário, que serve de suporte aos vizinhos
+        domain[cell] = (short) (1 << tile);
+        enqueue(cell);
+        int contradiction = propagateQueue();
+        if (contradiction >= 0) {
+            recover(contradiction);
+        } else if (++calmCollapses > restartRadius * restartRadius * 4) {
+            // Muitos colapsos sem contradição: volta ao raio inicial
+            restartRadius = BASE_RESTART_RADIUS;
+        }
+    }
+
+    /**
+     * Restringe os 8 vizinhos diretos da célula recém-colapsada.
+     */
+    private void propagateNeighbours(int cell, int tile) {
+        stats.propagationSteps++;
+        int x = cell % width;
+        int y = cell / width;
+        for (int d = 0; d < TileRules.DIRECTION_COUNT; d++) {
+            int nx = x + TileRules.DIRECTIONS[d].getDx();
+            int ny = y + TileRules.DIRECTIONS[d].getDy();
+            if (nx < 0 || nx >= width || ny < 0 || ny >= height) continue;
+            int n = ny * width + nx;
+            if (tiles[n] != UNCOLLAPSED) continue;
+
+            restrict(n, TileRules.adjacency(d, tile));
+        }
+    }
+
+    /**
+     * Esvazia a fila do AC-3: cada célula retirada restringe seus vizinhos não
+     * colapsados ao que tem suporte no seu domínio, e quem muda volta para a fila.
+     *
+     * @return a célula cujo domínio ficou vazio, ou -1 se chegou a um ponto fixo.
+     */
+    private int propagateQueue() {
+        while (queueSize > 0) {
+            int cell = queue[queueHead];
+            queueHead = (queueHead + 1) % queue.length;
+            queueSize--;
+            queued[cell] = false;
+            stats.propagationSteps++;
+
+            int mask = domain[cell] & 0xFFFF;
+            int x = cell % width;
+            int y = cell / width;
+            for (int d = 0; d < TileRules.DIRECTION_COUNT; d++) {
+                int nx = x + TileRules.DIRECTIONS[d].getDx();
+                int ny = y + TileRules.DIRECTIONS[d].getDy();
+                if (nx < 0 || nx >= width || ny < 0 || ny >= height) continue;
+                int n = ny * width + nx;
+                if (tiles[n] != UNCOLLAPSED) continue;
+
+                int after = restrict(n, TileRules.support(d, mask));
+                if (after == 0) {
+                    stats.contradictions++;
+                    clearQueue();
+                    return n;
+                }
+                if (after > 0) enqueue(n);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Intersecta o domínio de {@code cell} com {@code allowed}, mantendo o índice de entropia.
+     *
+     * @return o novo domínio se ele mudou, ou -1 se não mudou.
+     */
+    private int restrict(int cell, int allowed) {
+        int before = domain[cell] & 0xFFFF;
+        int after = before & allowed;
+        if (after == before) return -1;
+        domain[cell] = (short) after;
+        // Domínio vazio sai do índice
+        entropy.remove(cell, Integer.bitCount(before));
+        int remaining = Integer.bitCount(after);
+        if (remaining > 0) entropy.add(cell, remaining);
+        return after;
+    }
+
+    /**
+     * Reinicia uma região quadrada ao redor da contradição e repropaga a partir da
+     * sua borda. Se a própria repropagação falhar, o raio dobra (até o tamanho do mapa).
+     */
+    private void recover(int contradiction) {
+        int cell = contradiction;
+        while (cell >= 0) {
+            if (stats.restarts >= maxRestarts) {
+                throw new IllegalStateException("WFC não convergiu: " + stats.restarts
+                        + " reinícios de região sem resolver a contradição em ("
+                        + (cell % width) + ", " + (cell / width) + ")");
+            }
+            stats.restarts++;
+            calmCollapses = 0;
+            resetRegion(cell % width, cell / width, restartRadius);
+            restartRadius = Math.min(restartRadius * 2, Math.max(width, height));
+            cell = propagateQueue();
+        }
+    }
+
+    private void resetRegion(int cx, int cy, int radius) {
+        int x0 = Math.max(0, cx - radius), x1 = Math.min(width - 1, cx + radius);
+        int y0 = Math.max(0, cy - radius), y1 = Math.min(height - 1, cy + radius);
+        for (int y = y0; y <= y1; y++) {
+            for (int x = x0; x <= x1; x++) {
+                int i = y * width + x;
+                if (pinned[i]) continue;
+                if (tiles[i] != UNCOLLAPSED) {
+                    tiles[i] = UNCOLLAPSED;
+                    collapsedCount--;
+                } else {
+                    int e = Integer.bitCount(domain[i] & 0xFFFF);
+                    if (e > 0) entropy.remove(i, e);
+                }
+                domain[i] = (short) TileRules.ALL;
+                entropy.add(i, TileRules.TILE_COUNT);
+            }
+        }
+        // A borda (região + 1) volta a restringir o miolo reiniciado
+        for (int y = Math.max(0, y0 - 1); y <= Math.min(height - 1, y1 + 1); y++) {
+            for (int x = Math.max(0, x0 - 1); x <= Math.min(width - 1, x1 + 1); x++) {
+                enqueue(y * width + x);
+            }
+        }
+    }
+
+    private void enqueue(int cell) {
+        if (queued[cell]) return;
+        queued[cell] = true;
+        queue[(queueHead + queueSize) % queue.length] = cell;
+        queueSize++;
+    }
+
+    private void clearQueue() {
+        while (queueSize > 0) {
+            queued[queue[queueHead]] = false;
+            queueHead = (queueHead + 1) % queue.length;
+            queueSize--;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package org.gene.world.world.wfc;
+
+import java.util.Arrays;
+
+/**
+ * Índice das células não colapsadas agrupadas por entropia (tamanho do domínio).
+ * Cada balde é um bitset sobre os índices das células mais uma árvore de Fenwick
+ * com o popcount de cada palavra de 64 bits. Assim:
+ * <ul>
+ *   <li>inserir/remover custa O(log N);</li>
+ *   <li>a menor entropia sai em O(TILE_COUNT);</li>
+ *   <li>o k-ésimo empate em ordem de índice sai em O(log N).</li>
+ * </ul>
+ * Selecionar pela ordem de índice preserva o desempate do algoritmo original
+ * (varredura y, depois x), então o mapa gerado não muda.
+ */
+final class EntropyIndex {
+    private final int words;
+    private final int topBit;      // maior potência de 2 <= words, para a descida na Fenwick
+    private final long[][] bits;   // [entropia][palavra]
+    private final int[][] tree;    // [entropia][1..words] (Fenwick 1-based)
+    private final int[] size;      // quantidade de células por entropia
+
+    EntropyIndex(int cells, int maxEntropy) {
+        this.words = (cells + 63) >>> 6;
+        this.topBit = words == 0 ? 0 : Integer.highestOneBit(words);
+        this.bits = new long[maxEntropy + 1][];
+        this.tree = new int[maxEntropy + 1][];
+        this.size = new int[maxEntropy + 1];
+        for (int e = 1; e <= maxEntropy; e++) {
+            bits[e] = new long[words];
+            tree[e] = new int[words + 1];
+        }
+    }
+
+    /**
+     * Coloca as células [0, cells) no balde {@code entropy} em O(N),
+     * sem passar pelo add individual.
+     */
+    void fill(int cells, int entropy) {
+        long[] b = bits[entropy];
+        Arrays.fill(b, -1L);
+        int tail = cells & 63;
+        if (tail != 0) b[words - 1] = (1L << tail) - 1;
+
+        int[] t = tree[entropy];
+        for (int i = 1; i <= words; i++) {
+            t[i] += Long.bitCount(b[i - 1]);
+            int parent = i + (i & -i);
+            if (parent <= words) t[parent] += t[i];
+        }
+        size[entropy] = cells;
+    }
+
+    void add(int cell, int entropy) {
+        bits[entropy][cell >>> 6] |= 1L << cell;
+        update(tree[entropy], (cell >>> 6) + 1, 1);
+        size[entropy]++;
+    }
+
+    void remove(int cell, int entropy) {
+        bits[entropy][cell >>> 6] &= ~(1L << cell);
+        update(tree[entropy], (cell >>> 6) + 1, -1);
+        size[entropy]--;
+    }
+
+    /** Menor entropia com pelo menos uma célula, ou 0 se o índice estiver vazio. */
+    int minEntropy() {
+        for (int e = 1; e < size.length; e++) {
+            if (size[e] > 0) return e;
+        }
+        return 0;
+    }
+
+    int count(int entropy) {
+        return size[entropy];
+    }
+
+    /** Índice da k-ésima célula (0-based, ordem crescente) no balde {@code entropy}. */
+    int select(int entropy, int k) {
+        int[] t = tree[entropy];
+        // Descida na Fenwick: acha a palavra que contém o k-ésimo bit
+        int pos = 0;
+        int remaining = k;
+        for (int step = topBit; step != 0; step >>>= 1) {
+            int next = pos + step;
+            if (next <= words && t[next] <= remaining) {
+                pos = next;
+                remaining -= t[next];
+            }
+        }
+        long word = bits[entropy][pos];
+        for (int i = 0; i < remaining; i++) {
+            word &= word - 1;
+        }
+        return (pos << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    private void update(int[] t, int i, int delta) {
+        for (; i <= words; i += i & -i) {
+            t[i] += delta;
+        }
+    }
+}
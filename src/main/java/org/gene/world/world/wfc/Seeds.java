@@ -0,0 +1,20 @@
+package org.gene.world.world.wfc;
+
+/**
+ * Deriva seeds independentes a partir da seed do mundo, para que cada região/bloco
+ * tenha seu próprio fluxo de números aleatórios, estável independentemente da ordem
+ * (ou da thread) em que é gerado.
+ */
+public final class Seeds {
+    private Seeds() {}
+
+    /** Seed derivada de (seed, a, b), misturada com o finalizador do SplitMix64. */
+    public static long mix(long seed, int a, int b) {
+        long h = seed;
+        h ^= a * 0x9E3779B97F4A7C15L;
+        h ^= b * 0xC2B2AE3D27D4EB4FL;
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+}
@@ -0,0 +1,86 @@
+package org.gene.world.world.wfc;
+
+import org.gene.world.chunks.enums.Direction;
+import org.gene.world.chunks.enums.TileType;
+
+/**
+ * Versão primitiva das regras de adjacência do {@link TileType}.
+ * Um domínio é uma máscara de bits: o bit {@code i} representa {@code TileType.values()[i]}.
+ * Todas as tabelas são calculadas uma única vez, a partir de {@link TileType#getValidNeighbors(Direction)}.
+ */
+public final class TileRules {
+    public static final TileType[] TILES = TileType.values();
+    public static final Direction[] DIRECTIONS = Direction.values();
+    public static final int TILE_COUNT = TILES.length;
+    public static final int DIRECTION_COUNT = DIRECTIONS.length;
+
+    /** Máscara com todos os tiles possíveis. */
+    public static final int ALL = (1 << TILE_COUNT) - 1;
+
+    // ADJACENCY[dir][tile] -> máscara dos vizinhos válidos na direção dir
+    private static final int[][] ADJACENCY = new int[DIRECTION_COUNT][TILE_COUNT];
+
+    // Peso total de cada máscara possível, somado na ordem dos ordinais (igual ao MapGenerator original)
+    private static final double[] TOTAL_WEIGHT = new double[ALL + 1];
+
+    // SUPPORT[dir][mask] -> união das adjacências de todos os tiles da máscara (usado pelo AC-3)
+    private static final short[][] SUPPORT = new short[DIRECTION_COUNT][ALL + 1];
+
+    private static final double[] WEIGHT = new double[TILE_COUNT];
+
+    static {
+        for (Direction dir : DIRECTIONS) {
+            for (TileType tile : TILES) {
+                int mask = 0;
+                for (TileType neighbor : tile.getValidNeighbors(dir)) {
+                    mask |= bit(neighbor);
+                }
+                ADJACENCY[dir.ordinal()][tile.ordinal()] = mask;
+            }
+        }
+        for (int d = 0; d < DIRECTION_COUNT; d++) {
+            // Cada máscara reaproveita a máscara sem o bit mais baixo, já calculada
+            for (int mask = 1; mask <= ALL; mask++) {
+                int lowest = Integer.numberOfTrailingZeros(mask);
+                SUPPORT[d][mask] = (short) (SUPPORT[d][mask & (mask - 1)] | ADJACENCY[d][lowest]);
+            }
+        }
+        for (TileType tile : TILES) {
+            WEIGHT[tile.ordinal()] = tile.weight;
+        }
+        for (int mask = 0; mask <= ALL; mask++) {
+            double total = 0;
+            for (int bits = mask; bits != 0; bits &= bits - 1) {
+                total += WEIGHT[Integer.numberOfTrailingZeros(bits)];
+            }
+            TOTAL_WEIGHT[mask] = total;
+        }
+    }
+
+    private TileRules() {}
+
+    public static int bit(TileType tile) {
+        return 1 << tile.ordinal();
+    }
+
+    /** Máscara dos tiles que podem ficar na direção {@code dir} de um tile de ordinal {@code tile}. */
+    public static int adjacency(int dir, int tile) {
+        return ADJACENCY[dir][tile];
+    }
+
+    /**
+     * Máscara dos tiles que podem ficar na direção {@code dir} de uma célula cujo
+     * domínio é {@code mask} (ou seja, que têm suporte em pelo menos um tile dela).
+     */
+    public static int support(int dir, int mask) {
+        return SUPPORT[dir][mask] & 0xFFFF;
+    }
+
+    public static double weight(int tile) {
+        return WEIGHT[tile];
+    }
+
+    public static double totalWeight(int mask) {
+        return TOTAL_WEIGHT[mask];
+    }
+}
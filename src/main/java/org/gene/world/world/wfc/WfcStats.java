@@ -0,0 +1,39 @@
+package org.gene.world.world.wfc;
+
+/**
+ * Contadores de custo de uma execução do WFC, para comparar seeds.
+ */
+public final class WfcStats {
+    long collapses;
+    long propagationSteps;
+    long contradictions;
+    long restarts;
+
+    /** Células colapsadas pelo solver (inclui as recolapsadas após um reinício). */
+    public long getCollapses() { return collapses; }
+
+    /** Células retiradas da fila de propagação. */
+    public long getPropagationSteps() { return propagationSteps; }
+
+    /** Vezes em que algum domínio ficou vazio. */
+    public long getContradictions() { return contradictions; }
+
+    /** Reinícios locais de região feitos para recuperar de contradições. */
+    public long getRestarts() { return restarts; }
+
+    /** Soma os contadores de outra execução nesta. */
+    public void add(WfcStats other) {
+        collapses += other.collapses;
+        propagationSteps += other.propagationSteps;
+        contradictions += other.contradictions;
+        restarts += other.restarts;
+    }
+
+    @Override
+    public String toString() {
+        return "WfcStats{collapses=" + collapses
+                + ", propagationSteps=" + propagationSteps
+                + ", contradictions=" + contradictions
+                + ", restarts=" + restarts + '}';
+    }
+}
@@ -0,0 +1,46 @@
+package org.gene.world.chunks.atlas;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("Testes do ChunkAtlas")
+class ChunkAtlasTest {
+
+    @BeforeAll
+    static void loadNatives() {
+        GdxNativesLoader.load();
+    }
+
+    @Test
+    @DisplayName("extrudeBorder replica a borda do miolo, com os cantos")
+    void extrudeBorderReplicatesEdges() {
+        int w = 9, h = 6;
+        Pixmap padded = new Pixmap(w + 2, h + 2, Pixmap.Format.RGBA8888);
+        padded.setBlending(Pixmap.Blending.None);
+        Random random = new Random(3);
+        for (int y = 1; y <= h; y++) {
+            for (int x = 1; x <= w; x++) {
+                padded.drawPixel(x, y, random.nextInt());
+            }
+        }
+
+        ChunkAtlas.extrudeBorder(padded);
+
+        // cada pixel é igual ao pixel do miolo mais próximo
+        for (int y = 0; y < h + 2; y++) {
+            for (int x = 0; x < w + 2; x++) {
+                int ix = Math.min(w, Math.max(1, x));
+                int iy = Math.min(h, Math.max(1, y));
+                assertEquals(padded.getPixel(ix, iy), padded.getPixel(x, y), "Pixel (" + x + ", " + y + ")");
+            }
+        }
+        padded.dispose();
+    }
+}
@@ -0,0 +1,81 @@
+package org.gene.world.chunks.cache;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Testes do RegionFileCache")
+class RegionFileCacheTest {
+    private static final int REGION = 4;
+    private static final int CHUNK = 6;
+
+    @TempDir
+    Path dir;
+
+    @BeforeAll
+    static void loadNatives() {
+        GdxNativesLoader.load();
+    }
+
+    @Test
+    @DisplayName("Tiles e pixels gravados voltam iguais depois de reabrir o cache")
+    void roundTripAcrossInstances() {
+        byte[] tiles = new byte[REGION * REGION];
+        for (int i = 0; i < tiles.length; i++) tiles[i] = (byte) (i % 14);
+        Pixmap written = padded(0x11223344);
+
+        RegionFileCache cache = new RegionFileCache(dir, 42L, 7L, REGION, CHUNK);
+        assertNull(cache.readTiles(-1, 2));
+        cache.writeTiles(-1, 2, tiles);
+        cache.writeChunk(-3, 9, 99L, written);
+        cache.close();
+
+        RegionFileCache reopened = new RegionFileCache(dir, 42L, 7L, REGION, CHUNK);
+        Pixmap read = padded(0);
+        assertArrayEquals(tiles, reopened.readTiles(-1, 2));
+        assertTrue(reopened.readChunk(-3, 9, 99L, read));
+        assertEquals(written.getPixel(3, 3), read.getPixel(3, 3));
+        assertEquals(written.getPixel(0, CHUNK + 1), read.getPixel(0, CHUNK + 1));
+
+        // outra versão do modelo ou chunk nunca gravado: ausente
+        assertFalse(reopened.readChunk(-3, 9, 100L, read));
+        assertFalse(reopened.readChunk(-2, 9, 99L, read));
+        reopened.close();
+        written.dispose();
+        read.dispose();
+    }
+
+    @Test
+    @DisplayName("Outra versão do mundo nunca lê o que a anterior gravou")
+    void worldVersionInvalidates() {
+        Pixmap pixmap = padded(0x55667788);
+        RegionFileCache v1 = new RegionFileCache(dir, 42L, 1L, REGION, CHUNK);
+        v1.writeTiles(0, 0, new byte[REGION * REGION]);
+        v1.writeChunk(1, 1, 5L, pixmap);
+        v1.close();
+
+        RegionFileCache v2 = new RegionFileCache(dir, 42L, 2L, REGION, CHUNK);
+        assertNull(v2.readTiles(0, 0));
+        assertFalse(v2.readChunk(1, 1, 5L, pixmap));
+        v2.close();
+        pixmap.dispose();
+    }
+
+    private static Pixmap padded(int rgba) {
+        Pixmap pixmap = new Pixmap(CHUNK + 2, CHUNK + 2, Pixmap.Format.RGBA8888);
+        pixmap.setColor(rgba);
+        pixmap.fill();
+        return pixmap;
+    }
+}
@@ -0,0 +1,57 @@
+package org.gene.world.chunks.model;
+
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import org.gene.world.chunks.atlas.ChunkAtlas;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+@DisplayName("Testes do ChunkPipeline")
+class ChunkPipelineTest {
+
+    @BeforeAll
+    static void loadNatives() {
+        GdxNativesLoader.load();
+    }
+
+    @Test
+    @DisplayName("Fill que falha não derruba o upload e o chunk é agendado de novo ao ser desenhado")
+    void failedFillIsResubmitted() throws Exception {
+        AtomicInteger fills = new AtomicInteger();
+        ChunkModel failing = (pixmap, worldX0, worldY0, seed) -> {
+            fills.incrementAndGet();
+            throw new IllegalStateException("fill quebrado");
+        };
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        ChunkPipeline pipeline = new ChunkPipeline(new ChunkAtlas(8), executor);
+        try {
+            Chunk chunk = pipeline.submit(8, 0, 0, 0, 0, 1L, failing);
+            executor.submit(() -> {}).get(); // espera o worker
+
+            assertDoesNotThrow(pipeline::upload);
+            assertEquals(1, pipeline.getFailures());
+            assertInstanceOf(IllegalStateException.class, pipeline.getLastFailure());
+            assertEquals(0, pipeline.getPendingCount());
+            assertFalse(chunk.isReady());
+
+            chunk.pin();
+            executor.submit(() -> {}).get();
+            assertEquals(2, fills.get());
+            assertEquals(1, pipeline.getRegenerations());
+            assertDoesNotThrow(pipeline::upload);
+            assertEquals(2, pipeline.getFailures());
+        } finally {
+            pipeline.dispose();
+            executor.shutdown();
+        }
+    }
+}
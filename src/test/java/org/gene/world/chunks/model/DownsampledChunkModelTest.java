@@ -0,0 +1,138 @@
+package org.gene.world.chunks.model;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("Testes do DownsampledChunkModel")
+class DownsampledChunkModelTest {
+
+    @BeforeAll
+    static void loadNatives() {
+        GdxNativesLoader.load();
+    }
+
+    @Test
+    @DisplayName("Nível 1: cada quadrante vem de um membro e blocos uniformes mantêm a cor")
+    void quadrantsKeepMemberColors() {
+        int[] colors = {0xFF0000FF, 0x00FF00FF, 0x0000FFFF, 0x80808080};
+        ChunkModel[] members = new ChunkModel[4];
+        for (int i = 0; i < 4; i++) {
+            int color = colors[i];
+            members[i] = (pixmap, worldX0, worldY0, seed) -> {
+                pixmap.setColor(color);
+                pixmap.fill();
+            };
+        }
+        Pixmap out = new Pixmap(10, 10, Pixmap.Format.RGBA8888);
+        new DownsampledChunkModel(10, members).fill(out, 0, 0, 0L);
+
+        // quadrantes 0 e 1 são os do sul: embaixo na imagem
+        assertEquals(colors[0], out.getPixel(0, 9));
+        assertEquals(colors[1], out.getPixel(9, 9));
+        assertEquals(colors[2], out.getPixel(0, 0));
+        assertEquals(colors[3], out.getPixel(9, 0));
+        out.dispose();
+    }
+
+    @Test
+    @DisplayName("Pixels de saída são a média arredondada do bloco de entrada")
+    void averagesBlocks() {
+        // xadrez preto/branco: cada bloco 2x2 tem dois de cada
+        ChunkModel checker = (pixmap, worldX0, worldY0, seed) -> {
+            for (int y = 0; y < pixmap.getHeight(); y++) {
+                for (int x = 0; x < pixmap.getWidth(); x++) {
+                    pixmap.drawPixel(x, y, ((x + y) & 1) == 0 ? 0xFFFFFFFF : 0x000000FF);
+                }
+            }
+        };
+        Pixmap out = new Pixmap(4, 4, Pixmap.Format.RGBA8888);
+        new DownsampledChunkModel(4, new ChunkModel[]{checker, checker, checker, checker}).fill(out, 0, 0, 0L);
+
+        for (int y = 0; y < 4; y++) {
+            for (int x = 0; x < 4; x++) {
+                assertEquals(0x808080FF, out.getPixel(x, y), "Pixel (" + x + ", " + y + ")");
+            }
+        }
+        out.dispose();
+    }
+
+    @Test
+    @DisplayName("Nível 1 é a redução dos chunks na mesma orientação em que são desenhados")
+    void matchesLevelZeroOnScreen() {
+        int size = 6;
+        // Cada chunk com um gradiente diferente, que depende do mundo e da linha do Pixmap
+        ChunkModel model = (pixmap, worldX0, worldY0, seed) -> {
+            for (int y = 0; y < size; y++) {
+                for (int x = 0; x < size; x++) {
+                    int r = (worldX0 + x) * 9, g = (worldY0 / size) * 120 + y * 20;
+                    pixmap.drawPixel(x, y, (r << 24) | (g << 16) | 0xFF);
+                }
+            }
+        };
+        Pixmap[] chunks = new Pixmap[4];
+        for (int q = 0; q < 4; q++) {
+            chunks[q] = new Pixmap(size, size, Pixmap.Format.RGBA8888);
+            model.fill(chunks[q], (q & 1) * size, (q >> 1) * size, 0L);
+        }
+        Pixmap out = new Pixmap(size, size, Pixmap.Format.RGBA8888);
+        new DownsampledChunkModel(size, new ChunkModel[]{model, model, model, model}).fill(out, 0, 0, 0L);
+
+        // Na tela o chunk (mx, 1) fica em cima do (mx, 0), e a linha 0 de cada Pixmap é a de cima
+        for (int oy = 0; oy < size; oy++) {
+            for (int ox = 0; ox < size; ox++) {
+                int[] sum = new int[4];
+                for (int s = 0; s < 4; s++) {
+                    int sx = 2 * ox + (s & 1), sy = 2 * oy + (s >> 1);
+                    int my = sy < size ? 1 : 0, mx = sx < size ? 0 : 1;
+                    int pixel = chunks[my * 2 + mx].getPixel(sx % size, sy % size);
+                    for (int c = 0; c < 4; c++) sum[c] += (pixel >>> (24 - 8 * c)) & 0xFF;
+                }
+                int expected = 0;
+                for (int c = 0; c < 4; c++) expected |= ((sum[c] + 2) >> 2) << (24 - 8 * c);
+                assertEquals(expected, out.getPixel(ox, oy), "Pixel (" + ox + ", " + oy + ")");
+            }
+        }
+        for (Pixmap chunk : chunks) chunk.dispose();
+        out.dispose();
+    }
+
+    @Test
+    @DisplayName("Nível 2 usa os pixels guardados do nível 1 em vez de refazer os chunks")
+    void buildsFromCachedLevelBelow() {
+        AtomicInteger fills = new AtomicInteger();
+        ChunkModel[] levelOne = new ChunkModel[4];
+        for (int q = 0; q < 4; q++) {
+            int color = q < 2 ? 0xFF0000FF : 0x0000FFFF;
+            ChunkModel member = (pixmap, worldX0, worldY0, seed) -> {
+                fills.incrementAndGet();
+                pixmap.setColor(color);
+                pixmap.fill();
+            };
+            levelOne[q] = new DownsampledChunkModel(8, new ChunkModel[]{member, member, member, member});
+        }
+        DownsampledChunkModel levelTwo = new DownsampledChunkModel(8, levelOne);
+        assertEquals(2, levelTwo.getLevel());
+
+        Pixmap out = new Pixmap(8, 8, Pixmap.Format.RGBA8888);
+        for (int q = 0; q < 4; q++) levelOne[q].fill(out, (q & 1) * 16, (q >> 1) * 16, 0L);
+        assertEquals(16, fills.get());
+        levelTwo.fill(out, 0, 0, 0L);
+        assertEquals(16, fills.get());
+        assertEquals(0xFF0000FF, out.getPixel(0, 7));
+        assertEquals(0x0000FFFF, out.getPixel(7, 0));
+
+        // Os pixels guardados foram consumidos: sem eles, desce até os chunks com o mesmo resultado
+        levelTwo.fill(out, 0, 0, 0L);
+        assertEquals(32, fills.get());
+        assertEquals(0xFF0000FF, out.getPixel(7, 7));
+        assertEquals(0x0000FFFF, out.getPixel(0, 0));
+        out.dispose();
+    }
+}
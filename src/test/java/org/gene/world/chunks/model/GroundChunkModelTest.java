@@ -0,0 +1,41 @@
+package org.gene.world.chunks.model;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("Testes do GroundChunkModel")
+class GroundChunkModelTest {
+
+    @BeforeAll
+    static void loadNatives() {
+        GdxNativesLoader.load();
+    }
+
+    @ParameterizedTest(name = "offset ({0}, {1})")
+    @CsvSource({"0, 0", "300, 500", "-1037, -200"})
+    @DisplayName("Escrita direta no ByteBuffer é idêntica ao setColor/drawPixel")
+    void fillMatchesPerPixel(int worldX0, int worldY0) {
+        GroundChunkModel model = new GroundChunkModel(new Color(0.45f, 0.32f, 0.2f, 1f));
+        long seed = "A".hashCode();
+        Pixmap fast = new Pixmap(100, 100, Pixmap.Format.RGBA8888);
+        Pixmap perPixel = new Pixmap(100, 100, Pixmap.Format.RGBA8888);
+
+        model.fill(fast, worldX0, worldY0, seed);
+        model.fillPerPixel(perPixel, worldX0, worldY0, seed);
+
+        for (int y = 0; y < 100; y++) {
+            for (int x = 0; x < 100; x++) {
+                assertEquals(perPixel.getPixel(x, y), fast.getPixel(x, y), "Pixel (" + x + ", " + y + ")");
+            }
+        }
+        fast.dispose();
+        perPixel.dispose();
+    }
+}
@@ -0,0 +1,107 @@
+package org.gene.world.chunks.model;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessFiles;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Testes do TileAssets")
+class TileAssetsTest {
+
+    @BeforeAll
+    static void loadNatives() {
+        GdxNativesLoader.load();
+        Gdx.files = new HeadlessFiles();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        TileAssets.configure(0, null);
+        TileImageChunkModel.disposeCache();
+    }
+
+    @Test
+    @DisplayName("Redução por média de área preserva blocos e cores uniformes")
+    void resizeAveragesArea() {
+        Pixmap src = new Pixmap(4, 4, Pixmap.Format.RGBA8888);
+        src.setBlending(Pixmap.Blending.None);
+        src.setColor(0xFF0000FF);
+        src.fillRectangle(0, 0, 2, 4);
+        src.setColor(0x0000FFFF);
+        src.fillRectangle(2, 0, 2, 4);
+        src.drawPixel(0, 0, 0x000000FF); // um pixel escuro no bloco de cima à esquerda
+
+        Pixmap small = TileAssets.resize(src, 2);
+        assertEquals(0xBF0000FF, small.getPixel(0, 0)); // (0 + 3 * 255) / 4
+        assertEquals(0xFF0000FF, small.getPixel(0, 1));
+        assertEquals(0x0000FFFF, small.getPixel(1, 0));
+
+        // Fator não inteiro: cada pixel de destino cobre frações de pixels de origem
+        src.setColor(0x336699FF);
+        src.fill();
+        Pixmap odd = TileAssets.resize(src, 3);
+        for (int y = 0; y < 3; y++) {
+            for (int x = 0; x < 3; x++) {
+                assertEquals(0x336699FF, odd.getPixel(x, y));
+            }
+        }
+        src.dispose();
+        small.dispose();
+        odd.dispose();
+    }
+
+    @Test
+    @DisplayName("Textura de big/ é reduzida ao tamanho configurado e a redução vai para o disco")
+    void bigTextureIsResizedAndCached(@TempDir Path dir) throws IOException {
+        TileAssets.configure(16, dir);
+        Pixmap first = TileAssets.decode("assets/ground.png");
+        assertEquals(16, first.getWidth());
+        assertEquals(16, first.getHeight());
+
+        List<Path> cached;
+        try (Stream<Path> files = Files.list(dir)) {
+            cached = files.toList();
+        }
+        assertEquals(1, cached.size());
+        assertTrue(cached.get(0).getFileName().toString().startsWith("ground-16-"));
+
+        // A segunda leitura vem do arquivo de cache, com os mesmos pixels
+        Pixmap second = TileAssets.decode("assets/ground.png");
+        for (int y = 0; y < 16; y++) {
+            for (int x = 0; x < 16; x++) {
+                assertEquals(first.getPixel(x, y), second.getPixel(x, y));
+            }
+        }
+        first.dispose();
+        second.dispose();
+    }
+
+    @Test
+    @DisplayName("Preload deixa no cache todos os arquivos necessários")
+    void preloadFillsCache() {
+        TileAssets.configure(16, null);
+        int count = TileAssets.preload(2).join();
+
+        List<String> files = TileAssets.requiredFiles();
+        assertEquals(files.size(), count);
+        assertTrue(files.contains("assets/left-ground-right-water.png"));
+        for (String file : files) {
+            assertTrue(TileImageChunkModel.isCached(file), file);
+            assertEquals(16, TileImageChunkModel.cachedPixmap(file).getWidth());
+        }
+    }
+}
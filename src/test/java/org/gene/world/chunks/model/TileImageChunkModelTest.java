@@ -0,0 +1,68 @@
+package org.gene.world.chunks.model;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("Testes do TileImageChunkModel")
+class TileImageChunkModelTest {
+
+    @BeforeAll
+    static void loadNatives() {
+        GdxNativesLoader.load();
+    }
+
+    @ParameterizedTest(name = "offset ({0}, {1}), alpha {2}")
+    @CsvSource({
+            "0, 0, 255",
+            "3, 2, 255",
+            "-11, -4, 255",
+            "40, 17, 255",
+            "5, -9, 128"
+    })
+    @DisplayName("Cópia por ByteBuffer é idêntica ao caminho pixel a pixel")
+    void bulkFillMatchesPerPixel(int worldX0, int worldY0, int alpha) {
+        // tile 7x5 menor que o chunk, para cada linha dar várias voltas no wraparound
+        Pixmap tile = new Pixmap(7, 5, Pixmap.Format.RGBA8888);
+        Random random = new Random(worldX0 * 31L + worldY0);
+        for (int y = 0; y < tile.getHeight(); y++) {
+            for (int x = 0; x < tile.getWidth(); x++) {
+                tile.drawPixel(x, y, (random.nextInt() & 0xFFFFFF00) | alpha);
+            }
+        }
+        TileImageChunkModel model = new TileImageChunkModel("teste", tile);
+
+        Pixmap bulk = background();
+        Pixmap perPixel = background();
+        if (alpha != 255) {
+            // com blending a cópia direta não vale; sem blending ela precisa ser exata
+            bulk.setBlending(Pixmap.Blending.None);
+            perPixel.setBlending(Pixmap.Blending.None);
+        }
+        model.fill(bulk, worldX0, worldY0, 0L);
+        model.fillPerPixel(perPixel, worldX0, worldY0);
+
+        for (int y = 0; y < bulk.getHeight(); y++) {
+            for (int x = 0; x < bulk.getWidth(); x++) {
+                assertEquals(perPixel.getPixel(x, y), bulk.getPixel(x, y), "Pixel (" + x + ", " + y + ")");
+            }
+        }
+        tile.dispose();
+        bulk.dispose();
+        perPixel.dispose();
+    }
+
+    private static Pixmap background() {
+        Pixmap pixmap = new Pixmap(23, 12, Pixmap.Format.RGBA8888);
+        pixmap.setColor(0.2f, 0.4f, 0.6f, 1f);
+        pixmap.fill();
+        return pixmap;
+    }
+}
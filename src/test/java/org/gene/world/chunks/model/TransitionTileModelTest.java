@@ -0,0 +1,65 @@
+package org.gene.world.chunks.model;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessFiles;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import org.gene.world.chunks.enums.Biome;
+import org.gene.world.chunks.enums.TileType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("Testes do TransitionTileModel")
+class TransitionTileModelTest {
+
+    @BeforeAll
+    static void loadNatives() {
+        GdxNativesLoader.load();
+        Gdx.files = new HeadlessFiles();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        TransitionTiles.setCapacity(TransitionTiles.DEFAULT_CAPACITY);
+        TransitionTiles.clear();
+        TileImageChunkModel.disposeCache();
+    }
+
+    @Test
+    @DisplayName("Tile cheio composto é idêntico à textura base")
+    void fullTileIsBaseTexture() {
+        Pixmap composed = new Pixmap(100, 100, Pixmap.Format.RGBA8888);
+        Pixmap base = new Pixmap(100, 100, Pixmap.Format.RGBA8888);
+        new TransitionTileModel(TileType.FULL, Biome.GRASS, Biome.SAND).fill(composed, 137, -40, 0L);
+        new TileImageChunkModel(TileType.FULL, Biome.GRASS, Biome.SAND).fill(base, 137, -40, 0L);
+
+        for (int y = 0; y < 100; y++) {
+            for (int x = 0; x < 100; x++) {
+                assertEquals(base.getPixel(x, y), composed.getPixel(x, y), "Pixel (" + x + ", " + y + ")");
+            }
+        }
+        composed.dispose();
+        base.dispose();
+    }
+
+    @Test
+    @DisplayName("O cache de tiles compostos respeita a capacidade e recompõe o que saiu")
+    void cacheIsBounded() {
+        TransitionTiles.setCapacity(2);
+        long before = TransitionTiles.getComposedCount();
+        new TransitionTileModel(TileType.EDGE_N, Biome.LAVA, Biome.SAND);
+        new TransitionTileModel(TileType.EDGE_S, Biome.LAVA, Biome.SAND);
+        new TransitionTileModel(TileType.CORNER_NE, Biome.LAVA, Biome.SAND);
+        new TransitionTileModel(TileType.CORNER_NE, Biome.LAVA, Biome.SAND); // ainda no cache
+
+        assertEquals(2, TransitionTiles.getCachedCount());
+        assertEquals(before + 3, TransitionTiles.getComposedCount());
+
+        new TransitionTileModel(TileType.EDGE_N, Biome.LAVA, Biome.SAND);     // saiu: compõe de novo
+        assertEquals(before + 4, TransitionTiles.getComposedCount());
+    }
+}
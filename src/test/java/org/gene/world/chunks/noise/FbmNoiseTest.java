@@ -0,0 +1,37 @@
+package org.gene.world.chunks.noise;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("Testes do FbmNoise")
+class FbmNoiseTest {
+
+    @ParameterizedTest(name = "origem ({0}, {1}), vetorial {2}")
+    @CsvSource({
+            "0, 0, false",
+            "0, 0, true",
+            "337, 1200, true",
+            "-4100, -37, true",
+            "-4100, -37, false"
+    })
+    @DisplayName("fill é bit a bit igual ao sample por pixel")
+    void fillMatchesSample(int worldX0, int worldY0, boolean vector) {
+        RowKernel kernel = vector ? new VectorRowKernel() : RowKernel.SCALAR;
+        FbmNoise noise = new FbmNoise(1f / 28f, 2.1f, 0.55f, 3, kernel);
+        int w = 101, h = 37;
+        long seed = "A".hashCode();
+
+        float[] out = new float[w * h];
+        noise.fill(out, worldX0, worldY0, w, h, seed);
+
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                assertEquals(Float.floatToRawIntBits(noise.sample(worldX0 + x, worldY0 + y, seed)),
+                        Float.floatToRawIntBits(out[y * w + x]), "Pixel (" + x + ", " + y + ")");
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package org.gene.world.diagnostics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("Testes do Histogram")
+class HistogramTest {
+
+    @AfterEach
+    void restore() {
+        Metrics.setEnabled(false);
+    }
+
+    @Test
+    @DisplayName("Percentis caem no limite superior do balde de potência de 2")
+    void percentilesUseBucketBounds() {
+        Metrics.setEnabled(true);
+        Histogram h = new Histogram("teste");
+        for (int i = 0; i < 99; i++) h.record(1_000);   // balde [512, 1024)
+        h.record(1_000_000);                              // balde [524288, 1048576)
+
+        assertEquals(100, h.getCount());
+        assertEquals(1023, h.getPercentile(0.5));
+        assertEquals(1023, h.getPercentile(0.99));
+        assertEquals(1_048_575, h.getPercentile(1.0));
+        assertEquals((99 * 1_000 + 1_000_000) / 100.0, h.getMean(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Com as métricas desligadas nada é registrado")
+    void disabledRecordsNothing() {
+        Metrics.setEnabled(false);
+        Histogram h = new Histogram("teste");
+        h.record(1_000);
+        h.recordSince(Metrics.start());
+
+        assertEquals(0, h.getCount());
+        assertEquals(0, h.getPercentile(0.99));
+    }
+}
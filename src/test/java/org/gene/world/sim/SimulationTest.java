@@ -0,0 +1,111 @@
+package org.gene.world.sim;
+
+import com.artemis.utils.IntBag;
+import org.gene.world.chunks.enums.Biome;
+import org.gene.world.chunks.enums.TileType;
+import org.gene.world.world.MapGenerator;
+import org.gene.world.world.TileMap;
+import org.gene.world.world.query.SpatialGrid;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Testes da simulação de criaturas")
+class SimulationTest {
+
+    private static Habitat habitat() {
+        return new Habitat(new MapGenerator(3, MapGenerator.Solver.CONSTRAINED).generateTileMap(16, 16), 100, 0, 0);
+    }
+
+    @Test
+    @DisplayName("Quadrantes do habitat seguem o TileType, com o norte em y maior")
+    void habitatFollowsQuadrants() {
+        byte[] tiles = {(byte) TileType.EDGE_N.ordinal()};
+        Habitat habitat = new Habitat(TileMap.fromOrdinals(1, 1, tiles, Biome.GROUND, Biome.WATER), 100, 0, 0);
+
+        assertEquals(Biome.GROUND.ordinal(), habitat.biomeAt(25, 75));
+        assertEquals(Biome.GROUND.ordinal(), habitat.biomeAt(75, 99.9f));
+        assertEquals(Biome.WATER.ordinal(), habitat.biomeAt(25, 25));
+        assertTrue(habitat.isWater(habitat.quadrantAt(75, 10)));
+    }
+
+    @Test
+    @DisplayName("Passo fixo: o tempo que sobra fica para o próximo advance")
+    void fixedTimestep() {
+        Simulation sim = new Simulation(habitat(), 100, 1);
+        assertEquals(2, sim.advance(Simulation.STEP * 2.5f));
+        assertEquals(0.5f, sim.getAlpha(), 1e-3f);
+        assertEquals(1, sim.advance(Simulation.STEP * 0.6f));
+        assertEquals(3, sim.getTicks());
+        sim.dispose();
+    }
+
+    @Test
+    @DisplayName("População respeita a capacidade e as criaturas ficam dentro do habitat")
+    void populationBoundedAndInside() {
+        Simulation sim = new Simulation(habitat(), 600, 5);
+        sim.spawn(500);
+        for (int i = 0; i < 1200; i++) {
+            sim.tick();
+            assertTrue(sim.getPopulation() <= 600);
+        }
+        assertTrue(sim.getBirths() > 0, "ninguém nasceu");
+        assertEquals(500 + sim.getBirths() - sim.getDeaths(), sim.getPopulation());
+
+        CreatureStore store = sim.getStore();
+        IntBag ids = sim.getCreatures();
+        for (int i = 0; i < ids.size(); i++) {
+            int e = ids.get(i);
+            assertTrue(store.x[e] >= 0 && store.x[e] < sim.getHabitat().getWidth());
+            assertTrue(store.y[e] >= 0 && store.y[e] < sim.getHabitat().getHeight());
+        }
+        sim.dispose();
+    }
+
+    @Test
+    @DisplayName("Mesma seed, mesmas criaturas")
+    void deterministic() {
+        assertArrayEquals(run(), run());
+    }
+
+    private static float[] run() {
+        Simulation sim = new Simulation(habitat(), 300, 9);
+        sim.spawn(200);
+        for (int i = 0; i < 300; i++) sim.tick();
+        IntBag ids = sim.getCreatures();
+        float[] state = new float[ids.size() * 3];
+        for (int i = 0; i < ids.size(); i++) {
+            int e = ids.get(i);
+            state[i * 3] = sim.getStore().x[e];
+            state[i * 3 + 1] = sim.getStore().y[e];
+            state[i * 3 + 2] = sim.getStore().energy[e];
+        }
+        sim.dispose();
+        return state;
+    }
+
+    @Test
+    @DisplayName("Vizinhança é das posições do último tick")
+    void neighboursFollowTicks() {
+        Simulation sim = new Simulation(habitat(), 300, 9);
+        sim.spawn(200);
+        sim.tick();
+        SpatialGrid grid = sim.getNeighbours();
+        assertEquals(sim.getPopulation(), grid.size());
+
+        CreatureStore store = sim.getStore();
+        int e = sim.getCreatures().get(0);
+        int[] out = new int[300];
+        int n = grid.queryRadius(store.x[e], store.y[e], 1f, out);
+        assertTrue(Arrays.stream(out, 0, n).anyMatch(id -> id == e));
+
+        for (int i = 0; i < 30; i++) sim.tick();
+        assertEquals(sim.getPopulation(), sim.getNeighbours().size());
+        sim.dispose();
+    }
+}
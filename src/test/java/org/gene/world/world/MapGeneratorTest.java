@@ -0,0 +1,168 @@
+package org.gene.world.world;
+
+import org.gene.world.chunks.enums.Biome;
+import org.gene.world.chunks.enums.Direction;
+import org.gene.world.chunks.enums.TileType;
+import org.gene.world.world.wfc.BitmaskWfcSolver;
+import org.gene.world.world.wfc.TileRules;
+import org.gene.world.world.wfc.WfcStats;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Garante que os diferentes solvers do MapGenerator continuem equivalentes.
+ */
+@DisplayName("Testes do MapGenerator")
+class MapGeneratorTest {
+
+    @ParameterizedTest(name = "seed={0}, {1}x{2}")
+    @CsvSource({
+            "65, 10, 10",
+            "1, 10, 10",
+            "42, 17, 9",
+            "-7, 32, 32",
+            "123456789, 5, 40"
+    })
+    @DisplayName("BITMASK deve gerar exatamente o mesmo mapa que LEGACY")
+    void bitmaskMatchesLegacy(long seed, int width, int height) {
+        MapGenerator.GeneratedTile[][] legacy =
+                new MapGenerator(seed, MapGenerator.Solver.LEGACY).generateMap(width, height);
+        MapGenerator.GeneratedTile[][] bitmask =
+                new MapGenerator(seed, MapGenerator.Solver.BITMASK).generateMap(width, height);
+
+        for (int x = 0; x < width; x++) {
+            assertArrayEquals(legacy[x], bitmask[x], "Coluna x=" + x + " diverge para a seed " + seed);
+        }
+    }
+
+    @Test
+    @DisplayName("generateTiles do LEGACY dá os mesmos ordinais que o BITMASK")
+    void legacyTilesMatchBitmask() {
+        assertArrayEquals(new MapGenerator(42, MapGenerator.Solver.BITMASK).generateTiles(17, 9),
+                new MapGenerator(42, MapGenerator.Solver.LEGACY).generateTiles(17, 9));
+    }
+
+    @ParameterizedTest(name = "seed={0}, {1}x{2}")
+    @CsvSource({
+            "65, 10, 10",
+            "1, 64, 64",
+            "42, 17, 9",
+            "-7, 128, 128",
+            "123456789, 5, 200"
+    })
+    @DisplayName("CONSTRAINED deve preencher todas as células respeitando as 8 adjacências")
+    void constrainedFillsEveryCellWithValidNeighbours(long seed, int width, int height) {
+        MapGenerator generator = new MapGenerator(seed, MapGenerator.Solver.CONSTRAINED);
+        MapGenerator.GeneratedTile[][] map = generator.generateMap(width, height);
+
+        assertValidMap(map, width, height);
+
+        WfcStats stats = generator.getLastStats();
+        assertTrue(stats.getCollapses() >= (long) width * height, "Toda célula deve ter sido colapsada");
+        assertTrue(stats.getPropagationSteps() >= stats.getCollapses(), "Cada colapso propaga ao menos uma vez");
+        assertTrue(stats.getRestarts() <= stats.getContradictions(), "Só há reinício após contradição");
+    }
+
+    @ParameterizedTest(name = "seed={0}")
+    @CsvSource({"65", "9001"})
+    @DisplayName("CONSTRAINED deve ser determinístico para a mesma seed")
+    void constrainedIsDeterministic(long seed) {
+        MapGenerator.GeneratedTile[][] a = new MapGenerator(seed, MapGenerator.Solver.CONSTRAINED).generateMap(48, 48);
+        MapGenerator.GeneratedTile[][] b = new MapGenerator(seed, MapGenerator.Solver.CONSTRAINED).generateMap(48, 48);
+        for (int x = 0; x < 48; x++) {
+            assertArrayEquals(a[x], b[x], "Coluna x=" + x + " diverge");
+        }
+    }
+
+    @ParameterizedTest(name = "seed={0}")
+    @CsvSource({"65", "-3", "777"})
+    @DisplayName("Regiões geradas em qualquer ordem devem costurar sem violar adjacências")
+    void regionsStitchSeamlessly(long seed) {
+        final int size = 8;
+        final int regions = 3;
+        final int span = size * regions;
+        MapGenerator generator = new MapGenerator(seed, MapGenerator.Solver.CONSTRAINED);
+        byte[][] generated = new byte[regions * regions][];
+
+        MapGenerator.TileLookup lookup = (x, y) -> {
+            if (x < 0 || y < 0 || x >= span || y >= span) return BitmaskWfcSolver.UNCOLLAPSED;
+            byte[] region = generated[(y / size) * regions + (x / size)];
+            return region == null ? BitmaskWfcSolver.UNCOLLAPSED : region[(y % size) * size + (x % size)];
+        };
+
+        // Ordem embaralhada: centro, cantos, depois bordas
+        int[] order = {4, 0, 8, 2, 6, 1, 3, 5, 7};
+        for (int r : order) {
+            int rx = r % regions, ry = r / regions;
+            generated[r] = generator.generateRegion(rx * size, ry * size, size, lookup);
+        }
+
+        MapGenerator.GeneratedTile[][] map = new MapGenerator.GeneratedTile[span][span];
+        for (int x = 0; x < span; x++) {
+            for (int y = 0; y < span; y++) {
+                map[x][y] = generator.toGeneratedTile(TileRules.TILES[lookup.tileAt(x, y)]);
+            }
+        }
+        assertValidMap(map, span, span);
+    }
+
+    @ParameterizedTest(name = "seed={0}, {1}x{2}")
+    @CsvSource({"65, 100, 100", "42, 37, 81"})
+    @DisplayName("ParallelMapGenerator deve gerar o mesmo mapa válido com 1 ou 4 threads")
+    void parallelIsIndependentOfThreadCount(long seed, int width, int height) {
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool four = new ForkJoinPool(4);
+        try {
+            MapGenerator.GeneratedTile[][] a = new ParallelMapGenerator(seed, 16, single).generateMap(width, height);
+            MapGenerator.GeneratedTile[][] b = new ParallelMapGenerator(seed, 16, four).generateMap(width, height);
+
+            assertValidMap(a, width, height);
+            for (int x = 0; x < width; x++) {
+                assertArrayEquals(a[x], b[x], "Coluna x=" + x + " diverge entre 1 e 4 threads");
+            }
+        } finally {
+            single.shutdown();
+            four.shutdown();
+        }
+    }
+
+    // ------------------- util -------------------
+
+    /**
+     * Verifica que não há células vazias e que todo par de vizinhos (inclusive diagonais) é válido.
+     */
+    static void assertValidMap(MapGenerator.GeneratedTile[][] map, int width, int height) {
+        assertEquals(width, map.length);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                assertNotNull(map[x][y], "Célula vazia em (" + x + ", " + y + ")");
+                TileType tile = rawType(map[x][y]);
+                for (Direction dir : Direction.values()) {
+                    int nx = x + dir.getDx();
+                    int ny = y + dir.getDy();
+                    if (nx < 0 || nx >= width || ny < 0 || ny >= height) continue;
+                    TileType neighbour = rawType(map[nx][ny]);
+                    assertTrue(tile.getValidNeighbors(dir).contains(neighbour),
+                            tile + " em (" + x + ", " + y + ") não aceita " + neighbour + " em " + dir);
+                }
+            }
+        }
+    }
+
+    // O MapGenerator troca FULL_SECONDARY por FULL com os biomas invertidos; desfaz aqui.
+    private static TileType rawType(MapGenerator.GeneratedTile tile) {
+        if (tile.type() == TileType.FULL && tile.primary() == Biome.WATER) {
+            return TileType.FULL_SECONDARY;
+        }
+        return tile.type();
+    }
+}
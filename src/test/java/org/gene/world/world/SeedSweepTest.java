@@ -0,0 +1,32 @@
+package org.gene.world.world;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("Testes do SeedSweep")
+class SeedSweepTest {
+
+    @Test
+    @DisplayName("Cada seed gera o mesmo mapa em paralelo e sozinha, e o histograma cobre todas as células")
+    void parallelMatchesSingleSeed() {
+        SeedSweep sweep = new SeedSweep(24, 16, MapGenerator.Solver.CONSTRAINED);
+        Map<Long, SeedSweep.Result> results = new HashMap<>();
+        sweep.run(100, 12, 3, r -> results.put(r.seed(), r));
+
+        assertEquals(12, results.size());
+        for (long seed = 100; seed < 112; seed++) {
+            SeedSweep.Result parallel = results.get(seed);
+            SeedSweep.Result single = sweep.generate(seed);
+            assertArrayEquals(single.tiles(), parallel.tiles(), "Seed " + seed);
+            assertArrayEquals(single.histogram(), parallel.histogram(), "Seed " + seed);
+            assertEquals(24 * 16, Arrays.stream(parallel.histogram()).sum(), "Seed " + seed);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package org.gene.world.world;
+
+import org.gene.world.world.query.TerrainIndex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@DisplayName("Testes do StreamingWorld")
+class StreamingWorldTest {
+
+    @Test
+    @DisplayName("Cada região carregada responde consultas de terreno com os próprios tiles")
+    void terrainPerRegion() {
+        StreamingWorld world = new StreamingWorld(50, 4, 7L, 8);
+        try {
+            world.update(0, 0, 200, 200); // carrega a região (0, 0), a mais próxima do centro
+            assertEquals(1, world.getLoadedRegionCount());
+
+            TerrainIndex expected = new TerrainIndex(world.snapshot(0, 0, 4, 4), 50, 0, 0);
+            assertEquals(0f, world.terrainAt(10, 10).getOriginX());
+            for (float y = 5; y < 200; y += 12.5f) {
+                for (float x = 5; x < 200; x += 12.5f) {
+                    assertEquals(expected.biomeAt(x, y), world.biomeAt(x, y), "Ponto (" + x + ", " + y + ")");
+                }
+            }
+            assertNull(world.terrainAt(5000, 5000));
+            assertEquals(TerrainIndex.VOID, world.biomeAt(5000, 5000));
+        } finally {
+            world.dispose();
+        }
+    }
+}
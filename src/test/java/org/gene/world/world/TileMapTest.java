@@ -0,0 +1,126 @@
+package org.gene.world.world;
+
+import org.gene.world.chunks.enums.Biome;
+import org.gene.world.chunks.enums.TileType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Testes do TileMap e do TileMapFormat")
+class TileMapTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("generateTileMap equivale ao generateMap, célula a célula")
+    void tileMapMatchesGeneratedTiles() {
+        MapGenerator.GeneratedTile[][] expected =
+                new MapGenerator(65, MapGenerator.Solver.CONSTRAINED).generateMap(40, 30);
+        TileMap actual = new MapGenerator(65, MapGenerator.Solver.CONSTRAINED).generateTileMap(40, 30);
+
+        for (int y = 0; y < 30; y++) {
+            for (int x = 0; x < 40; x++) {
+                assertEquals(expected[x][y], actual.get(x, y), "Célula (" + x + ", " + y + ")");
+            }
+        }
+        // instâncias compartilhadas: ler não aloca
+        assertSame(actual.get(0, 0), actual.get(0, 0));
+    }
+
+    @ParameterizedTest(name = "compactado: {0}")
+    @ValueSource(booleans = {false, true})
+    @DisplayName("Arquivo e stream voltam o mesmo mapa, com várias faixas e a última parcial")
+    void roundTrip(boolean compress) throws IOException {
+        TileMap map = new MapGenerator(1, MapGenerator.Solver.CONSTRAINED)
+                .generateTileMap(300, TileMapFormat.DEFAULT_BAND_ROWS * 2 + 17);
+        map.set(5, 7, null);
+
+        Path file = dir.resolve("map.gwtm");
+        TileMapFormat.write(map, file, compress);
+        assertSameMap(map, TileMapFormat.read(file));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        TileMapFormat.write(map, bytes, compress);
+        TileMap streamed = TileMapFormat.read(new ByteArrayInputStream(bytes.toByteArray()));
+        assertSameMap(map, streamed);
+        assertNull(streamed.get(5, 7));
+    }
+
+    @Test
+    @DisplayName("FULL_SECONDARY vira FULL com os biomas trocados, pela paleta")
+    void fullSecondaryUsesSwappedPalette() {
+        byte[] ordinals = {(byte) TileType.FULL_SECONDARY.ordinal(), (byte) TileType.EDGE_N.ordinal()};
+        TileMap map = TileMap.fromOrdinals(2, 1, ordinals, Biome.GROUND, Biome.WATER);
+
+        assertEquals(new MapGenerator.GeneratedTile(TileType.FULL, Biome.WATER, Biome.GROUND), map.get(0, 0));
+        assertEquals(new MapGenerator.GeneratedTile(TileType.EDGE_N, Biome.GROUND, Biome.WATER), map.get(1, 0));
+    }
+
+    @Test
+    @DisplayName("Bioma fora do enum na paleta é IOException, no stream e no arquivo")
+    void rejectsInvalidPaletteBiome() throws IOException {
+        TileMap map = new MapGenerator(2, MapGenerator.Solver.CONSTRAINED).generateTileMap(8, 8);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TileMapFormat.write(map, out, false);
+        byte[] bytes = out.toByteArray();
+        bytes[21] = (byte) 200; // primary do primeiro par, logo depois do cabeçalho e do tamanho da paleta
+
+        assertThrows(IOException.class, () -> TileMapFormat.read(new ByteArrayInputStream(bytes)));
+        Path file = dir.resolve("corrupt.gwtm");
+        Files.write(file, bytes);
+        assertThrows(IOException.class, () -> TileMapFormat.read(file));
+    }
+
+    @Test
+    @DisplayName("Célula com tipo ou paleta inválidos e dimensões negativas são IOException")
+    void rejectsCorruptCells() throws IOException {
+        TileMap map = new MapGenerator(2, MapGenerator.Solver.CONSTRAINED).generateTileMap(8, 8);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TileMapFormat.write(map, out, false);
+        byte[] bytes = out.toByteArray();
+        // cabeçalho (20), paleta (1 + 2 por par), cabeçalho do bloco cru (9)
+        int firstCell = 20 + 1 + 2 * map.getPalette().size() + 9;
+
+        byte[] badPalette = bytes.clone();
+        badPalette[firstCell] = (byte) (0xF0 | TileType.FULL.ordinal());
+        assertThrows(IOException.class, () -> TileMapFormat.read(new ByteArrayInputStream(badPalette)));
+
+        byte[] badType = bytes.clone();
+        badType[firstCell] = (byte) TileType.values().length;
+        if (TileType.values().length < TileMap.EMPTY) {
+            assertThrows(IOException.class, () -> TileMapFormat.read(new ByteArrayInputStream(badType)));
+        }
+
+        byte[] negative = bytes.clone();
+        negative[8] = (byte) 0xFF; // byte mais alto da largura
+        Path file = dir.resolve("negative.gwtm");
+        Files.write(file, negative);
+        assertThrows(IOException.class, () -> TileMapFormat.read(file));
+        assertThrows(IOException.class, () -> TileMapFormat.read(new ByteArrayInputStream(negative)));
+    }
+
+    private static void assertSameMap(TileMap expected, TileMap actual) {
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        assertEquals(expected.getPalette().size(), actual.getPalette().size());
+        for (int i = 0; i < expected.getPalette().size(); i++) {
+            assertArrayEquals(expected.getPalette().get(i), actual.getPalette().get(i));
+        }
+        assertArrayEquals(expected.cells(), actual.cells());
+    }
+}
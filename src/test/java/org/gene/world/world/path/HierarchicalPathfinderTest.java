@@ -0,0 +1,127 @@
+package org.gene.world.world.path;
+
+import com.badlogic.gdx.utils.IntArray;
+import org.gene.world.chunks.enums.Biome;
+import org.gene.world.chunks.enums.TileType;
+import org.gene.world.world.MapGenerator;
+import org.gene.world.world.TileMap;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Testes do pathfinding hierárquico")
+class HierarchicalPathfinderTest {
+    private static final int SIDE = 40;
+    private static final int GAP_Y = 30;
+
+    /** Terra com um rio de água na coluna 20, atravessável só pela célula (20, GAP_Y). */
+    private static TileMap river() {
+        byte[] tiles = new byte[SIDE * SIDE];
+        Arrays.fill(tiles, (byte) TileType.FULL.ordinal());
+        for (int y = 0; y < SIDE; y++) {
+            if (y != GAP_Y) tiles[y * SIDE + 20] = (byte) TileType.FULL_SECONDARY.ordinal();
+        }
+        return TileMap.fromOrdinals(SIDE, SIDE, tiles, Biome.GROUND, Biome.WATER);
+    }
+
+    /** Confere que cada passo é um movimento válido no grid e devolve o custo do caminho. */
+    private static float checkPath(WalkGrid grid, IntArray path, int sx, int sy, int gx, int gy) {
+        int width = grid.getWidth();
+        assertEquals(sy * width + sx, path.first());
+        assertEquals(gy * width + gx, path.peek());
+        float cost = 0;
+        for (int i = 1; i < path.size; i++) {
+            int ax = path.get(i - 1) % width, ay = path.get(i - 1) / width;
+            int dx = path.get(i) % width - ax, dy = path.get(i) / width - ay;
+            assertTrue(Math.abs(dx) <= 1 && Math.abs(dy) <= 1 && (dx != 0 || dy != 0), "passo inválido");
+            assertTrue(LocalGraph.canStep(grid, ax, ay, dx, dy), "passo bloqueado");
+            cost += dx != 0 && dy != 0 ? LocalGraph.SQRT2 : 1f;
+        }
+        return cost;
+    }
+
+    @Test
+    @DisplayName("Rota longa atravessa o rio pela única passagem")
+    void crossesRiverThroughGap() {
+        HierarchicalPathfinder finder = new HierarchicalPathfinder(river(), HierarchicalPathfinder.LAND, 8, 16);
+        IntArray path = new IntArray();
+        // 80 x 80 quadrantes em clusters de 16: 5 x 5, com portais entre eles
+        assertEquals(25, finder.getClusterCount());
+        assertTrue(finder.getPortalCount() > 0);
+
+        assertTrue(finder.findPath(2, 2, 70, 4, path));
+        checkPath(finder.getGrid(), path, 2, 2, 70, 4);
+        int width = finder.getGrid().getWidth();
+        boolean throughGap = false;
+        for (int i = 0; i < path.size; i++) {
+            int qx = path.get(i) % width, qy = path.get(i) / width;
+            if (qx / 2 == 20) throughGap |= qy / 2 == GAP_Y;
+        }
+        assertTrue(throughGap, "não passou pela passagem");
+        assertFalse(finder.findPath(2, 2, 40, 4, path), "destino na água");
+    }
+
+    @Test
+    @DisplayName("Mesmo alcance que o A* direto e custo próximo do ótimo")
+    void matchesFlatSearch() {
+        TileMap map = new MapGenerator(11, MapGenerator.Solver.CONSTRAINED).generateTileMap(48, 48);
+        HierarchicalPathfinder finder = new HierarchicalPathfinder(map, HierarchicalPathfinder.LAND, 8, 0);
+        // Um cluster só do tamanho do mapa: cada consulta é um A* sobre todos os quadrantes
+        HierarchicalPathfinder flat = new HierarchicalPathfinder(map, HierarchicalPathfinder.LAND, 48, 0);
+        WalkGrid grid = finder.getGrid();
+        Random random = new Random(4);
+        IntArray path = new IntArray(), optimal = new IntArray();
+
+        int found = 0;
+        for (int i = 0; i < 2000; i++) {
+            int sx = random.nextInt(96), sy = random.nextInt(96);
+            int gx = random.nextInt(96), gy = random.nextInt(96);
+            if (!grid.isWalkable(sx, sy) || !grid.isWalkable(gx, gy)) continue;
+            boolean reachable = flat.findPath(sx, sy, gx, gy, optimal);
+            assertEquals(reachable, finder.findPath(sx, sy, gx, gy, path), "alcance diferente");
+            if (!reachable) continue;
+            float best = checkPath(grid, optimal, sx, sy, gx, gy);
+            float cost = checkPath(grid, path, sx, sy, gx, gy);
+            assertTrue(cost <= best * 1.5f + 4f, "caminho longo demais: " + cost + " contra " + best);
+            found++;
+        }
+        assertTrue(found > 50, "poucos pares alcançáveis: " + found);
+    }
+
+    @Test
+    @DisplayName("Cache devolve o mesmo caminho e cai quando a região muda")
+    void cacheInvalidatedByRegion() {
+        TileMap map = river();
+        HierarchicalPathfinder finder = new HierarchicalPathfinder(map, HierarchicalPathfinder.LAND, 4, 16);
+        IntArray first = new IntArray(), second = new IntArray();
+
+        assertTrue(finder.findPath(2, 2, 70, 4, first));
+        assertTrue(finder.findPath(2, 2, 70, 4, second));
+        assertEquals(first, second);
+        assertEquals(1, finder.getCacheHits());
+
+        // Mudança longe do caminho não derruba o cache
+        map.set(2, 38, new MapGenerator.GeneratedTile(TileType.FULL, Biome.WATER, Biome.GROUND));
+        finder.invalidateRegion(map, 2, 38, 1, 1);
+        assertEquals(1, finder.getCachedPaths());
+
+        // Fecha a passagem: não há mais caminho
+        map.set(20, GAP_Y, new MapGenerator.GeneratedTile(TileType.FULL, Biome.WATER, Biome.GROUND));
+        finder.invalidateRegion(map, 20, GAP_Y, 1, 1);
+        assertEquals(0, finder.getCachedPaths());
+        assertFalse(finder.findPath(2, 2, 70, 4, second));
+
+        // Abre outra mais abaixo
+        map.set(20, 5, new MapGenerator.GeneratedTile(TileType.FULL, Biome.GROUND, Biome.WATER));
+        finder.invalidateRegion(map, 20, 5, 1, 1);
+        assertTrue(finder.findPath(2, 2, 70, 4, second));
+        checkPath(finder.getGrid(), second, 2, 2, 70, 4);
+        assertTrue(second.size < first.size);
+    }
+}
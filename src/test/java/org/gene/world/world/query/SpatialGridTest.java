@@ -0,0 +1,140 @@
+package org.gene.world.world.query;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("Testes do grid espacial")
+class SpatialGridTest {
+    private static final float SIZE = 1000;
+    private static final int COUNT = 3000;
+
+    private final float[] x = new float[COUNT * 2];
+    private final float[] y = new float[COUNT * 2];
+    private final int[] ids = new int[COUNT];
+
+    /** Ids espaçados (como os do Artemis depois de mortes), posições ao acaso. */
+    private void scatter(long seed) {
+        Random random = new Random(seed);
+        for (int i = 0; i < COUNT; i++) {
+            ids[i] = i * 2 + 1;
+            x[ids[i]] = random.nextFloat() * SIZE;
+            y[ids[i]] = random.nextFloat() * SIZE;
+        }
+    }
+
+    private static float delta(float d, boolean wrap) {
+        if (!wrap) return d;
+        if (d > SIZE / 2) return d - SIZE;
+        return d < -SIZE / 2 ? d + SIZE : d;
+    }
+
+    private int[] bruteRadius(float qx, float qy, float r, boolean wrap) {
+        return Arrays.stream(ids).filter(e -> {
+            float dx = delta(x[e] - qx, wrap), dy = delta(y[e] - qy, wrap);
+            return dx * dx + dy * dy <= r * r;
+        }).sorted().toArray();
+    }
+
+    private static int[] sorted(int[] out, int n) {
+        int[] copy = Arrays.copyOf(out, n);
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    @Test
+    @DisplayName("Raio e retângulo acham o mesmo que a força bruta")
+    void matchesBruteForce() {
+        scatter(1);
+        SpatialGrid grid = new SpatialGrid(SIZE, SIZE, 40, false);
+        grid.rebuild(ids, COUNT, x, y);
+        int[] out = new int[COUNT];
+        Random random = new Random(2);
+        for (int i = 0; i < 200; i++) {
+            float qx = random.nextFloat() * SIZE, qy = random.nextFloat() * SIZE;
+            float r = 5 + random.nextFloat() * 120;
+            int n = grid.queryRadius(qx, qy, r, out);
+            assertArrayEquals(bruteRadius(qx, qy, r, false), sorted(out, n));
+
+            float x1 = qx + r * 2, y1 = qy + r;
+            int[] expected = Arrays.stream(ids)
+                    .filter(e -> x[e] >= qx && x[e] <= x1 && y[e] >= qy && y[e] <= y1).sorted().toArray();
+            n = grid.queryRect(qx, qy, x1, y1, out);
+            assertArrayEquals(expected, sorted(out, n));
+        }
+    }
+
+    @Test
+    @DisplayName("No toro as consultas enxergam o outro lado da borda")
+    void wrapsAroundEdges() {
+        scatter(3);
+        SpatialGrid grid = new SpatialGrid(SIZE, SIZE, 50, true);
+        grid.rebuild(ids, COUNT, x, y);
+        int[] out = new int[COUNT];
+        float[][] points = {{2, 3}, {998, 500}, {500, 999}, {0, 0}, {990, 990}};
+        for (float[] p : points) {
+            int n = grid.queryRadius(p[0], p[1], 60, out);
+            assertArrayEquals(bruteRadius(p[0], p[1], 60, true), sorted(out, n));
+        }
+
+        // Retângulo passando da borda direita: [950, 1050] = [950, 1000) + [0, 50]
+        int[] expected = Arrays.stream(ids)
+                .filter(e -> (x[e] >= 950 || x[e] <= 50) && y[e] >= 100 && y[e] <= 200).sorted().toArray();
+        int n = grid.queryRect(950, 100, 1050, 200, out);
+        assertArrayEquals(expected, sorted(out, n));
+    }
+
+    @Test
+    @DisplayName("No toro com largura que não é múltipla da célula, a emenda não perde vizinhos")
+    void wrapsWithPartialCell() {
+        float[] px = {5, 240, 125};
+        float[] py = {50, 50, 160};
+        SpatialGrid grid = new SpatialGrid(250, 170, 100, true);
+        grid.rebuild(new int[]{0, 1, 2}, 3, px, py);
+        int[] out = new int[3];
+
+        // x = 5 está a 15 px de x = 240 pelo outro lado da emenda
+        assertEquals(2, grid.queryRadius(240, 50, 30, out));
+        assertArrayEquals(new int[]{0, 1}, sorted(out, 2));
+        assertEquals(0, grid.nearest(240, 50, 30, 1));
+        assertEquals(2, grid.queryRect(230, 40, 260, 60, out));
+        assertArrayEquals(new int[]{0, 1}, sorted(out, 2));
+        // e em y: 160 fica a 60 px de 50 passando por 170
+        assertEquals(2, grid.nearest(125, 50, 70, -1));
+    }
+
+    @Test
+    @DisplayName("Mais próximo ignora quem pergunta e respeita o raio máximo")
+    void nearestNeighbour() {
+        scatter(5);
+        for (boolean wrap : new boolean[]{false, true}) {
+            SpatialGrid grid = new SpatialGrid(SIZE, SIZE, 25, wrap);
+            grid.rebuild(ids, COUNT, x, y);
+            for (int i = 0; i < COUNT; i += 37) {
+                int self = ids[i];
+                int best = -1;
+                float best2 = 80 * 80;
+                for (int e : ids) {
+                    if (e == self) continue;
+                    float dx = delta(x[e] - x[self], wrap), dy = delta(y[e] - y[self], wrap);
+                    if (dx * dx + dy * dy <= best2) {
+                        best2 = dx * dx + dy * dy;
+                        best = e;
+                    }
+                }
+                int found = grid.nearest(x[self], y[self], 80, self);
+                if (found != best) {
+                    // Empate de distância pode escolher outro id
+                    float dx = delta(x[found] - x[self], wrap), dy = delta(y[found] - y[self], wrap);
+                    assertEquals(best2, dx * dx + dy * dy, 1e-3f);
+                }
+            }
+            assertEquals(-1, grid.nearest(-500, -500, 10, -1));
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package org.gene.world.world.query;
+
+import org.gene.world.chunks.enums.Biome;
+import org.gene.world.chunks.enums.TileType;
+import org.gene.world.world.MapGenerator;
+import org.gene.world.world.TileMap;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@DisplayName("Testes da consulta de terreno")
+class TerrainIndexTest {
+
+    @Test
+    @DisplayName("Bioma por pixel de mundo segue os quadrantes, com a origem deslocada")
+    void biomeByWorldPixel() {
+        byte[] tiles = {(byte) TileType.EDGE_N.ordinal(), (byte) TileType.FULL.ordinal()};
+        TerrainIndex terrain = new TerrainIndex(TileMap.fromOrdinals(2, 1, tiles, Biome.GRASS, Biome.WATER), 100, -200, 50);
+
+        assertEquals(Biome.GRASS.ordinal(), terrain.biomeAt(-175, 125));  // norte da célula 0
+        assertEquals(Biome.WATER.ordinal(), terrain.biomeAt(-175, 75));   // sul da célula 0
+        assertEquals(Biome.GRASS.ordinal(), terrain.biomeAt(-50, 60));
+        assertEquals(TerrainIndex.VOID, terrain.biomeAt(10, 60));         // depois da borda direita
+        assertEquals(TerrainIndex.VOID, terrain.biomeAt(-175, 49));
+
+        assertEquals(0, terrain.tileX(-101));
+        assertEquals(1, terrain.tileX(-100));
+        assertEquals(TileType.EDGE_N, terrain.typeAt(-150, 100));
+        assertEquals(TileType.FULL, terrain.typeAtTile(1, 0));
+        assertNull(terrain.typeAtTile(2, 0));
+    }
+
+    @Test
+    @DisplayName("refresh relê a região depois que o TileMap muda")
+    void refreshAfterEdit() {
+        TileMap map = new MapGenerator(9, MapGenerator.Solver.CONSTRAINED).generateTileMap(8, 8);
+        TerrainIndex terrain = new TerrainIndex(map, 64, 0, 0);
+
+        map.set(3, 4, new MapGenerator.GeneratedTile(TileType.FULL, Biome.LAVA, Biome.GROUND));
+        terrain.refresh(3, 4, 1, 1);
+        for (int q = 0; q < 4; q++) {
+            assertEquals(Biome.LAVA.ordinal(), terrain.biomeAt(3 * 64 + 16 + (q & 1) * 32, 4 * 64 + 16 + (q >> 1) * 32));
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package org.gene.world.world.wfc;
+
+import org.gene.world.chunks.enums.TileType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Testes do BitmaskWfcSolver")
+class BitmaskWfcSolverTest {
+
+    @Test
+    @DisplayName("AC3: contradição entre células fixadas é detectada e os reinícios são limitados")
+    void contradictionBetweenPinsIsBounded() {
+        BitmaskWfcSolver solver = new BitmaskWfcSolver(8, 8, new Random(1), BitmaskWfcSolver.Propagation.AC3);
+        solver.collapse(0, 0, TileType.FULL);
+
+        // FULL_SECONDARY colado num FULL esvazia o domínio da célula acima dos dois
+        assertThrows(IllegalStateException.class, () -> solver.collapse(1, 0, TileType.FULL_SECONDARY));
+
+        WfcStats stats = solver.getStats();
+        assertTrue(stats.getContradictions() > 0, "A contradição deve ser contada");
+        assertEquals(64, stats.getRestarts(), "Os reinícios locais devem parar no limite");
+    }
+
+    @Test
+    @DisplayName("AC3: células fixadas são respeitadas pelo restante do grid")
+    void pinsArePreserved() {
+        BitmaskWfcSolver solver = new BitmaskWfcSolver(16, 16, new Random(7), BitmaskWfcSolver.Propagation.AC3);
+        solver.collapse(3, 3, TileType.FULL_SECONDARY);
+        solver.collapse(12, 12, TileType.CORNER_NE);
+        solver.run();
+
+        assertEquals(TileType.FULL_SECONDARY.ordinal(), solver.tileAt(3, 3));
+        assertEquals(TileType.CORNER_NE.ordinal(), solver.tileAt(12, 12));
+        for (int y = 0; y < 16; y++) {
+            for (int x = 0; x < 16; x++) {
+                assertTrue(solver.tileAt(x, y) != BitmaskWfcSolver.UNCOLLAPSED, "Célula vazia em (" + x + ", " + y + ")");
+            }
+        }
+    }
+}